@@ -0,0 +1,25 @@
+#!/usr/bin/env sh
+# Prints read and upload throughput and p99 latency of two load test runs side by side.
+# Usage: loadtest/compare.sh [baseline-mode] [candidate-mode]   (defaults: platform virtual)
+set -e
+
+BASELINE="${1:-platform}"
+CANDIDATE="${2:-virtual}"
+DIR="$(dirname "$0")/results"
+
+for mode in "$BASELINE" "$CANDIDATE"; do
+    if [ ! -f "$DIR/$mode.json" ]; then
+        echo "Missing $DIR/$mode.json; run loadtest/mixed-traffic.js with -e MODE=$mode first." >&2
+        exit 1
+    fi
+done
+
+jq -rn --slurpfile a "$DIR/$BASELINE.json" --slurpfile b "$DIR/$CANDIDATE.json" '
+  def row(label; f): [label, ($a[0] | f), ($b[0] | f)] | @tsv;
+  (["metric", $a[0].mode, $b[0].mode] | @tsv),
+  row("read req/s"; .read.requestsPerSecond),
+  row("read p99 ms"; .read.p99Ms),
+  row("upload req/s"; .upload.requestsPerSecond),
+  row("upload p99 ms"; .upload.p99Ms),
+  row("failed rate"; .failedRate)
+' | column -t
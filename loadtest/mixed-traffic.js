@@ -0,0 +1,95 @@
+// Mixed read and upload traffic against one project, for comparing the platform-thread and virtual-thread modes.
+// Run it once against each mode with the same settings and compare the summaries written to results/.
+//
+//   k6 run -e BASE_URL=http://localhost:8092 -e TOKEN=<jwt> -e PROJECT_ID=<uuid> -e MODE=platform loadtest/mixed-traffic.js
+//
+// Optional: READ_VUS (default 50), UPLOAD_VUS (default 5), DURATION (default 2m), UPLOAD_KB (default 2048).
+
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8092';
+const PROJECT_ID = __ENV.PROJECT_ID;
+const MODE = __ENV.MODE || 'unlabelled';
+const DURATION = __ENV.DURATION || '2m';
+const UPLOAD_KB = parseInt(__ENV.UPLOAD_KB || '2048', 10);
+
+const AUTH = { Authorization: `Bearer ${__ENV.TOKEN}` };
+const PROJECT_URL = `${BASE_URL}/api/v1/projects/${PROJECT_ID}`;
+
+// A PDF header followed by padding, so the upload passes the file signature check
+const UPLOAD_BODY = '%PDF-1.4\n' + 'x'.repeat(UPLOAD_KB * 1024);
+
+export const options = {
+    scenarios: {
+        reads: {
+            executor: 'constant-vus',
+            exec: 'reads',
+            vus: parseInt(__ENV.READ_VUS || '50', 10),
+            duration: DURATION,
+            tags: { traffic: 'read' },
+        },
+        uploads: {
+            executor: 'constant-vus',
+            exec: 'uploads',
+            vus: parseInt(__ENV.UPLOAD_VUS || '5', 10),
+            duration: DURATION,
+            tags: { traffic: 'upload' },
+        },
+    },
+    summaryTrendStats: ['avg', 'med', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        // Declared per traffic type so both show up in the summary
+        'http_req_duration{traffic:read}': ['p(99)>=0'],
+        'http_req_duration{traffic:upload}': ['p(99)>=0'],
+        'http_reqs{traffic:read}': ['count>=0'],
+        'http_reqs{traffic:upload}': ['count>=0'],
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+export function setup() {
+    if (!PROJECT_ID || !__ENV.TOKEN) {
+        throw new Error('PROJECT_ID and TOKEN must be set.');
+    }
+}
+
+export function reads() {
+    const responses = http.batch([
+        ['GET', `${PROJECT_URL}/overview`, null, { headers: AUTH }],
+        ['GET', `${PROJECT_URL}/tasks/scroll?size=50`, null, { headers: AUTH }],
+        ['GET', `${PROJECT_URL}/files`, null, { headers: AUTH }],
+        ['GET', `${PROJECT_URL}/milestones/scroll?size=50`, null, { headers: AUTH }],
+    ]);
+    responses.forEach((response) => check(response, { 'read ok': (r) => r.status === 200 }));
+}
+
+export function uploads() {
+    const filename = `loadtest-${__VU}-${__ITER}.pdf`;
+    const response = http.post(`${PROJECT_URL}/files/stream?filename=${filename}`, UPLOAD_BODY, {
+        headers: Object.assign({ 'Content-Type': 'application/pdf' }, AUTH),
+        timeout: '120s',
+    });
+    check(response, { 'upload created': (r) => r.status === 201 });
+}
+
+export function handleSummary(data) {
+    const metric = (name) => (data.metrics[name] ? data.metrics[name].values : {});
+    const summary = {
+        mode: MODE,
+        durationSeconds: data.state.testRunDurationMs / 1000,
+        read: {
+            requestsPerSecond: (metric('http_reqs{traffic:read}').count || 0) / (data.state.testRunDurationMs / 1000),
+            p99Ms: metric('http_req_duration{traffic:read}')['p(99)'],
+        },
+        upload: {
+            requestsPerSecond: (metric('http_reqs{traffic:upload}').count || 0) / (data.state.testRunDurationMs / 1000),
+            p99Ms: metric('http_req_duration{traffic:upload}')['p(99)'],
+        },
+        failedRate: metric('http_req_failed').rate,
+    };
+    return {
+        stdout: JSON.stringify(summary, null, 2) + '\n',
+        [`loadtest/results/${MODE}.json`]: JSON.stringify(summary, null, 2),
+    };
+}
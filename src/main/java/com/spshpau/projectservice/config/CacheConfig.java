@@ -1,28 +1,60 @@
 package com.spshpau.projectservice.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class CacheConfig {
 
-//    public static final String USER_MATCHES_CACHE = "userMatches";
-//
-//    @Bean
-//    public CacheManager cacheManager() {
-//        CaffeineCacheManager cacheManager = new CaffeineCacheManager(USER_MATCHES_CACHE);
-//        cacheManager.setCaffeine(Caffeine.newBuilder()
-//                .expireAfterWrite(4, TimeUnit.HOURS)
-//                .maximumSize(500)
-//                .weakKeys()
-//                .recordStats()
-//        );
-//
-//        return cacheManager;
-//    }
+    public static final String PROJECT_MEMBERSHIP_CACHE = "projectMembership";
+    public static final String USER_CONNECTIONS_CACHE = "userConnections";
+    public static final String PRESIGNED_DOWNLOAD_URL_CACHE = "presignedDownloadUrls";
+    public static final String PROJECT_TASK_STATUS_COUNTS_CACHE = "projectTaskStatusCounts";
+    public static final String ASSIGNED_TASK_STATUS_COUNTS_CACHE = "assignedTaskStatusCounts";
+
+    @Value("${aws.s3.presigned-url-duration-minutes}")
+    private long presignedUrlDurationMinutes;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.registerCustomCache(PROJECT_MEMBERSHIP_CACHE, Caffeine.newBuilder()
+                .expireAfterWrite(10, TimeUnit.MINUTES)
+                .maximumSize(10_000)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(USER_CONNECTIONS_CACHE, Caffeine.newBuilder()
+                .expireAfterWrite(2, TimeUnit.MINUTES)
+                .maximumSize(1_000)
+                .recordStats()
+                .build());
+        // Entries expire at half the signature lifetime, so a cached URL is always valid for a while longer
+        cacheManager.registerCustomCache(PRESIGNED_DOWNLOAD_URL_CACHE, Caffeine.newBuilder()
+                .expireAfterWrite(Duration.ofMinutes(presignedUrlDurationMinutes).dividedBy(2))
+                .maximumSize(10_000)
+                .recordStats()
+                .build());
+        cacheManager.registerCustomCache(PROJECT_TASK_STATUS_COUNTS_CACHE, Caffeine.newBuilder()
+                .expireAfterWrite(10, TimeUnit.MINUTES)
+                .maximumSize(10_000)
+                .recordStats()
+                .build());
+        // Keyed by assignee, so writes in any of the user's projects evict it; the short expiry covers cascade deletes
+        cacheManager.registerCustomCache(ASSIGNED_TASK_STATUS_COUNTS_CACHE, Caffeine.newBuilder()
+                .expireAfterWrite(2, TimeUnit.MINUTES)
+                .maximumSize(10_000)
+                .recordStats()
+                .build());
+
+        // Evictions issued inside a transaction are applied only after commit
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
 }
@@ -0,0 +1,38 @@
+package com.spshpau.projectservice.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class OverviewConfig {
+
+    /**
+     * Executor for the parallel queries of the project overview.
+     * Each query holds a database connection while it runs, so keep the thread count well below the connection pool size.
+     * When the queue is full the request thread runs the query itself.
+     * With virtual threads enabled each query gets its own virtual thread and the Hikari pool is the only limit.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService projectOverviewExecutor(@Value("${project.overview.executor-threads:8}") int threads,
+                                                   Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("project-overview-", 0).factory());
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 8),
+                new CustomizableThreadFactory("project-overview-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
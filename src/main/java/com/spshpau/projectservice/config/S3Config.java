@@ -1,17 +1,38 @@
 package com.spshpau.projectservice.config;
 
+import com.spshpau.projectservice.services.filestorage.S3ClientMetrics;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3CrtAsyncClientBuilder;
+import software.amazon.awssdk.services.s3.crt.S3CrtHttpConfiguration;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.transfer.s3.S3TransferManager;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
+@Slf4j
 public class S3Config {
 
     @Value("${aws.region}")
@@ -23,42 +44,130 @@ public class S3Config {
     @Value("${aws.credentials.secret-access-key:#{null}}")
     private String secretAccessKeyFromYaml;
 
+    /**
+     * Credentials shared by all S3 clients, so the provider chain is resolved and refreshed only once.
+     */
     @Bean
-    public S3Client s3Client() {
-        Region region = Region.of(awsRegion);
+    public AwsCredentialsProvider awsCredentialsProvider() {
         if (accessKeyIdFromYaml != null && secretAccessKeyFromYaml != null) {
-            System.out.println("Attempting to use static credentials from application.yml for S3Client"); // Log this
+            log.info("Using static credentials from application.yml for S3");
             AwsBasicCredentials credentials = AwsBasicCredentials.create(accessKeyIdFromYaml, secretAccessKeyFromYaml);
-            return S3Client.builder()
-                    .region(region)
-                    .credentialsProvider(StaticCredentialsProvider.create(credentials))
-                    .build();
-        } else {
-            // Fallback to default provider chain
-            System.out.println("Using DefaultCredentialsProvider for S3Client");
-            return S3Client.builder()
-                    .region(region)
-                    .credentialsProvider(DefaultCredentialsProvider.create())
-                    .build();
+            return StaticCredentialsProvider.create(credentials);
         }
+        // Fallback to default provider chain
+        log.info("Using DefaultCredentialsProvider for S3");
+        return DefaultCredentialsProvider.builder().build();
     }
 
+    /**
+     * Connection pool of the synchronous S3 client. Every parallel part upload, HEAD and ranged GET holds
+     * one connection, so {@code max-connections} should cover the upload executor threads plus regular traffic.
+     * Requests that cannot get a connection within the acquisition timeout fail instead of queueing indefinitely.
+     */
     @Bean
-    public S3Presigner s3Presigner() {
-        Region region = Region.of(awsRegion);
-        if (accessKeyIdFromYaml != null && secretAccessKeyFromYaml != null) {
-            System.out.println("Attempting to use static credentials from application.yml for S3Presigner"); // Log this
-            AwsBasicCredentials credentials = AwsBasicCredentials.create(accessKeyIdFromYaml, secretAccessKeyFromYaml);
-            return S3Presigner.builder()
-                    .region(region)
-                    .credentialsProvider(StaticCredentialsProvider.create(credentials))
-                    .build();
-        } else {
-            System.out.println("Using DefaultCredentialsProvider for S3Presigner"); // Log this
-            return S3Presigner.builder()
-                    .region(region)
-                    .credentialsProvider(DefaultCredentialsProvider.create())
-                    .build();
+    public SdkHttpClient s3HttpClient(@Value("${aws.s3.http.max-connections:50}") int maxConnections,
+                                      @Value("${aws.s3.http.connection-acquisition-timeout-millis:2000}") long acquisitionTimeoutMillis,
+                                      @Value("${aws.s3.http.connection-timeout-millis:2000}") long connectionTimeoutMillis,
+                                      @Value("${aws.s3.http.socket-timeout-millis:30000}") long socketTimeoutMillis,
+                                      @Value("${aws.s3.http.connection-max-idle-millis:60000}") long maxIdleMillis,
+                                      @Value("${aws.s3.http.tcp-keep-alive:true}") boolean tcpKeepAlive) {
+        return ApacheHttpClient.builder()
+                .maxConnections(maxConnections)
+                .connectionAcquisitionTimeout(Duration.ofMillis(acquisitionTimeoutMillis))
+                .connectionTimeout(Duration.ofMillis(connectionTimeoutMillis))
+                .socketTimeout(Duration.ofMillis(socketTimeoutMillis))
+                .connectionMaxIdleTime(Duration.ofMillis(maxIdleMillis))
+                .tcpKeepAlive(tcpKeepAlive)
+                .build();
+    }
+
+    @Bean
+    public S3Client s3Client(SdkHttpClient s3HttpClient, AwsCredentialsProvider awsCredentialsProvider,
+                             S3ClientMetrics s3ClientMetrics) {
+        return S3Client.builder()
+                .region(Region.of(awsRegion))
+                .credentialsProvider(awsCredentialsProvider)
+                .httpClient(s3HttpClient)
+                .overrideConfiguration(config -> config.addMetricPublisher(s3ClientMetrics))
+                .build();
+    }
+
+    // Signing is local; the presigner makes no HTTP calls
+    @Bean
+    public S3Presigner s3Presigner(AwsCredentialsProvider awsCredentialsProvider) {
+        return S3Presigner.builder()
+                .region(Region.of(awsRegion))
+                .credentialsProvider(awsCredentialsProvider)
+                .build();
+    }
+
+    /**
+     * CRT-based async client used for uploads and deletes. Transfers run on the CRT event loop,
+     * so no thread is held while bytes are on the wire; {@code max-concurrency} caps the requests
+     * (and with it the connections) in flight across all transfers.
+     */
+    @Bean
+    public S3AsyncClient s3AsyncClient(AwsCredentialsProvider awsCredentialsProvider,
+                                       @Value("${aws.s3.async.max-concurrency:64}") int maxConcurrency,
+                                       @Value("${aws.s3.async.target-throughput-gbps:5.0}") double targetThroughputGbps,
+                                       @Value("${aws.s3.async.minimum-part-size-bytes:8388608}") long minimumPartSizeBytes,
+                                       @Value("${aws.s3.async.threshold-bytes:8388608}") long thresholdBytes,
+                                       @Value("${aws.s3.async.connection-timeout-millis:5000}") long connectionTimeoutMillis) {
+        S3CrtAsyncClientBuilder builder = S3AsyncClient.crtBuilder()
+                .region(Region.of(awsRegion))
+                .credentialsProvider(awsCredentialsProvider)
+                .maxConcurrency(maxConcurrency)
+                .targetThroughputInGbps(targetThroughputGbps)
+                .minimumPartSizeInBytes(minimumPartSizeBytes)
+                .thresholdInBytes(thresholdBytes)
+                .httpConfiguration(S3CrtHttpConfiguration.builder()
+                        .connectionTimeout(Duration.ofMillis(connectionTimeoutMillis))
+                        .build());
+        return builder.build();
+    }
+
+    @Bean
+    public S3TransferManager s3TransferManager(S3AsyncClient s3AsyncClient) {
+        return S3TransferManager.builder()
+                .s3Client(s3AsyncClient)
+                .build();
+    }
+
+    /**
+     * Executor for the blocking work around async transfers: reading upload bodies and handling completed
+     * transfers, e.g. saving file metadata. Its queue is unbounded, so a task is never run on the submitting
+     * thread, which may be a CRT event loop thread. With virtual threads enabled every task gets its own virtual thread.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService s3TransferExecutor(@Value("${aws.s3.async.executor-threads:8}") int threads,
+                                              Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("s3-transfer-", 0).factory());
+        }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(),
+                new CustomizableThreadFactory("s3-transfer-"));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Executor for parallel multipart part uploads, shared by all uploads.
+     * The queue is bounded; when it is full the uploading request thread sends the part itself.
+     * With virtual threads enabled every part gets its own virtual thread instead; the part permits of each
+     * upload and the S3 HTTP connection pool still bound how many parts are in flight.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService s3UploadExecutor(@Value("${aws.s3.multipart.executor-threads:8}") int threads,
+                                            Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("s3-upload-", 0).factory());
         }
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(threads * 4),
+                new CustomizableThreadFactory("s3-upload-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
     }
 }
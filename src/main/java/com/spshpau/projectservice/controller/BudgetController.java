@@ -1,12 +1,18 @@
 package com.spshpau.projectservice.controller;
 
 import com.spshpau.projectservice.dto.*;
+import com.spshpau.projectservice.dto.enums.AnalyticsGranularity;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 public interface BudgetController {
@@ -121,6 +127,40 @@ public interface BudgetController {
      */
     ResponseEntity<RemainingBudgetDto> getRemainingProjectBudget(@PathVariable UUID projectId, Jwt jwt);
 
+    /**
+     * Retrieves spending of a project's budget per day, week or month, with the cumulative spent and
+     * remaining amount at the end of each period (burn-down).
+     *
+     * @param projectId The ID of the project whose budget to analyse.
+     * @param granularity The period length: DAY, WEEK (starting Monday) or MONTH. Defaults to MONTH.
+     * @param from The first date of the range (inclusive). Defaults to one year before {@code to}.
+     * @param to The last date of the range (inclusive). Defaults to today.
+     * @param jwt The JWT token for authentication and authorization.
+     * @return A ResponseEntity containing the BudgetAnalyticsDto and HTTP status.
+     * Example Response (200 OK):
+     * <pre>{@code
+     * {
+     * "projectId": "a1b2c3d4-e5f6-7890-1234-567890abcdef",
+     * "currency": "EUR",
+     * "totalAmount": 12000.00,
+     * "granularity": "MONTH",
+     * "from": "2024-04-01",
+     * "to": "2024-05-31",
+     * "spentBeforeRange": 1000.00,
+     * "spentInRange": 1750.75,
+     * "buckets": [
+     * { "periodStart": "2024-04-01", "spentAmount": 1500.00, "expenseCount": 2, "cumulativeSpentAmount": 2500.00, "remainingAmount": 9500.00 },
+     * { "periodStart": "2024-05-01", "spentAmount": 250.75, "expenseCount": 1, "cumulativeSpentAmount": 2750.75, "remainingAmount": 9249.25 }
+     * ]
+     * }
+     * }</pre>
+     */
+    ResponseEntity<BudgetAnalyticsDto> getBudgetAnalytics(@PathVariable UUID projectId,
+                                                          AnalyticsGranularity granularity,
+                                                          LocalDate from,
+                                                          LocalDate to,
+                                                          Jwt jwt);
+
     // Expense Endpoints
     /**
      * Adds a new expense to the budget of a specified project.
@@ -143,6 +183,54 @@ public interface BudgetController {
     ResponseEntity<ExpenseResponseDto> addExpense(@PathVariable UUID projectId,
                                                   @Valid @RequestBody ExpenseCreateDto expenseDto,
                                                   Jwt jwt);
+
+    /**
+     * Adds many expenses to the budget of a specified project in one request.
+     * Either all expenses are added or, if any row is invalid, none are and every invalid row is reported.
+     *
+     * @param projectId The ID of the project to which the expenses will be added.
+     * @param expenses The expenses to add, in the same format as for a single expense.
+     * @param jwt The JWT token for authentication and authorization.
+     * @return A ResponseEntity containing the ExpenseImportResultDto, with HTTP status 201 if the expenses
+     * were added or 400 if any row was invalid.
+     * Example Response (400 Bad Request):
+     * <pre>{@code
+     * {
+     * "importedCount": 0,
+     * "importedAmount": 0,
+     * "errors": [
+     * { "row": 3, "message": "Amount must be positive" },
+     * { "row": 7, "message": "Comment cannot be blank" }
+     * ]
+     * }
+     * }</pre>
+     */
+    ResponseEntity<ExpenseImportResultDto> importExpenses(@PathVariable UUID projectId,
+                                                          @RequestBody List<ExpenseCreateDto> expenses,
+                                                          Jwt jwt);
+
+    /**
+     * Adds many expenses to the budget of a specified project from a CSV body ({@code Content-Type: text/csv}).
+     * The first line is a header naming the {@code amount}, {@code date} and {@code comment} columns;
+     * dates are ISO dates such as {@code 2024-05-10}.
+     *
+     * @param projectId The ID of the project to which the expenses will be added.
+     * @param csv The CSV body.
+     * @param jwt The JWT token for authentication and authorization.
+     * @return A ResponseEntity containing the ExpenseImportResultDto, with HTTP status 201 if the expenses
+     * were added or 400 if any row was invalid. Row numbers count data rows, starting at 1 after the header.
+     * Example Response (201 Created):
+     * <pre>{@code
+     * {
+     * "importedCount": 1250,
+     * "importedAmount": 48210.35,
+     * "errors": []
+     * }
+     * }</pre>
+     */
+    ResponseEntity<ExpenseImportResultDto> importExpensesCsv(@PathVariable UUID projectId,
+                                                             InputStream csv,
+                                                             Jwt jwt) throws IOException;
     /**
      * Retrieves a specific expense by its ID for a given project.
      *
@@ -223,6 +311,36 @@ public interface BudgetController {
                                                                    Jwt jwt,
                                                                    Pageable pageable);
 
+    /**
+     * Retrieves expenses of a project's budget using keyset pagination, ordered by expense date.
+     * Unlike the paged listing, deep pages cost the same as the first one and no total count is computed.
+     *
+     * @param projectId The ID of the project.
+     * @param cursor The nextCursor of the previous page; omit to start from the beginning.
+     * @param size The maximum number of items to return (at most 100).
+     * @param jwt The JWT token for authentication and authorization.
+     * @return A ResponseEntity containing a CursorPage of ExpenseResponseDto and HTTP status.
+     * Example Response (200 OK):
+     * <pre>{@code
+     * {
+     * "content": [
+     * {
+     * "id": "e1f2g3h4-i5j6-k7l8-m9n0-o1p2q3r4s5t6",
+     * "amount": 150.75,
+     * "date": "2024-05-10T00:00:00.000+00:00",
+     * ...
+     * }
+     * ],
+     * "nextCursor": "MjAyNC0wNS0wOVQxMDozMDowMFp8ZjFnMmgzaTQ",
+     * "hasNext": true
+     * }
+     * }</pre>
+     */
+    ResponseEntity<CursorPage<ExpenseResponseDto>> scrollExpensesForProject(@PathVariable UUID projectId,
+                                                                            @RequestParam(value = "cursor", required = false) String cursor,
+                                                                            @RequestParam(value = "size", defaultValue = "50") int size,
+                                                                            Jwt jwt);
+
     /**
      * Updates an existing expense for a specified project.
      *
@@ -1,9 +1,15 @@
 package com.spshpau.projectservice.controller;
 
+import com.spshpau.projectservice.dto.CursorPage;
+import com.spshpau.projectservice.dto.DeadlineItemDto;
 import com.spshpau.projectservice.dto.ProjectCreateDto;
+import com.spshpau.projectservice.dto.ProjectOverviewDto;
 import com.spshpau.projectservice.dto.ProjectResponseDto;
 import com.spshpau.projectservice.dto.ProjectUpdateDto;
+import com.spshpau.projectservice.dto.TaskResponseDto;
+import com.spshpau.projectservice.dto.TaskStatusCountsDto;
 import com.spshpau.projectservice.dto.UserSummaryDto;
+import com.spshpau.projectservice.model.enums.TaskStatus;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -11,7 +17,10 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
+import java.time.Instant;
+import java.util.Set;
 import java.util.UUID;
 
 public interface ProjectController {
@@ -73,6 +82,37 @@ public interface ProjectController {
      */
     ResponseEntity<ProjectResponseDto> getProjectById(@PathVariable UUID projectId, Jwt jwt);
 
+    /**
+     * Retrieves everything needed to open a project in one request: the project with its members,
+     * task counts per status, the next upcoming milestones, the budget totals and the most recently uploaded files.
+     * Accessible by the project owner and collaborators.
+     *
+     * @param projectId The ID of the project.
+     * @param milestones The maximum number of upcoming milestones to return (0-50).
+     * @param files The maximum number of latest files to return (0-50).
+     * @param jwt The JWT token of the authenticated user.
+     * @return ResponseEntity containing the ProjectOverviewDto.
+     * Example Response (200 OK):
+     * <pre>{@code
+     * {
+     * "project": { "id": "c1d2e3f4-g5h6-7890-1234-567890abcdef", "title": "New Awesome Project", ... },
+     * "taskCountsByStatus": { "TODO": 4, "IN_PROGRESS": 2, "DONE": 7 },
+     * "totalTasks": 13,
+     * "upcomingMilestones": [
+     * { "id": "m1n2o3p4-q5r6-s7t8-u9v0-w1x2y3z4a5b6", "title": "Mastering done", "dueDate": "2024-06-01T00:00:00.000+00:00", ... }
+     * ],
+     * "budget": { "totalAmount": 5000.00, "spentAmount": 1250.00, "remainingAmount": 3750.00, "currency": "EUR" },
+     * "latestFiles": [
+     * { "id": "f1a2b3c4-d5e6-f7a8-b9c0-d1e2f3a4b5c6", "originalFilename": "mix_v3.wav", ... }
+     * ]
+     * }
+     * }</pre>
+     */
+    ResponseEntity<ProjectOverviewDto> getProjectOverview(@PathVariable UUID projectId,
+                                                          @RequestParam int milestones,
+                                                          @RequestParam int files,
+                                                          Jwt jwt);
+
     /**
      * Retrieves a paginated list of projects owned by the current authenticated user.
      *
@@ -99,6 +139,104 @@ public interface ProjectController {
      */
     ResponseEntity<Page<ProjectResponseDto>> getMyOwnedProjects(Jwt jwt, Pageable pageable);
 
+    /**
+     * Counts the tasks assigned to the current authenticated user across all their projects, per status.
+     *
+     * @param jwt The JWT token of the authenticated user.
+     * @return ResponseEntity containing the TaskStatusCountsDto.
+     * Example Response (200 OK):
+     * <pre>{@code
+     * {
+     * "countsByStatus": { "TODO": 3, "IN_PROGRESS": 1, "DONE": 12, "WAITING": 0, "REVIEW": 2, "BLOCKED": 0 },
+     * "total": 18
+     * }
+     * }</pre>
+     */
+    ResponseEntity<TaskStatusCountsDto> getMyAssignedTaskStatusCounts(Jwt jwt);
+
+    /**
+     * Retrieves the tasks assigned to the current authenticated user across all their projects using keyset pagination.
+     * Tasks are ordered by due date; tasks without a due date come last and are left out when a due date filter is given.
+     *
+     * @param statuses The statuses to include; omit to include all.
+     * @param dueFrom Only include tasks due at or after this instant (ISO-8601).
+     * @param dueTo Only include tasks due before this instant (ISO-8601).
+     * @param cursor The nextCursor of the previous page; omit to start from the beginning.
+     * @param size The maximum number of items to return (at most 100).
+     * @param jwt The JWT token of the authenticated user.
+     * @return ResponseEntity containing a CursorPage of TaskResponseDto.
+     * Example Response (200 OK):
+     * <pre>{@code
+     * {
+     * "content": [
+     * {
+     * "id": "t1u2v3w4-x5y6-z7a8-b9c0-d1e2f3g4h5i6",
+     * "title": "Implement Feature X",
+     * "dueDate": "2024-05-20T23:59:59.000+00:00",
+     * "status": "IN_PROGRESS",
+     * "projectId": "c1d2e3f4-g5h6-7890-1234-567890abcdef",
+     * ...
+     * }
+     * ],
+     * "nextCursor": "MjAyNC0wNS0yMFQyMzo1OTo1OVp8dDF1MnYzdzQ",
+     * "hasNext": true
+     * }
+     * }</pre>
+     */
+    ResponseEntity<CursorPage<TaskResponseDto>> scrollMyAssignedTasks(@RequestParam Set<TaskStatus> statuses,
+                                                                      @RequestParam Instant dueFrom,
+                                                                      @RequestParam Instant dueTo,
+                                                                      @RequestParam String cursor,
+                                                                      @RequestParam int size,
+                                                                      Jwt jwt);
+
+    /**
+     * Retrieves the open tasks and milestones due within a time window across every project the current
+     * authenticated user owns or collaborates on, as one feed ordered by due date, using keyset pagination.
+     * Tasks with status DONE are left out.
+     *
+     * @param from The start of the window, inclusive (ISO-8601); defaults to now.
+     * @param to The end of the window, exclusive (ISO-8601); defaults to seven days after the start.
+     * @param cursor The nextCursor of the previous page; omit to start from the beginning.
+     * @param size The maximum number of items to return (at most 100).
+     * @param jwt The JWT token of the authenticated user.
+     * @return ResponseEntity containing a CursorPage of DeadlineItemDto.
+     * Example Response (200 OK):
+     * <pre>{@code
+     * {
+     * "content": [
+     * {
+     * "type": "TASK",
+     * "id": "t1u2v3w4-x5y6-z7a8-b9c0-d1e2f3g4h5i6",
+     * "title": "Implement Feature X",
+     * "dueDate": "2024-05-20T23:59:59.000+00:00",
+     * "status": "IN_PROGRESS",
+     * "assignedUserId": "user-uuid-developer",
+     * "projectId": "c1d2e3f4-g5h6-7890-1234-567890abcdef",
+     * "projectTitle": "New Awesome Project"
+     * },
+     * {
+     * "type": "MILESTONE",
+     * "id": "m1n2o3p4-q5r6-s7t8-u9v0-w1x2y3z4a5b6",
+     * "title": "Mastering done",
+     * "dueDate": "2024-05-21T00:00:00.000+00:00",
+     * "status": null,
+     * "assignedUserId": null,
+     * "projectId": "c1d2e3f4-g5h6-7890-1234-567890abcdef",
+     * "projectTitle": "New Awesome Project"
+     * }
+     * ],
+     * "nextCursor": "MjAyNC0wNS0yMVQwMDowMDowMFp8bTFuMm8zcDQ",
+     * "hasNext": true
+     * }
+     * }</pre>
+     */
+    ResponseEntity<CursorPage<DeadlineItemDto>> scrollMyUpcomingDeadlines(@RequestParam Instant from,
+                                                                          @RequestParam Instant to,
+                                                                          @RequestParam String cursor,
+                                                                          @RequestParam int size,
+                                                                          Jwt jwt);
+
     /**
      * Retrieves a paginated list of projects where the current authenticated user is a collaborator.
      *
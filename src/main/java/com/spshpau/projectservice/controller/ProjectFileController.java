@@ -1,15 +1,22 @@
 package com.spshpau.projectservice.controller;
 
+import com.spshpau.projectservice.dto.CursorPage;
 import com.spshpau.projectservice.dto.FileDownloadDto;
+import com.spshpau.projectservice.dto.PresignedUploadRequestDto;
+import com.spshpau.projectservice.dto.PresignedUploadResponseDto;
 import com.spshpau.projectservice.dto.ProjectFileResponseDto;
+import com.spshpau.projectservice.dto.UploadCompletionDto;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public interface ProjectFileController {
 
@@ -20,7 +27,8 @@ public interface ProjectFileController {
      * @param file The file to upload.
      * @param description An optional description for the file.
      * @param jwt The JWT token for authentication and authorization.
-     * @return A ResponseEntity containing the ProjectFileResponseDto for the uploaded file and HTTP status.
+     * @return A future of the ResponseEntity containing the ProjectFileResponseDto for the uploaded file and HTTP status,
+     *         completed once the file is stored in S3 and its metadata saved. No request thread waits for the transfer.
      * @throws IOException If an I/O error occurs during file processing.
      * Example Response (201 Created):
      * <pre>{@code
@@ -44,16 +52,101 @@ public interface ProjectFileController {
      * }
      * }</pre>
      */
-    ResponseEntity<ProjectFileResponseDto> uploadProjectFile(@PathVariable UUID projectId,
-                                                             @RequestPart("file") MultipartFile file,
-                                                             @RequestPart(value = "description", required = false) String description,
-                                                             Jwt jwt) throws IOException;
+    CompletableFuture<ResponseEntity<ProjectFileResponseDto>> uploadProjectFile(@PathVariable UUID projectId,
+                                                                                @RequestPart("file") MultipartFile file,
+                                                                                @RequestPart(value = "description", required = false) String description,
+                                                                                Jwt jwt) throws IOException;
+
+    /**
+     * Uploads a file to a specified project by streaming the raw request body.
+     * Unlike the multipart upload, the body is never buffered as a whole: it is passed
+     * to S3 in parts while its size and file signature are checked.
+     *
+     * @param projectId The ID of the project to which the file will be uploaded.
+     * @param filename The original filename of the uploaded file.
+     * @param description An optional description for the file.
+     * @param contentType The content type of the request body (MP3, WAV or PDF).
+     * @param contentLength The length of the request body, or -1 if unknown.
+     * @param content The request body.
+     * @param jwt The JWT token for authentication and authorization.
+     * @return A ResponseEntity containing the ProjectFileResponseDto for the uploaded file and HTTP status.
+     * @throws IOException If an I/O error occurs while reading the request body.
+     * Example Request:
+     * <pre>{@code
+     * POST /api/v1/projects/c1d2e3f4.../files/stream?filename=mixdown.wav&description=Final%20mix
+     * Content-Type: audio/wav
+     * Content-Length: 41234567
+     * }</pre>
+     * Example Response (201 Created): same as {@link #uploadProjectFile}.
+     */
+    ResponseEntity<ProjectFileResponseDto> uploadProjectFileStream(@PathVariable UUID projectId,
+                                                                   @RequestParam("filename") String filename,
+                                                                   @RequestParam(value = "description", required = false) String description,
+                                                                   @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                                   @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, required = false) Long contentLength,
+                                                                   InputStream content,
+                                                                   Jwt jwt) throws IOException;
+
+    /**
+     * Issues a pre-signed URL through which the client uploads a file directly to S3.
+     * Once the PUT has succeeded, the upload has to be completed with {@link #completePresignedUpload}.
+     *
+     * @param projectId The ID of the project to which the file will be uploaded.
+     * @param uploadRequest The filename, content type and exact size of the file.
+     * @param jwt The JWT token for authentication and authorization.
+     * @return A ResponseEntity containing the PresignedUploadResponseDto and HTTP status.
+     * Example Request Body:
+     * <pre>{@code
+     * {
+     * "originalFilename": "mixdown.wav",
+     * "contentType": "audio/wav",
+     * "fileSize": 41234567
+     * }
+     * }</pre>
+     * Example Response (200 OK):
+     * <pre>{@code
+     * {
+     * "uploadUrl": "https://bucket.s3.amazonaws.com/projects/c1d2e3f4.../files/mixdown.wav?X-Amz-Algorithm=...",
+     * "httpMethod": "PUT",
+     * "requiredHeaders": {"content-type": "audio/wav", "content-length": "41234567", "x-amz-meta-originalfilename": "mixdown.wav"},
+     * "originalFilename": "mixdown.wav",
+     * "s3ObjectKey": "projects/c1d2e3f4.../files/mixdown.wav",
+     * "expiresAt": "2024-05-09T10:45:00Z"
+     * }
+     * }</pre>
+     */
+    ResponseEntity<PresignedUploadResponseDto> createPresignedUpload(@PathVariable UUID projectId,
+                                                                     @RequestBody PresignedUploadRequestDto uploadRequest,
+                                                                     Jwt jwt);
+
+    /**
+     * Completes a direct upload: verifies the uploaded object in S3 and records its metadata.
+     * Completing the same S3 version again returns the already recorded file.
+     *
+     * @param projectId The ID of the project to which the file was uploaded.
+     * @param completion The filename, the optional S3 version ID returned by the PUT, and a description.
+     * @param jwt The JWT token for authentication and authorization.
+     * @return A ResponseEntity containing the ProjectFileResponseDto and HTTP status.
+     * Example Request Body:
+     * <pre>{@code
+     * {
+     * "originalFilename": "mixdown.wav",
+     * "s3VersionId": "versionId123abc",
+     * "description": "Final mix"
+     * }
+     * }</pre>
+     * Example Response (201 Created): same as {@link #uploadProjectFile}.
+     */
+    ResponseEntity<ProjectFileResponseDto> completePresignedUpload(@PathVariable UUID projectId,
+                                                                   @RequestBody UploadCompletionDto completion,
+                                                                   Jwt jwt);
 
     /**
      * Retrieves a list of files for a specified project.
      * This returns the latest version of each file.
      *
      * @param projectId The ID of the project for which to retrieve files.
+     * @param includeDownloadUrls Whether to include a pre-signed download URL ("downloadUrl") for each file.
      * @param jwt The JWT token for authentication and authorization.
      * @return A ResponseEntity containing a List of ProjectFileResponseDto and HTTP status.
      * Example Response (200 OK):
@@ -87,6 +180,7 @@ public interface ProjectFileController {
      * }</pre>
      */
     ResponseEntity<List<ProjectFileResponseDto>> getProjectFiles(@PathVariable UUID projectId,
+                                                                 @RequestParam(value = "includeDownloadUrls", defaultValue = "false") boolean includeDownloadUrls,
                                                                  Jwt jwt);
 
     /**
@@ -141,11 +235,12 @@ public interface ProjectFileController {
      * @param projectId The ID of the project from which to delete the file.
      * @param fileId The ID of the file to delete.
      * @param jwt The JWT token for authentication and authorization.
-     * @return A ResponseEntity with no content and HTTP status 204.
+     * @return A future of the ResponseEntity with no content and HTTP status 204,
+     *         completed once the S3 version and the file metadata are deleted.
      */
-    ResponseEntity<Void> deleteProjectFile(@PathVariable UUID projectId,
-                                           @PathVariable UUID fileId,
-                                           Jwt jwt);
+    CompletableFuture<ResponseEntity<Void>> deleteProjectFile(@PathVariable UUID projectId,
+                                                              @PathVariable UUID fileId,
+                                                              Jwt jwt);
 
     /**
      * Retrieves all versions of a specific file by its original filename within a project.
@@ -189,4 +284,36 @@ public interface ProjectFileController {
             @RequestParam("filename") String originalFilename,
             Jwt jwt
     );
-}
\ No newline at end of file
+
+    /**
+     * Retrieves the versions of a file using keyset pagination, ordered by upload time, newest first.
+     * Unlike the paged listing, deep pages cost the same as the first one and no total count is computed.
+     *
+     * @param projectId The ID of the project.
+     * @param originalFilename The original filename of the file.
+     * @param cursor The nextCursor of the previous page; omit to start from the beginning.
+     * @param size The maximum number of items to return (at most 100).
+     * @param jwt The JWT token for authentication and authorization.
+     * @return A ResponseEntity containing a CursorPage of ProjectFileResponseDto and HTTP status.
+     * Example Response (200 OK):
+     * <pre>{@code
+     * {
+     * "content": [
+     * {
+     * "id": "f1g2h3i4-j5k6-l7m8-n9o0-p1q2r3s4t5u6",
+     * "originalFilename": "document.pdf",
+     * "s3VersionId": "versionId123abc",
+     * ...
+     * }
+     * ],
+     * "nextCursor": "MjAyNC0wNS0wOVQxMDozMDowMFp8ZjFnMmgzaTQ",
+     * "hasNext": true
+     * }
+     * }</pre>
+     */
+    ResponseEntity<CursorPage<ProjectFileResponseDto>> scrollVersionsOfFileByName(@PathVariable UUID projectId,
+                                                                                  @RequestParam("filename") String originalFilename,
+                                                                                  @RequestParam(value = "cursor", required = false) String cursor,
+                                                                                  @RequestParam(value = "size", defaultValue = "20") int size,
+                                                                                  Jwt jwt);
+}
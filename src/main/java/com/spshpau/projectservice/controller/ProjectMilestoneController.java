@@ -1,5 +1,6 @@
 package com.spshpau.projectservice.controller;
 
+import com.spshpau.projectservice.dto.CursorPage;
 import com.spshpau.projectservice.dto.MilestoneCreateDto;
 import com.spshpau.projectservice.dto.MilestoneResponseDto;
 import com.spshpau.projectservice.dto.MilestoneUpdateDto;
@@ -87,6 +88,36 @@ public interface ProjectMilestoneController {
                                                                        Jwt jwt,
                                                                        Pageable pageable);
 
+    /**
+     * Retrieves milestones for a specified project using keyset pagination, ordered by due date (milestones without one last).
+     * Unlike the paged listing, deep pages cost the same as the first one and no total count is computed.
+     *
+     * @param projectId The ID of the project.
+     * @param cursor The nextCursor of the previous page; omit to start from the beginning.
+     * @param size The maximum number of items to return (at most 100).
+     * @param jwt The JWT token for authentication and authorization.
+     * @return A ResponseEntity containing a CursorPage of MilestoneResponseDto and HTTP status.
+     * Example Response (200 OK):
+     * <pre>{@code
+     * {
+     * "content": [
+     * {
+     * "id": "m1n2o3p4-q5r6-s7t8-u9v0-w1x2y3z4a5b6",
+     * "title": "Phase 1 Completion",
+     * "dueDate": "2024-06-30T23:59:59.000+00:00",
+     * ...
+     * }
+     * ],
+     * "nextCursor": "MjAyNC0wNS0wOVQxMDozMDowMFp8ZjFnMmgzaTQ",
+     * "hasNext": true
+     * }
+     * }</pre>
+     */
+    ResponseEntity<CursorPage<MilestoneResponseDto>> scrollMilestonesForProject(@PathVariable UUID projectId,
+                                                                                @RequestParam(value = "cursor", required = false) String cursor,
+                                                                                @RequestParam(value = "size", defaultValue = "20") int size,
+                                                                                Jwt jwt);
+
     /**
      * Updates an existing milestone for a specified project.
      *
@@ -1,15 +1,21 @@
 package com.spshpau.projectservice.controller;
 
+import com.spshpau.projectservice.dto.CursorPage;
+import com.spshpau.projectservice.dto.TaskBulkAssignDto;
+import com.spshpau.projectservice.dto.TaskBulkStatusUpdateDto;
 import com.spshpau.projectservice.dto.TaskCreateDto;
 import com.spshpau.projectservice.dto.TaskResponseDto;
+import com.spshpau.projectservice.dto.TaskStatusCountsDto;
 import com.spshpau.projectservice.dto.TaskUpdateDto;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface ProjectTaskController {
@@ -39,6 +45,87 @@ public interface ProjectTaskController {
                                                @Valid @RequestBody TaskCreateDto taskDto,
                                                Jwt jwt);
 
+    /**
+     * Creates several tasks for a specified project in one request.
+     * Project membership and all assignees are checked once for the whole batch; if any entry is invalid, no task is created.
+     *
+     * @param projectId The ID of the project for which to create the tasks.
+     * @param taskDtos The task creation data, at most 500 entries.
+     * @param jwt The JWT token for authentication and authorization.
+     * @return A ResponseEntity containing the created tasks in request order and HTTP status.
+     * Example Request Body:
+     * <pre>{@code
+     * [
+     * { "title": "Record vocals", "status": "TODO", "assignedUserId": "user-uuid-developer" },
+     * { "title": "Mix track", "status": "TODO", "dueDate": "2024-05-20T23:59:59.000+00:00" }
+     * ]
+     * }</pre>
+     * Example Response (201 Created):
+     * <pre>{@code
+     * [
+     * { "id": "t1u2v3w4-x5y6-z7a8-b9c0-d1e2f3g4h5i6", "title": "Record vocals", "status": "TODO", ... },
+     * { "id": "a9b8c7d6-e5f4-3210-fedc-ba9876543210", "title": "Mix track", "status": "TODO", ... }
+     * ]
+     * }</pre>
+     */
+    ResponseEntity<List<TaskResponseDto>> createTasks(@PathVariable UUID projectId,
+                                                      @NotEmpty @RequestBody List<@Valid TaskCreateDto> taskDtos,
+                                                      Jwt jwt);
+
+    /**
+     * Sets the same status on several tasks of a project.
+     * If any of the task IDs does not belong to the project, no task is changed.
+     *
+     * @param projectId The ID of the project to which the tasks belong.
+     * @param updateDto The task IDs (at most 500) and the new status.
+     * @param jwt The JWT token for authentication and authorization.
+     * @return A ResponseEntity containing the updated tasks and HTTP status.
+     * Example Request Body:
+     * <pre>{@code
+     * {
+     * "taskIds": ["t1u2v3w4-x5y6-z7a8-b9c0-d1e2f3g4h5i6", "a9b8c7d6-e5f4-3210-fedc-ba9876543210"],
+     * "status": "DONE"
+     * }
+     * }</pre>
+     * Example Response (200 OK):
+     * <pre>{@code
+     * [
+     * { "id": "t1u2v3w4-x5y6-z7a8-b9c0-d1e2f3g4h5i6", "status": "DONE", ... },
+     * { "id": "a9b8c7d6-e5f4-3210-fedc-ba9876543210", "status": "DONE", ... }
+     * ]
+     * }</pre>
+     */
+    ResponseEntity<List<TaskResponseDto>> updateTaskStatuses(@PathVariable UUID projectId,
+                                                             @Valid @RequestBody TaskBulkStatusUpdateDto updateDto,
+                                                             Jwt jwt);
+
+    /**
+     * Assigns several tasks of a project to one project member, or unassigns them when no user ID is given.
+     * If any of the task IDs does not belong to the project, no task is changed.
+     *
+     * @param projectId The ID of the project to which the tasks belong.
+     * @param assignDto The task IDs (at most 500) and the assignee's user ID, or null to unassign.
+     * @param jwt The JWT token for authentication and authorization.
+     * @return A ResponseEntity containing the updated tasks and HTTP status.
+     * Example Request Body:
+     * <pre>{@code
+     * {
+     * "taskIds": ["t1u2v3w4-x5y6-z7a8-b9c0-d1e2f3g4h5i6", "a9b8c7d6-e5f4-3210-fedc-ba9876543210"],
+     * "assignedUserId": "user-uuid-assignee"
+     * }
+     * }</pre>
+     * Example Response (200 OK):
+     * <pre>{@code
+     * [
+     * { "id": "t1u2v3w4-x5y6-z7a8-b9c0-d1e2f3g4h5i6", "assignedUser": { "id": "user-uuid-assignee", ... }, ... },
+     * { "id": "a9b8c7d6-e5f4-3210-fedc-ba9876543210", "assignedUser": { "id": "user-uuid-assignee", ... }, ... }
+     * ]
+     * }</pre>
+     */
+    ResponseEntity<List<TaskResponseDto>> assignTasks(@PathVariable UUID projectId,
+                                                      @Valid @RequestBody TaskBulkAssignDto assignDto,
+                                                      Jwt jwt);
+
     /**
      * Retrieves a specific task by its ID for a given project.
      *
@@ -98,6 +185,52 @@ public interface ProjectTaskController {
                                                              Jwt jwt,
                                                              Pageable pageable);
 
+    /**
+     * Retrieves tasks for a specified project using keyset pagination, ordered by creation time.
+     * Unlike the paged listing, deep pages cost the same as the first one and no total count is computed.
+     *
+     * @param projectId The ID of the project.
+     * @param cursor The nextCursor of the previous page; omit to start from the beginning.
+     * @param size The maximum number of items to return (at most 100).
+     * @param jwt The JWT token for authentication and authorization.
+     * @return A ResponseEntity containing a CursorPage of TaskResponseDto and HTTP status.
+     * Example Response (200 OK):
+     * <pre>{@code
+     * {
+     * "content": [
+     * {
+     * "id": "t1u2v3w4-x5y6-z7a8-b9c0-d1e2f3g4h5i6",
+     * "title": "Implement Feature X",
+     * ...
+     * }
+     * ],
+     * "nextCursor": "MjAyNC0wNS0wOVQxMDozMDowMFp8ZjFnMmgzaTQ",
+     * "hasNext": true
+     * }
+     * }</pre>
+     */
+    ResponseEntity<CursorPage<TaskResponseDto>> scrollTasksForProject(@PathVariable UUID projectId,
+                                                                      @RequestParam(value = "cursor", required = false) String cursor,
+                                                                      @RequestParam(value = "size", defaultValue = "50") int size,
+                                                                      Jwt jwt);
+
+    /**
+     * Counts the tasks of a specified project per status, without loading the tasks themselves.
+     *
+     * @param projectId The ID of the project.
+     * @param jwt The JWT token for authentication and authorization.
+     * @return A ResponseEntity containing the TaskStatusCountsDto and HTTP status.
+     * Example Response (200 OK):
+     * <pre>{@code
+     * {
+     * "countsByStatus": { "TODO": 4, "IN_PROGRESS": 2, "DONE": 7, "WAITING": 0, "REVIEW": 1, "BLOCKED": 0 },
+     * "total": 14
+     * }
+     * }</pre>
+     */
+    ResponseEntity<TaskStatusCountsDto> getTaskStatusCounts(@PathVariable UUID projectId,
+                                                            Jwt jwt);
+
     /**
      * Updates an existing task for a specified project.
      *
@@ -2,18 +2,25 @@ package com.spshpau.projectservice.controller.impl;
 
 import com.spshpau.projectservice.controller.BudgetController;
 import com.spshpau.projectservice.dto.*;
+import com.spshpau.projectservice.dto.enums.AnalyticsGranularity;
 import com.spshpau.projectservice.services.BudgetService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -71,6 +78,18 @@ public class BudgetControllerImpl implements BudgetController {
         return ResponseEntity.ok(remainingBudget);
     }
 
+    @Override
+    @GetMapping("/analytics")
+    public ResponseEntity<BudgetAnalyticsDto> getBudgetAnalytics(@PathVariable UUID projectId,
+                                                                 @RequestParam(value = "granularity", defaultValue = "MONTH") AnalyticsGranularity granularity,
+                                                                 @RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                                 @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                                 @AuthenticationPrincipal Jwt jwt) {
+        UUID currentUserId = getUserIdFromJwt(jwt);
+        BudgetAnalyticsDto analytics = budgetService.getBudgetAnalytics(projectId, currentUserId, granularity, from, to);
+        return ResponseEntity.ok(analytics);
+    }
+
     // --- Expense Endpoints ---
     @Override
     @PostMapping("/expenses")
@@ -82,6 +101,26 @@ public class BudgetControllerImpl implements BudgetController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdExpense);
     }
 
+    @Override
+    @PostMapping(value = "/expenses/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ExpenseImportResultDto> importExpenses(@PathVariable UUID projectId,
+                                                                 @RequestBody List<ExpenseCreateDto> expenses,
+                                                                 @AuthenticationPrincipal Jwt jwt) {
+        UUID currentUserId = getUserIdFromJwt(jwt);
+        ExpenseImportResultDto result = budgetService.importExpenses(projectId, expenses, currentUserId);
+        return ResponseEntity.status(result.hasErrors() ? HttpStatus.BAD_REQUEST : HttpStatus.CREATED).body(result);
+    }
+
+    @Override
+    @PostMapping(value = "/expenses/bulk", consumes = "text/csv")
+    public ResponseEntity<ExpenseImportResultDto> importExpensesCsv(@PathVariable UUID projectId,
+                                                                    InputStream csv,
+                                                                    @AuthenticationPrincipal Jwt jwt) throws IOException {
+        UUID currentUserId = getUserIdFromJwt(jwt);
+        ExpenseImportResultDto result = budgetService.importExpensesCsv(projectId, csv, currentUserId);
+        return ResponseEntity.status(result.hasErrors() ? HttpStatus.BAD_REQUEST : HttpStatus.CREATED).body(result);
+    }
+
     @Override
     @GetMapping("/expenses/{expenseId}")
     public ResponseEntity<ExpenseResponseDto> getExpenseById(@PathVariable UUID projectId,
@@ -102,6 +141,17 @@ public class BudgetControllerImpl implements BudgetController {
         return ResponseEntity.ok(expenses);
     }
 
+    @Override
+    @GetMapping("/expenses/scroll")
+    public ResponseEntity<CursorPage<ExpenseResponseDto>> scrollExpensesForProject(@PathVariable UUID projectId,
+                                                                                   @RequestParam(value = "cursor", required = false) String cursor,
+                                                                                   @RequestParam(value = "size", defaultValue = "50") int size,
+                                                                                   @AuthenticationPrincipal Jwt jwt) {
+        UUID currentUserId = getUserIdFromJwt(jwt);
+        CursorPage<ExpenseResponseDto> expenses = budgetService.scrollExpensesForProjectBudget(projectId, currentUserId, cursor, size);
+        return ResponseEntity.ok(expenses);
+    }
+
     @Override
     @PutMapping("/expenses/{expenseId}")
     public ResponseEntity<ExpenseResponseDto> updateExpense(@PathVariable UUID projectId,
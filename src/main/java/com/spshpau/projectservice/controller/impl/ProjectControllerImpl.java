@@ -1,22 +1,32 @@
 package com.spshpau.projectservice.controller.impl;
 
 import com.spshpau.projectservice.controller.ProjectController;
+import com.spshpau.projectservice.dto.CursorPage;
+import com.spshpau.projectservice.dto.DeadlineItemDto;
 import com.spshpau.projectservice.dto.ProjectCreateDto;
+import com.spshpau.projectservice.dto.ProjectOverviewDto;
 import com.spshpau.projectservice.dto.ProjectResponseDto;
 import com.spshpau.projectservice.dto.ProjectUpdateDto;
+import com.spshpau.projectservice.dto.TaskResponseDto;
+import com.spshpau.projectservice.dto.TaskStatusCountsDto;
 import com.spshpau.projectservice.dto.UserSummaryDto;
+import com.spshpau.projectservice.model.enums.TaskStatus;
+import com.spshpau.projectservice.services.ProjectOverviewService;
 import com.spshpau.projectservice.services.ProjectService;
+import com.spshpau.projectservice.services.ProjectTaskService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -26,6 +36,8 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class ProjectControllerImpl implements ProjectController {
     private final ProjectService projectService;
+    private final ProjectOverviewService projectOverviewService;
+    private final ProjectTaskService projectTaskService;
 
     private UUID getUserIdFromJwt(Jwt jwt) {
         return UUID.fromString(jwt.getSubject());
@@ -63,6 +75,17 @@ public class ProjectControllerImpl implements ProjectController {
         return ResponseEntity.ok(project);
     }
 
+    @Override
+    @GetMapping("/{projectId}/overview")
+    public ResponseEntity<ProjectOverviewDto> getProjectOverview(@PathVariable UUID projectId,
+                                                                 @RequestParam(value = "milestones", defaultValue = "5") int milestones,
+                                                                 @RequestParam(value = "files", defaultValue = "5") int files,
+                                                                 @AuthenticationPrincipal Jwt jwt) {
+        UUID currentUserId = getUserIdFromJwt(jwt);
+        ProjectOverviewDto overview = projectOverviewService.getProjectOverview(projectId, currentUserId, milestones, files);
+        return ResponseEntity.ok(overview);
+    }
+
     @Override
     @GetMapping("/owned")
     public ResponseEntity<Page<ProjectResponseDto>> getMyOwnedProjects(@AuthenticationPrincipal Jwt jwt,
@@ -72,6 +95,39 @@ public class ProjectControllerImpl implements ProjectController {
         return ResponseEntity.ok(projects);
     }
 
+    @Override
+    @GetMapping("/tasks/assigned/status-counts")
+    public ResponseEntity<TaskStatusCountsDto> getMyAssignedTaskStatusCounts(@AuthenticationPrincipal Jwt jwt) {
+        UUID currentUserId = getUserIdFromJwt(jwt);
+        TaskStatusCountsDto counts = projectTaskService.getAssignedTaskStatusCounts(currentUserId);
+        return ResponseEntity.ok(counts);
+    }
+
+    @Override
+    @GetMapping("/tasks/assigned")
+    public ResponseEntity<CursorPage<TaskResponseDto>> scrollMyAssignedTasks(@RequestParam(value = "status", required = false) Set<TaskStatus> statuses,
+                                                                             @RequestParam(value = "dueFrom", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant dueFrom,
+                                                                             @RequestParam(value = "dueTo", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant dueTo,
+                                                                             @RequestParam(value = "cursor", required = false) String cursor,
+                                                                             @RequestParam(value = "size", defaultValue = "50") int size,
+                                                                             @AuthenticationPrincipal Jwt jwt) {
+        UUID currentUserId = getUserIdFromJwt(jwt);
+        CursorPage<TaskResponseDto> tasks = projectTaskService.scrollAssignedTasks(currentUserId, statuses, dueFrom, dueTo, cursor, size);
+        return ResponseEntity.ok(tasks);
+    }
+
+    @Override
+    @GetMapping("/deadlines")
+    public ResponseEntity<CursorPage<DeadlineItemDto>> scrollMyUpcomingDeadlines(@RequestParam(value = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+                                                                                 @RequestParam(value = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+                                                                                 @RequestParam(value = "cursor", required = false) String cursor,
+                                                                                 @RequestParam(value = "size", defaultValue = "50") int size,
+                                                                                 @AuthenticationPrincipal Jwt jwt) {
+        UUID currentUserId = getUserIdFromJwt(jwt);
+        CursorPage<DeadlineItemDto> deadlines = projectService.scrollUpcomingDeadlines(currentUserId, from, to, cursor, size);
+        return ResponseEntity.ok(deadlines);
+    }
+
     @Override
     @GetMapping("/collaborating")
     public ResponseEntity<Page<ProjectResponseDto>> getMyCollaboratingProjects(@AuthenticationPrincipal Jwt jwt,
@@ -1,14 +1,20 @@
 package com.spshpau.projectservice.controller.impl;
 
 import com.spshpau.projectservice.controller.ProjectFileController;
+import com.spshpau.projectservice.dto.CursorPage;
 import com.spshpau.projectservice.dto.FileDownloadDto;
+import com.spshpau.projectservice.dto.PresignedUploadRequestDto;
+import com.spshpau.projectservice.dto.PresignedUploadResponseDto;
 import com.spshpau.projectservice.dto.ProjectFileResponseDto;
+import com.spshpau.projectservice.dto.UploadCompletionDto;
 import com.spshpau.projectservice.services.ProjectFileService;
 import com.spshpau.projectservice.services.SimpleUserService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -17,8 +23,10 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/projects/{projectId}/files")
@@ -36,15 +44,52 @@ public class ProjectFileControllerImpl implements ProjectFileController {
 
     @Override
     @PostMapping(consumes = "multipart/form-data")
-    public ResponseEntity<ProjectFileResponseDto> uploadProjectFile(
+    public CompletableFuture<ResponseEntity<ProjectFileResponseDto>> uploadProjectFile(
             @PathVariable UUID projectId,
             @RequestPart("file") MultipartFile file,
             @RequestPart(value = "description", required = false) String description,
             @AuthenticationPrincipal Jwt jwt) throws IOException {
         UUID uploaderUserId = getUserIdFromJwt(jwt);
         String uploaderUsername = getUsernameFromJwt(jwt);
-        ProjectFileResponseDto responseDto = projectFileService.uploadProjectFile(
-                projectId, uploaderUserId, uploaderUsername, file, description);
+        return projectFileService.uploadProjectFile(projectId, uploaderUserId, uploaderUsername, file, description)
+                .thenApply(responseDto -> ResponseEntity.status(HttpStatus.CREATED).body(responseDto));
+    }
+
+    @Override
+    @PostMapping(value = "/stream", consumes = {"audio/mpeg", "audio/wav", "audio/x-wav", "application/pdf"})
+    public ResponseEntity<ProjectFileResponseDto> uploadProjectFileStream(
+            @PathVariable UUID projectId,
+            @RequestParam("filename") String filename,
+            @RequestParam(value = "description", required = false) String description,
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, required = false) Long contentLength,
+            InputStream content,
+            @AuthenticationPrincipal Jwt jwt) throws IOException {
+        UUID uploaderUserId = getUserIdFromJwt(jwt);
+        ProjectFileResponseDto responseDto = projectFileService.uploadProjectFileStream(
+                projectId, uploaderUserId, filename, contentType, contentLength != null ? contentLength : -1L, content, description);
+        return ResponseEntity.status(HttpStatus.CREATED).body(responseDto);
+    }
+
+    @Override
+    @PostMapping("/upload-url")
+    public ResponseEntity<PresignedUploadResponseDto> createPresignedUpload(
+            @PathVariable UUID projectId,
+            @Valid @RequestBody PresignedUploadRequestDto uploadRequest,
+            @AuthenticationPrincipal Jwt jwt) {
+        UUID uploaderUserId = getUserIdFromJwt(jwt);
+        PresignedUploadResponseDto responseDto = projectFileService.createPresignedUpload(projectId, uploaderUserId, uploadRequest);
+        return ResponseEntity.ok(responseDto);
+    }
+
+    @Override
+    @PostMapping("/complete")
+    public ResponseEntity<ProjectFileResponseDto> completePresignedUpload(
+            @PathVariable UUID projectId,
+            @Valid @RequestBody UploadCompletionDto completion,
+            @AuthenticationPrincipal Jwt jwt) {
+        UUID uploaderUserId = getUserIdFromJwt(jwt);
+        ProjectFileResponseDto responseDto = projectFileService.completePresignedUpload(projectId, uploaderUserId, completion);
         return ResponseEntity.status(HttpStatus.CREATED).body(responseDto);
     }
 
@@ -52,9 +97,10 @@ public class ProjectFileControllerImpl implements ProjectFileController {
     @GetMapping
     public ResponseEntity<List<ProjectFileResponseDto>> getProjectFiles(
             @PathVariable UUID projectId,
+            @RequestParam(value = "includeDownloadUrls", defaultValue = "false") boolean includeDownloadUrls,
             @AuthenticationPrincipal Jwt jwt) {
         UUID currentUserId = getUserIdFromJwt(jwt);
-        List<ProjectFileResponseDto> files = projectFileService.getProjectFiles(projectId, currentUserId);
+        List<ProjectFileResponseDto> files = projectFileService.getProjectFiles(projectId, currentUserId, includeDownloadUrls);
         return ResponseEntity.ok(files);
     }
 
@@ -82,13 +128,13 @@ public class ProjectFileControllerImpl implements ProjectFileController {
 
     @Override
     @DeleteMapping("/{fileId}")
-    public ResponseEntity<Void> deleteProjectFile(
+    public CompletableFuture<ResponseEntity<Void>> deleteProjectFile(
             @PathVariable UUID projectId,
             @PathVariable UUID fileId,
             @AuthenticationPrincipal Jwt jwt) {
         UUID currentUserId = getUserIdFromJwt(jwt);
-        projectFileService.deleteProjectFile(projectId, fileId, currentUserId);
-        return ResponseEntity.noContent().build();
+        return projectFileService.deleteProjectFile(projectId, fileId, currentUserId)
+                .thenApply(ignored -> ResponseEntity.noContent().<Void>build());
     }
 
     @Override
@@ -101,4 +147,17 @@ public class ProjectFileControllerImpl implements ProjectFileController {
         List<ProjectFileResponseDto> versions = projectFileService.getAllVersionsOfFile(projectId, originalFilename, currentUserId);
         return ResponseEntity.ok(versions);
     }
+
+    @Override
+    @GetMapping("/versions/scroll")
+    public ResponseEntity<CursorPage<ProjectFileResponseDto>> scrollVersionsOfFileByName(
+            @PathVariable UUID projectId,
+            @RequestParam("filename") String originalFilename,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size,
+            @AuthenticationPrincipal Jwt jwt) {
+        UUID currentUserId = getUserIdFromJwt(jwt);
+        CursorPage<ProjectFileResponseDto> versions = projectFileService.scrollVersionsOfFile(projectId, originalFilename, currentUserId, cursor, size);
+        return ResponseEntity.ok(versions);
+    }
 }
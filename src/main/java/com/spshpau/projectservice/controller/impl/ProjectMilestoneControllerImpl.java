@@ -1,6 +1,7 @@
 package com.spshpau.projectservice.controller.impl;
 
 import com.spshpau.projectservice.controller.ProjectMilestoneController;
+import com.spshpau.projectservice.dto.CursorPage;
 import com.spshpau.projectservice.dto.MilestoneCreateDto;
 import com.spshpau.projectservice.dto.MilestoneResponseDto;
 import com.spshpau.projectservice.dto.MilestoneUpdateDto;
@@ -59,6 +60,17 @@ public class ProjectMilestoneControllerImpl implements ProjectMilestoneControlle
         return ResponseEntity.ok(milestones);
     }
 
+    @Override
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<MilestoneResponseDto>> scrollMilestonesForProject(@PathVariable UUID projectId,
+                                                                                       @RequestParam(value = "cursor", required = false) String cursor,
+                                                                                       @RequestParam(value = "size", defaultValue = "20") int size,
+                                                                                       @AuthenticationPrincipal Jwt jwt) {
+        UUID currentUserId = getUserIdFromJwt(jwt);
+        CursorPage<MilestoneResponseDto> milestones = projectMilestoneService.scrollMilestonesForProject(projectId, currentUserId, cursor, size);
+        return ResponseEntity.ok(milestones);
+    }
+
     @Override
     @PutMapping("/{milestoneId}")
     public ResponseEntity<MilestoneResponseDto> updateMilestone(@PathVariable UUID projectId,
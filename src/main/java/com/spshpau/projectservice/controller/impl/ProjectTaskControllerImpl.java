@@ -1,11 +1,16 @@
 package com.spshpau.projectservice.controller.impl;
 
 import com.spshpau.projectservice.controller.ProjectTaskController;
+import com.spshpau.projectservice.dto.CursorPage;
+import com.spshpau.projectservice.dto.TaskBulkAssignDto;
+import com.spshpau.projectservice.dto.TaskBulkStatusUpdateDto;
 import com.spshpau.projectservice.dto.TaskCreateDto;
 import com.spshpau.projectservice.dto.TaskResponseDto;
+import com.spshpau.projectservice.dto.TaskStatusCountsDto;
 import com.spshpau.projectservice.dto.TaskUpdateDto;
 import com.spshpau.projectservice.services.ProjectTaskService;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -16,6 +21,7 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -39,6 +45,36 @@ public class ProjectTaskControllerImpl implements ProjectTaskController {
         return ResponseEntity.status(HttpStatus.CREATED).body(createdTask);
     }
 
+    @Override
+    @PostMapping("/bulk")
+    public ResponseEntity<List<TaskResponseDto>> createTasks(@PathVariable UUID projectId,
+                                                             @NotEmpty @RequestBody List<@Valid TaskCreateDto> taskDtos,
+                                                             @AuthenticationPrincipal Jwt jwt) {
+        UUID currentUserId = getUserIdFromJwt(jwt);
+        List<TaskResponseDto> createdTasks = projectTaskService.createTasks(projectId, taskDtos, currentUserId);
+        return ResponseEntity.status(HttpStatus.CREATED).body(createdTasks);
+    }
+
+    @Override
+    @PatchMapping("/bulk/status")
+    public ResponseEntity<List<TaskResponseDto>> updateTaskStatuses(@PathVariable UUID projectId,
+                                                                    @Valid @RequestBody TaskBulkStatusUpdateDto updateDto,
+                                                                    @AuthenticationPrincipal Jwt jwt) {
+        UUID currentUserId = getUserIdFromJwt(jwt);
+        List<TaskResponseDto> tasks = projectTaskService.updateTaskStatuses(projectId, updateDto.getTaskIds(), updateDto.getStatus(), currentUserId);
+        return ResponseEntity.ok(tasks);
+    }
+
+    @Override
+    @PatchMapping("/bulk/assignee")
+    public ResponseEntity<List<TaskResponseDto>> assignTasks(@PathVariable UUID projectId,
+                                                             @Valid @RequestBody TaskBulkAssignDto assignDto,
+                                                             @AuthenticationPrincipal Jwt jwt) {
+        UUID currentUserId = getUserIdFromJwt(jwt);
+        List<TaskResponseDto> tasks = projectTaskService.assignTasks(projectId, assignDto.getTaskIds(), assignDto.getAssignedUserId(), currentUserId);
+        return ResponseEntity.ok(tasks);
+    }
+
     @Override
     @GetMapping("/{taskId}")
     public ResponseEntity<TaskResponseDto> getTaskById(@PathVariable UUID projectId,
@@ -59,6 +95,26 @@ public class ProjectTaskControllerImpl implements ProjectTaskController {
         return ResponseEntity.ok(tasks);
     }
 
+    @Override
+    @GetMapping("/scroll")
+    public ResponseEntity<CursorPage<TaskResponseDto>> scrollTasksForProject(@PathVariable UUID projectId,
+                                                                             @RequestParam(value = "cursor", required = false) String cursor,
+                                                                             @RequestParam(value = "size", defaultValue = "50") int size,
+                                                                             @AuthenticationPrincipal Jwt jwt) {
+        UUID currentUserId = getUserIdFromJwt(jwt);
+        CursorPage<TaskResponseDto> tasks = projectTaskService.scrollTasksForProject(projectId, currentUserId, cursor, size);
+        return ResponseEntity.ok(tasks);
+    }
+
+    @Override
+    @GetMapping("/status-counts")
+    public ResponseEntity<TaskStatusCountsDto> getTaskStatusCounts(@PathVariable UUID projectId,
+                                                                   @AuthenticationPrincipal Jwt jwt) {
+        UUID currentUserId = getUserIdFromJwt(jwt);
+        TaskStatusCountsDto counts = projectTaskService.getTaskStatusCounts(projectId, currentUserId);
+        return ResponseEntity.ok(counts);
+    }
+
     @Override
     @PutMapping("/{taskId}")
     public ResponseEntity<TaskResponseDto> updateTask(@PathVariable UUID projectId,
@@ -0,0 +1,24 @@
+package com.spshpau.projectservice.dto;
+
+import com.spshpau.projectservice.dto.enums.AnalyticsGranularity;
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@Builder
+public class BudgetAnalyticsDto {
+    private UUID projectId;
+    private String currency;
+    private BigDecimal totalAmount;
+    private AnalyticsGranularity granularity;
+    private LocalDate from;
+    private LocalDate to;
+    private BigDecimal spentBeforeRange;
+    private BigDecimal spentInRange;
+    private List<SpendBucketDto> buckets; // One per period in the range, including periods without expenses
+}
@@ -5,6 +5,8 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 import lombok.Data;
 
+import java.math.BigDecimal;
+
 @Data
 public class BudgetCreateDto {
     @NotBlank(message = "Currency cannot be blank")
@@ -12,5 +14,5 @@ public class BudgetCreateDto {
 
     @NotNull(message = "Total amount cannot be null")
     @Positive(message = "Total amount must be positive")
-    private Float totalAmount;
+    private BigDecimal totalAmount;
 }
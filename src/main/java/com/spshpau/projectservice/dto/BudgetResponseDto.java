@@ -3,6 +3,8 @@ package com.spshpau.projectservice.dto;
 import com.spshpau.projectservice.model.ProjectBudget;
 import lombok.Builder;
 import lombok.Data;
+
+import java.math.BigDecimal;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -12,22 +14,22 @@ import java.util.stream.Collectors;
 public class BudgetResponseDto {
     private UUID projectId; // Budget ID is same as Project ID
     private String currency;
-    private Float totalAmount;
-    private Float spentAmount;
-    private Float remainingAmount;
+    private BigDecimal totalAmount;
+    private BigDecimal spentAmount;
+    private BigDecimal remainingAmount;
     private Set<ExpenseResponseDto> expenses;
 
-    public static BudgetResponseDto fromEntity(ProjectBudget budget, Float spentAmount) {
+    public static BudgetResponseDto fromEntity(ProjectBudget budget, BigDecimal spentAmount) {
         if (budget == null) return null;
-        Float total = budget.getTotalAmount();
-        Float spent = spentAmount != null ? spentAmount : 0f;
+        BigDecimal total = budget.getTotalAmount();
+        BigDecimal spent = spentAmount != null ? spentAmount : BigDecimal.ZERO;
 
         return BudgetResponseDto.builder()
                 .projectId(budget.getId())
                 .currency(budget.getCurrency())
                 .totalAmount(total)
                 .spentAmount(spent)
-                .remainingAmount(total - spent)
+                .remainingAmount(total.subtract(spent))
                 .expenses(budget.getExpenses().stream()
                         .map(ExpenseResponseDto::fromEntity)
                         .collect(Collectors.toSet()))
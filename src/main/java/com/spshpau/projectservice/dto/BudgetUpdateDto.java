@@ -3,10 +3,12 @@ package com.spshpau.projectservice.dto;
 import jakarta.validation.constraints.Positive;
 import lombok.Data;
 
+import java.math.BigDecimal;
+
 @Data
 public class BudgetUpdateDto {
     private String currency;
 
     @Positive(message = "Total amount must be positive")
-    private Float totalAmount;
+    private BigDecimal totalAmount;
 }
@@ -0,0 +1,39 @@
+package com.spshpau.projectservice.dto;
+
+import com.spshpau.projectservice.dto.enums.DeadlineItemType;
+import com.spshpau.projectservice.model.enums.TaskStatus;
+import com.spshpau.projectservice.repositories.ProjectRepository;
+import lombok.Builder;
+import lombok.Data;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+@Data
+@Builder
+public class DeadlineItemDto {
+    private DeadlineItemType type;
+    private UUID id;
+    private String title;
+    private Timestamp dueDate;
+    private TaskStatus status; // Only set for tasks
+    private UUID assignedUserId; // Only set for assigned tasks
+    private UUID projectId;
+    private String projectTitle;
+
+    public static DeadlineItemDto fromRow(ProjectRepository.DeadlineRow row) {
+        if (row == null) {
+            return null;
+        }
+        return DeadlineItemDto.builder()
+                .type(DeadlineItemType.valueOf(row.getType()))
+                .id(row.getId())
+                .title(row.getTitle())
+                .dueDate(row.getDueDate())
+                .status(row.getStatus() != null ? TaskStatus.valueOf(row.getStatus()) : null)
+                .assignedUserId(row.getAssignedUserId())
+                .projectId(row.getProjectId())
+                .projectTitle(row.getProjectTitle())
+                .build();
+    }
+}
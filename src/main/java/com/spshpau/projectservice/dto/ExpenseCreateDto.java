@@ -5,13 +5,15 @@ import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.PastOrPresent;
 import jakarta.validation.constraints.Positive;
 import lombok.Data;
+
+import java.math.BigDecimal;
 import java.util.Date;
 
 @Data
 public class ExpenseCreateDto {
     @NotNull(message = "Amount cannot be null")
     @Positive(message = "Amount must be positive")
-    private Float amount;
+    private BigDecimal amount;
 
     @NotNull(message = "Date cannot be null")
     @PastOrPresent(message = "Expense date cannot be in the future")
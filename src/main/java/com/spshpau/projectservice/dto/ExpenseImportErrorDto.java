@@ -0,0 +1,13 @@
+package com.spshpau.projectservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExpenseImportErrorDto {
+    private int row; // 1-based position in the submitted array or CSV data rows
+    private String message;
+}
@@ -0,0 +1,19 @@
+package com.spshpau.projectservice.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+public class ExpenseImportResultDto {
+    private int importedCount;
+    private BigDecimal importedAmount;
+    private List<ExpenseImportErrorDto> errors;
+
+    public boolean hasErrors() {
+        return errors != null && !errors.isEmpty();
+    }
+}
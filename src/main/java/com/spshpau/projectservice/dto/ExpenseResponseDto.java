@@ -3,6 +3,8 @@ package com.spshpau.projectservice.dto;
 import com.spshpau.projectservice.model.BudgetExpense;
 import lombok.Builder;
 import lombok.Data;
+
+import java.math.BigDecimal;
 import java.util.Date;
 import java.util.UUID;
 
@@ -10,7 +12,7 @@ import java.util.UUID;
 @Builder
 public class ExpenseResponseDto {
     private UUID id;
-    private Float amount;
+    private BigDecimal amount;
     private Date date;
     private String comment;
     private UUID budgetId; // This is the project ID
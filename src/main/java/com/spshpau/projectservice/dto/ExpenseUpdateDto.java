@@ -3,12 +3,14 @@ package com.spshpau.projectservice.dto;
 import jakarta.validation.constraints.PastOrPresent;
 import jakarta.validation.constraints.Positive;
 import lombok.Data;
+
+import java.math.BigDecimal;
 import java.util.Date;
 
 @Data
 public class ExpenseUpdateDto {
     @Positive(message = "Amount must be positive")
-    private Float amount;
+    private BigDecimal amount;
 
     @PastOrPresent(message = "Expense date cannot be in the future")
     private Date date;
@@ -0,0 +1,62 @@
+package com.spshpau.projectservice.dto;
+
+import lombok.Value;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in a keyset-paginated listing: the sort key and ID of the last row returned.
+ * Clients only see it as an opaque token.
+ */
+@Value
+public class KeysetCursor {
+
+    // Sorts before every other UUID in PostgreSQL, used to start a scan from the beginning
+    public static final UUID MIN_ID = new UUID(0L, 0L);
+
+    // Null when the last row had no sort key (e.g. a milestone without a due date)
+    Instant sortKey;
+    UUID id;
+
+    public String encode() {
+        String raw = (sortKey != null ? sortKey.toString() : "") + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return The sort key of a listing whose rows always have one.
+     * @throws IllegalArgumentException If the cursor has no sort key.
+     */
+    public Instant requireSortKey() {
+        if (sortKey == null) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+        return sortKey;
+    }
+
+    /**
+     * Decodes a token created by {@link #encode()}.
+     * @return The cursor, or null if no token was given.
+     * @throws IllegalArgumentException If the token is malformed.
+     */
+    public static KeysetCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+            String sortKey = raw.substring(0, separator);
+            return new KeysetCursor(sortKey.isEmpty() ? null : Instant.parse(sortKey), UUID.fromString(raw.substring(separator + 1)));
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor.", e);
+        }
+    }
+}
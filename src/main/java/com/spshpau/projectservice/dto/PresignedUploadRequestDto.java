@@ -0,0 +1,19 @@
+package com.spshpau.projectservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.Data;
+
+@Data
+public class PresignedUploadRequestDto {
+    @NotBlank(message = "Filename cannot be blank")
+    private String originalFilename;
+
+    @NotBlank(message = "Content type cannot be blank")
+    private String contentType;
+
+    @NotNull(message = "File size cannot be null")
+    @Positive(message = "File size must be positive")
+    private Long fileSize;
+}
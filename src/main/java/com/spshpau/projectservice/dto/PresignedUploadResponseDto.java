@@ -0,0 +1,22 @@
+package com.spshpau.projectservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PresignedUploadResponseDto {
+    private String uploadUrl;
+    private String httpMethod;
+    private Map<String, String> requiredHeaders;
+    private String originalFilename;
+    private String s3ObjectKey;
+    private Instant expiresAt;
+}
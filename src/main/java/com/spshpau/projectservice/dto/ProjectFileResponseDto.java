@@ -1,5 +1,6 @@
 package com.spshpau.projectservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.spshpau.projectservice.model.ProjectFile;
 import lombok.Builder;
 import lombok.Data;
@@ -20,6 +21,9 @@ public class ProjectFileResponseDto {
     private String s3ObjectKey;
     private String s3VersionId;
     private UUID projectId;
+    // Only set when the listing is requested with download URLs
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String downloadUrl;
 
     public static ProjectFileResponseDto fromEntity(ProjectFile file) {
         if (file == null) return null;
@@ -0,0 +1,19 @@
+package com.spshpau.projectservice.dto;
+
+import com.spshpau.projectservice.model.enums.TaskStatus;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Builder
+public class ProjectOverviewDto {
+    private ProjectResponseDto project;
+    private Map<TaskStatus, Long> taskCountsByStatus; // Every status is present, with 0 when no task has it
+    private long totalTasks;
+    private List<MilestoneResponseDto> upcomingMilestones;
+    private RemainingBudgetDto budget; // Null when the project has no budget
+    private List<ProjectFileResponseDto> latestFiles;
+}
@@ -4,12 +4,14 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
+
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class RemainingBudgetDto {
-    private Float totalAmount;
-    private Float spentAmount;
-    private Float remainingAmount;
+    private BigDecimal totalAmount;
+    private BigDecimal spentAmount;
+    private BigDecimal remainingAmount;
     private String currency;
 }
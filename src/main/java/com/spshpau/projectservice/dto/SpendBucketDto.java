@@ -0,0 +1,19 @@
+package com.spshpau.projectservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpendBucketDto {
+    private LocalDate periodStart;
+    private BigDecimal spentAmount;
+    private long expenseCount;
+    private BigDecimal cumulativeSpentAmount; // Includes expenses before the requested range
+    private BigDecimal remainingAmount;
+}
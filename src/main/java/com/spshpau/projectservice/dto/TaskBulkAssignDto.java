@@ -0,0 +1,16 @@
+package com.spshpau.projectservice.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class TaskBulkAssignDto {
+    @NotEmpty(message = "Task IDs cannot be empty")
+    private List<@NotNull UUID> taskIds;
+
+    private UUID assignedUserId; // Null removes the assignee from all given tasks
+}
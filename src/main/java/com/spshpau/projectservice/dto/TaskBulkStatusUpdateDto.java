@@ -0,0 +1,18 @@
+package com.spshpau.projectservice.dto;
+
+import com.spshpau.projectservice.model.enums.TaskStatus;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+public class TaskBulkStatusUpdateDto {
+    @NotEmpty(message = "Task IDs cannot be empty")
+    private List<@NotNull UUID> taskIds;
+
+    @NotNull(message = "Status cannot be null")
+    private TaskStatus status;
+}
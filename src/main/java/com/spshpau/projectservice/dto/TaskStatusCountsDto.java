@@ -0,0 +1,21 @@
+package com.spshpau.projectservice.dto;
+
+import com.spshpau.projectservice.model.enums.TaskStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskStatusCountsDto {
+    private Map<TaskStatus, Long> countsByStatus; // Every status is present, with 0 when no task has it
+    private long total;
+
+    public static TaskStatusCountsDto fromCounts(Map<TaskStatus, Long> countsByStatus) {
+        long total = countsByStatus.values().stream().mapToLong(Long::longValue).sum();
+        return new TaskStatusCountsDto(countsByStatus, total);
+    }
+}
@@ -0,0 +1,17 @@
+package com.spshpau.projectservice.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+@Data
+public class UploadCompletionDto {
+    @NotBlank(message = "Filename cannot be blank")
+    private String originalFilename;
+
+    // Version ID returned by S3 in the x-amz-version-id header of the PUT response
+    private String s3VersionId;
+
+    @Size(max = 5000, message = "Description can be up to 5000 characters")
+    private String description;
+}
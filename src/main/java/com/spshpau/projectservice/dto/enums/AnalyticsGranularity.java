@@ -0,0 +1,40 @@
+package com.spshpau.projectservice.dto.enums;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+public enum AnalyticsGranularity {
+    DAY("day", ChronoUnit.DAYS),
+    WEEK("week", ChronoUnit.WEEKS), // ISO weeks starting on Monday, as PostgreSQL date_trunc does
+    MONTH("month", ChronoUnit.MONTHS);
+
+    private final String dateTruncUnit;
+    private final ChronoUnit unit;
+
+    AnalyticsGranularity(String dateTruncUnit, ChronoUnit unit) {
+        this.dateTruncUnit = dateTruncUnit;
+        this.unit = unit;
+    }
+
+    public String getDateTruncUnit() {
+        return dateTruncUnit;
+    }
+
+    public LocalDate periodStart(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+
+    public LocalDate nextPeriodStart(LocalDate periodStart) {
+        return periodStart.plus(1, unit);
+    }
+
+    public long periodsBetween(LocalDate start, LocalDate end) {
+        return unit.between(periodStart(start), end) + 1;
+    }
+}
@@ -0,0 +1,6 @@
+package com.spshpau.projectservice.dto.enums;
+
+public enum DeadlineItemType {
+    TASK,
+    MILESTONE
+}
@@ -6,11 +6,14 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.math.BigDecimal;
 import java.util.Date;
 import java.util.UUID;
 
 @Entity
-@Table(name = "projectbudgetexpanses")
+@Table(name = "projectbudgetexpanses", indexes = {
+        @Index(name = "idx_projectbudgetexpanses_budget_date", columnList = "budget_id, date, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -21,8 +24,8 @@ public class BudgetExpense {
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @Column(nullable = false)
-    private float amount;
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal amount;
 
     @Column(nullable = false)
     private Date date;
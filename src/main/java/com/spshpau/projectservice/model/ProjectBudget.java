@@ -6,6 +6,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.UUID;
@@ -23,8 +24,18 @@ public class ProjectBudget {
     @Column(nullable = false)
     private String currency;
 
-    @Column(nullable = false)
-    private float totalAmount;
+    // Exact amounts with the scale of the currency, see MoneyAmounts
+    @Column(nullable = false, precision = 19, scale = 4)
+    private BigDecimal totalAmount;
+
+    // Sum of all expense amounts, kept up to date by every expense write and checked by BudgetSpentAmountReconciler
+    @Column(nullable = false, precision = 19, scale = 4, columnDefinition = "numeric(19,4) default 0")
+    private BigDecimal spentAmount = BigDecimal.ZERO;
+
+    // Concurrent expense writes on the same budget conflict instead of losing an update to spentAmount
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
 
     // Relationships
 
@@ -11,7 +11,10 @@ import java.sql.Timestamp;
 import java.util.UUID;
 
 @Entity
-@Table(name = "project_files")
+@Table(name = "project_files", indexes = {
+        @Index(name = "idx_project_files_project_filename", columnList = "project_id, original_filename"),
+        @Index(name = "idx_project_files_project_latest", columnList = "project_id, latest_version")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -45,6 +48,10 @@ public class ProjectFile {
     @Column(columnDefinition = "TEXT")
     private String description;
 
+    // Set on exactly one version per project and filename; maintained on upload and delete
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private boolean latestVersion;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id", nullable = false)
     private Project project;
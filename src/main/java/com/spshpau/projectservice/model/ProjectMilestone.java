@@ -10,7 +10,9 @@ import java.sql.Timestamp;
 import java.util.UUID;
 
 @Entity
-@Table(name = "projectmilestones")
+@Table(name = "projectmilestones", indexes = {
+        @Index(name = "idx_projectmilestones_project_due", columnList = "project_id, due_date, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
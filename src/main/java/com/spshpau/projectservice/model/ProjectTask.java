@@ -11,7 +11,12 @@ import java.sql.Timestamp;
 import java.util.UUID;
 
 @Entity
-@Table(name = "projecttasks")
+@Table(name = "projecttasks", indexes = {
+        @Index(name = "idx_projecttasks_project_created", columnList = "project_id, created_at, id"),
+        @Index(name = "idx_projecttasks_project_due", columnList = "project_id, due_date, id"),
+        @Index(name = "idx_projecttasks_project_status", columnList = "project_id, status"),
+        @Index(name = "idx_projecttasks_assignee_status_due", columnList = "assigned_user_id, status, due_date")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -4,19 +4,63 @@ import com.spshpau.projectservice.model.BudgetExpense;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface BudgetExpenseRepository extends JpaRepository<BudgetExpense, UUID> {
     @Query("SELECT SUM(e.amount) FROM BudgetExpense e WHERE e.budget.id = :budgetId")
-    Optional<Float> sumExpensesByBudgetId(@Param("budgetId") UUID budgetId);
+    Optional<BigDecimal> sumExpensesByBudgetId(@Param("budgetId") UUID budgetId);
 
     Page<BudgetExpense> findByBudgetId(UUID budgetId, Pageable pageable);
 
+    // Keyset pagination by (date, id); the pageable only carries the limit, so no count query is run
+    List<BudgetExpense> findByBudgetIdOrderByDateAscIdAsc(UUID budgetId, Pageable pageable);
+
+    @Query("SELECT e FROM BudgetExpense e WHERE e.budget.id = :budgetId " +
+            "AND (e.date > :date OR (e.date = :date AND e.id > :id)) " +
+            "ORDER BY e.date ASC, e.id ASC")
+    List<BudgetExpense> findExpensesAfter(@Param("budgetId") UUID budgetId, @Param("date") Date date,
+                                          @Param("id") UUID id, Pageable pageable);
+
     Optional<BudgetExpense> findByIdAndBudgetId(UUID expenseId, UUID budgetId);
+
+    /**
+     * Rounds every expense of a budget half up to the given number of decimals, in one statement.
+     * @return The number of rows updated.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE BudgetExpense e SET e.amount = ROUND(e.amount, :scale) WHERE e.budget.id = :budgetId")
+    int roundAmountsByBudgetId(@Param("budgetId") UUID budgetId, @Param("scale") int scale);
+
+    @Query("SELECT SUM(e.amount) FROM BudgetExpense e WHERE e.budget.id = :budgetId AND e.date < :before")
+    Optional<BigDecimal> sumExpensesByBudgetIdBefore(@Param("budgetId") UUID budgetId, @Param("before") Date before);
+
+    // Served by the (budget_id, date, id) index; unit is a PostgreSQL date_trunc field such as 'day', 'week' or 'month'.
+    // Dates are stored as wall-clock time in the JVM's zone, given as jvmZone, and are bucketed by UTC period
+    @Query(value = "SELECT date_trunc(:unit, e.date AT TIME ZONE :jvmZone AT TIME ZONE 'UTC') AS \"periodStart\", " +
+            "SUM(e.amount) AS \"spentAmount\", " +
+            "COUNT(*) AS \"expenseCount\" " +
+            "FROM projectbudgetexpanses e " +
+            "WHERE e.budget_id = :budgetId AND e.date >= :from AND e.date < :to " +
+            "GROUP BY 1 ORDER BY 1",
+            nativeQuery = true)
+    List<SpendBucket> sumExpensesByPeriod(@Param("budgetId") UUID budgetId, @Param("unit") String unit,
+                                          @Param("jvmZone") String jvmZone, @Param("from") Date from, @Param("to") Date to);
+
+    interface SpendBucket {
+        // Start of the period as UTC wall-clock time
+        Timestamp getPeriodStart();
+        BigDecimal getSpentAmount();
+        Long getExpenseCount();
+    }
 }
@@ -2,10 +2,15 @@ package com.spshpau.projectservice.repositories;
 
 import com.spshpau.projectservice.model.ProjectBudget;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface ProjectBudgetrepository extends JpaRepository<ProjectBudget, UUID> {
+    @Query("SELECT b.id FROM ProjectBudget b WHERE b.spentAmount <> " +
+            "COALESCE((SELECT SUM(e.amount) FROM BudgetExpense e WHERE e.budget = b), 0)")
+    List<UUID> findIdsWithSpentAmountDrift();
 }
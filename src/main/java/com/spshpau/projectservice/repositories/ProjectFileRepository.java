@@ -3,11 +3,14 @@ package com.spshpau.projectservice.repositories;
 import com.spshpau.projectservice.model.ProjectFile;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -15,21 +18,64 @@ import java.util.UUID;
 @Repository
 public interface ProjectFileRepository extends JpaRepository<ProjectFile, UUID> {
 
-    @Query(value = "SELECT pf_ranked.* FROM (" +
-            "    SELECT pf.*, " +
-            "           pf.upload_timestamp AS \"uploadTimestamp\", " +
-            "           ROW_NUMBER() OVER (PARTITION BY pf.original_filename ORDER BY pf.upload_timestamp DESC, pf.id DESC) as rn " +
-            "    FROM project_files pf " +
-            "    WHERE pf.project_id = :projectId" +
-            ") AS pf_ranked " +
-            "WHERE pf_ranked.rn = 1 " +
-            "ORDER BY pf_ranked.original_filename ASC",
-            nativeQuery = true)
+    /**
+     * Finds the latest version of each file in a project, with the uploader fetched in the same query.
+     * Reads only the rows flagged as latest, so the cost does not grow with the number of versions.
+     */
+    @Query("SELECT pf FROM ProjectFile pf JOIN FETCH pf.uploadedBy " +
+            "WHERE pf.project.id = :projectId AND pf.latestVersion = true " +
+            "ORDER BY pf.originalFilename ASC")
     List<ProjectFile> findLatestVersionOfEachFileByProjectId(@Param("projectId") UUID projectId);
 
+    @Modifying
+    @Query("UPDATE ProjectFile pf SET pf.latestVersion = false " +
+            "WHERE pf.project.id = :projectId AND pf.originalFilename = :originalFilename AND pf.latestVersion = true")
+    int clearLatestVersion(@Param("projectId") UUID projectId, @Param("originalFilename") String originalFilename);
+
+    Optional<ProjectFile> findFirstByProjectIdAndOriginalFilenameOrderByUploadTimestampDescIdDesc(UUID projectId, String originalFilename);
+
+    /**
+     * Flags the newest version of every file that has no version flagged as latest,
+     * e.g. rows stored before the flag existed. Safe to run repeatedly.
+     * @return The number of rows flagged.
+     */
+    @Modifying
+    @Query(value = "UPDATE project_files pf SET latest_version = true " +
+            "WHERE pf.id IN (" +
+            "    SELECT ranked.id FROM (" +
+            "        SELECT f.id, ROW_NUMBER() OVER (PARTITION BY f.project_id, f.original_filename " +
+            "                                        ORDER BY f.upload_timestamp DESC, f.id DESC) AS rn " +
+            "        FROM project_files f" +
+            "    ) AS ranked WHERE ranked.rn = 1" +
+            ") " +
+            "AND NOT EXISTS (SELECT 1 FROM project_files other " +
+            "                WHERE other.project_id = pf.project_id AND other.original_filename = pf.original_filename " +
+            "                AND other.latest_version = true)",
+            nativeQuery = true)
+    int markMissingLatestVersions();
+
     Page<ProjectFile> findByProjectIdOrderByUploadTimestampDesc(UUID projectId, Pageable pageable);
 
     List<ProjectFile> findByProjectIdAndOriginalFilenameOrderByUploadTimestampDesc(UUID projectId, String originalFilename);
 
+    // Keyset pagination by (uploadTimestamp, id), newest first; the pageable only carries the limit
+    @EntityGraph(attributePaths = "uploadedBy")
+    List<ProjectFile> findByProjectIdAndOriginalFilenameOrderByUploadTimestampDescIdDesc(UUID projectId, String originalFilename,
+                                                                                         Pageable pageable);
+
+    @EntityGraph(attributePaths = "uploadedBy")
+    @Query("SELECT pf FROM ProjectFile pf WHERE pf.project.id = :projectId AND pf.originalFilename = :originalFilename " +
+            "AND (pf.uploadTimestamp < :uploadTimestamp OR (pf.uploadTimestamp = :uploadTimestamp AND pf.id < :id)) " +
+            "ORDER BY pf.uploadTimestamp DESC, pf.id DESC")
+    List<ProjectFile> findVersionsBefore(@Param("projectId") UUID projectId, @Param("originalFilename") String originalFilename,
+                                         @Param("uploadTimestamp") Timestamp uploadTimestamp, @Param("id") UUID id,
+                                         Pageable pageable);
+
+    // Most recently uploaded files, one row per file name; the pageable only carries the limit
+    @EntityGraph(attributePaths = "uploadedBy")
+    List<ProjectFile> findByProjectIdAndLatestVersionTrueOrderByUploadTimestampDescIdDesc(UUID projectId, Pageable pageable);
+
     Optional<ProjectFile> findByIdAndProjectId(UUID id, UUID projectId);
+
+    Optional<ProjectFile> findByS3ObjectKeyAndS3VersionId(String s3ObjectKey, String s3VersionId);
 }
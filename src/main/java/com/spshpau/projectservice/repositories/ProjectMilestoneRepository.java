@@ -4,11 +4,33 @@ import com.spshpau.projectservice.model.ProjectMilestone;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface ProjectMilestoneRepository extends JpaRepository<ProjectMilestone, UUID> {
     Page<ProjectMilestone> findByProjectId(UUID projectId, Pageable pageable);
+
+    // Keyset pagination by (dueDate, id), milestones without a due date last;
+    // the pageable only carries the limit, so no count query is run
+    List<ProjectMilestone> findByProjectIdAndDueDateIsNotNullOrderByDueDateAscIdAsc(UUID projectId, Pageable pageable);
+
+    List<ProjectMilestone> findByProjectIdAndDueDateGreaterThanEqualOrderByDueDateAscIdAsc(UUID projectId, Timestamp from,
+                                                                                          Pageable pageable);
+
+    @Query("SELECT m FROM ProjectMilestone m WHERE m.project.id = :projectId AND m.dueDate IS NOT NULL " +
+            "AND (m.dueDate > :dueDate OR (m.dueDate = :dueDate AND m.id > :id)) " +
+            "ORDER BY m.dueDate ASC, m.id ASC")
+    List<ProjectMilestone> findMilestonesWithDueDateAfter(@Param("projectId") UUID projectId, @Param("dueDate") Timestamp dueDate,
+                                                          @Param("id") UUID id, Pageable pageable);
+
+    @Query("SELECT m FROM ProjectMilestone m WHERE m.project.id = :projectId AND m.dueDate IS NULL AND m.id > :id " +
+            "ORDER BY m.id ASC")
+    List<ProjectMilestone> findMilestonesWithoutDueDateAfter(@Param("projectId") UUID projectId, @Param("id") UUID id,
+                                                             Pageable pageable);
 }
@@ -1,20 +1,100 @@
 package com.spshpau.projectservice.repositories;
 
+import com.spshpau.projectservice.dto.UserSummaryDto;
 import com.spshpau.projectservice.model.Project;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, UUID> {
-    Page<Project> findByOwnerId(UUID ownerId, Pageable pageable);
+    // The budget is the inverse side of a one-to-one, which Hibernate cannot proxy and would otherwise load per row
+    @Query(value = "SELECT p FROM Project p JOIN FETCH p.owner o LEFT JOIN FETCH p.budget WHERE o.id = :ownerId",
+            countQuery = "SELECT COUNT(p) FROM Project p WHERE p.owner.id = :ownerId")
+    Page<Project> findWithOwnerByOwnerId(@Param("ownerId") UUID ownerId, Pageable pageable);
 
-    Page<Project> findByCollaboratorsId(UUID collaboratorId, Pageable pageable);
+    @Query(value = "SELECT p FROM Project p JOIN FETCH p.owner LEFT JOIN FETCH p.budget JOIN p.collaborators c WHERE c.id = :collaboratorId",
+            countQuery = "SELECT COUNT(p) FROM Project p JOIN p.collaborators c WHERE c.id = :collaboratorId")
+    Page<Project> findWithOwnerByCollaboratorId(@Param("collaboratorId") UUID collaboratorId, Pageable pageable);
 
+    @Query(value = "SELECT new com.spshpau.projectservice.dto.UserSummaryDto(c.id, c.username, c.firstName, c.lastName, c.location) " +
+            "FROM Project p JOIN p.collaborators c WHERE p.id = :projectId ORDER BY c.username ASC, c.id ASC",
+            countQuery = "SELECT COUNT(c) FROM Project p JOIN p.collaborators c WHERE p.id = :projectId")
+    Page<UserSummaryDto> findCollaboratorSummariesByProjectId(@Param("projectId") UUID projectId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"owner", "collaborators"})
+    Optional<Project> findWithMembersById(UUID id);
+
+    /**
+     * Initializes the collaborator sets of the given projects with a single query.
+     * The projects are expected to be already managed in the current persistence context.
+     */
+    @Query("SELECT DISTINCT p FROM Project p LEFT JOIN FETCH p.collaborators WHERE p.id IN :projectIds")
+    List<Project> fetchCollaboratorsByProjectIds(@Param("projectIds") Collection<UUID> projectIds);
+
+    @Query("SELECT CASE WHEN COUNT(p) > 0 THEN true ELSE false END FROM Project p " +
+            "WHERE p.id = :projectId AND (p.owner.id = :userId " +
+            "OR EXISTS (SELECT c.id FROM Project cp JOIN cp.collaborators c WHERE cp.id = :projectId AND c.id = :userId))")
+    boolean isUserProjectMember(@Param("projectId") UUID projectId, @Param("userId") UUID userId);
+
+    /**
+     * Merges the due tasks and milestones of every project the user owns or collaborates on into one feed
+     * ordered by (due date, id), starting after the given position. Done tasks are left out.
+     * Each branch reads at most {@code limit} rows from the (project_id, due_date, id) indexes before the merge.
+     */
+    @Query(value = "WITH member_projects AS (" +
+            "    SELECT p.id, p.title FROM projects p WHERE p.owner_id = :userId" +
+            "    UNION" +
+            "    SELECT p.id, p.title FROM projects p JOIN project_collaborators pc ON pc.project_id = p.id WHERE pc.user_id = :userId" +
+            ") " +
+            "SELECT feed.* FROM (" +
+            "    (SELECT 'TASK' AS \"type\", t.id AS \"id\", t.title AS \"title\", t.due_date AS \"dueDate\", t.status AS \"status\", " +
+            "            t.assigned_user_id AS \"assignedUserId\", mp.id AS \"projectId\", mp.title AS \"projectTitle\"" +
+            "     FROM projecttasks t JOIN member_projects mp ON mp.id = t.project_id" +
+            "     WHERE t.due_date >= :from AND t.due_date < :to AND t.status <> 'DONE'" +
+            "       AND (t.due_date, t.id) > (:afterDueDate, :afterId)" +
+            "     ORDER BY t.due_date, t.id LIMIT :limit)" +
+            "    UNION ALL" +
+            "    (SELECT 'MILESTONE', m.id, m.title, m.due_date, NULL, NULL, mp.id, mp.title" +
+            "     FROM projectmilestones m JOIN member_projects mp ON mp.id = m.project_id" +
+            "     WHERE m.due_date >= :from AND m.due_date < :to" +
+            "       AND (m.due_date, m.id) > (:afterDueDate, :afterId)" +
+            "     ORDER BY m.due_date, m.id LIMIT :limit)" +
+            ") feed " +
+            "ORDER BY feed.\"dueDate\", feed.\"id\" LIMIT :limit",
+            nativeQuery = true)
+    List<DeadlineRow> findDeadlinesAfter(@Param("userId") UUID userId, @Param("from") Timestamp from, @Param("to") Timestamp to,
+                                         @Param("afterDueDate") Timestamp afterDueDate, @Param("afterId") UUID afterId,
+                                         @Param("limit") int limit);
+
+    /**
+     * Loads the project and locks its row until the end of the transaction.
+     * Used to serialize changes to the latest version of the project's files.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Project p WHERE p.id = :projectId")
+    Optional<Project> findByIdForUpdate(@Param("projectId") UUID projectId);
+
+    interface DeadlineRow {
+        String getType();
+        UUID getId();
+        String getTitle();
+        Timestamp getDueDate();
+        String getStatus(); // Null for milestones
+        UUID getAssignedUserId();
+        UUID getProjectId();
+        String getProjectTitle();
+    }
 }
@@ -1,14 +1,18 @@
 package com.spshpau.projectservice.repositories;
 
 import com.spshpau.projectservice.model.ProjectTask;
+import com.spshpau.projectservice.model.enums.TaskStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.sql.Timestamp;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
@@ -18,7 +22,54 @@ public interface ProjectTaskRepository extends JpaRepository<ProjectTask, UUID>
 
     List<ProjectTask> findByProjectIdAndAssignedUserId(UUID projectId, UUID assignedUserId);
 
+    @EntityGraph(attributePaths = "assignedUser")
+    List<ProjectTask> findByProjectIdAndIdIn(UUID projectId, Collection<UUID> ids);
+
+    // Keyset pagination by (createdAt, id); the pageable only carries the limit, so no count query is run
+    @EntityGraph(attributePaths = "assignedUser")
+    List<ProjectTask> findByProjectIdOrderByCreatedAtAscIdAsc(UUID projectId, Pageable pageable);
+
+    @EntityGraph(attributePaths = "assignedUser")
+    @Query("SELECT t FROM ProjectTask t WHERE t.project.id = :projectId " +
+            "AND (t.createdAt > :createdAt OR (t.createdAt = :createdAt AND t.id > :id)) " +
+            "ORDER BY t.createdAt ASC, t.id ASC")
+    List<ProjectTask> findTasksAfter(@Param("projectId") UUID projectId, @Param("createdAt") Timestamp createdAt,
+                                     @Param("id") UUID id, Pageable pageable);
+
+    // Keyset pagination of a user's assigned tasks across projects by (dueDate, id), then tasks without a due date by id
+    @EntityGraph(attributePaths = "assignedUser")
+    @Query("SELECT t FROM ProjectTask t WHERE t.assignedUser.id = :userId AND t.status IN :statuses " +
+            "AND t.dueDate >= :dueFrom AND t.dueDate < :dueTo " +
+            "AND (t.dueDate > :dueDate OR (t.dueDate = :dueDate AND t.id > :id)) " +
+            "ORDER BY t.dueDate ASC, t.id ASC")
+    List<ProjectTask> findAssignedTasksWithDueDateAfter(@Param("userId") UUID userId, @Param("statuses") Collection<TaskStatus> statuses,
+                                                        @Param("dueFrom") Timestamp dueFrom, @Param("dueTo") Timestamp dueTo,
+                                                        @Param("dueDate") Timestamp dueDate, @Param("id") UUID id, Pageable pageable);
+
+    @EntityGraph(attributePaths = "assignedUser")
+    @Query("SELECT t FROM ProjectTask t WHERE t.assignedUser.id = :userId AND t.status IN :statuses " +
+            "AND t.dueDate IS NULL AND t.id > :id ORDER BY t.id ASC")
+    List<ProjectTask> findAssignedTasksWithoutDueDateAfter(@Param("userId") UUID userId, @Param("statuses") Collection<TaskStatus> statuses,
+                                                           @Param("id") UUID id, Pageable pageable);
+
+    /**
+     * Counts the tasks of a project per status. Statuses without tasks are not returned.
+     */
+    @Query("SELECT t.status AS status, COUNT(t) AS count FROM ProjectTask t WHERE t.project.id = :projectId GROUP BY t.status")
+    List<StatusCount> countTasksByStatus(@Param("projectId") UUID projectId);
+
+    /**
+     * Counts the tasks assigned to a user across all projects per status. Statuses without tasks are not returned.
+     */
+    @Query("SELECT t.status AS status, COUNT(t) AS count FROM ProjectTask t WHERE t.assignedUser.id = :userId GROUP BY t.status")
+    List<StatusCount> countAssignedTasksByStatus(@Param("userId") UUID userId);
+
     @Modifying
     @Query("UPDATE ProjectTask pt SET pt.assignedUser = null WHERE pt.project.id = :projectId AND pt.assignedUser.id = :userId")
     void unassignUserFromTasksInProject(@Param("projectId") UUID projectId, @Param("userId") UUID userId);
+
+    interface StatusCount {
+        TaskStatus getStatus();
+        long getCount();
+    }
 }
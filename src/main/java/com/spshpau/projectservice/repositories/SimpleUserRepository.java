@@ -2,10 +2,18 @@ package com.spshpau.projectservice.repositories;
 
 import com.spshpau.projectservice.model.SimpleUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface SimpleUserRepository extends JpaRepository<SimpleUser, UUID> {
+    @Query("SELECT u FROM SimpleUser u WHERE u.id IN :userIds AND (" +
+            "u.id = (SELECT p.owner.id FROM Project p WHERE p.id = :projectId) " +
+            "OR u.id IN (SELECT c.id FROM Project p JOIN p.collaborators c WHERE p.id = :projectId))")
+    List<SimpleUser> findProjectMembersByIdIn(@Param("projectId") UUID projectId, @Param("userIds") Collection<UUID> userIds);
 }
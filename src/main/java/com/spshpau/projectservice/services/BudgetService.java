@@ -1,9 +1,14 @@
 package com.spshpau.projectservice.services;
 
 import com.spshpau.projectservice.dto.*;
+import com.spshpau.projectservice.dto.enums.AnalyticsGranularity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.util.List;
 import java.util.UUID;
 
 public interface BudgetService {
@@ -12,10 +17,16 @@ public interface BudgetService {
     BudgetResponseDto updateProjectBudget(UUID projectId, BudgetUpdateDto budgetDto, UUID currentUserId);
     void deleteProjectBudget(UUID projectId, UUID currentUserId);
     RemainingBudgetDto getRemainingProjectBudget(UUID projectId, UUID currentUserId);
+    BudgetAnalyticsDto getBudgetAnalytics(UUID projectId, UUID currentUserId, AnalyticsGranularity granularity,
+                                          LocalDate from, LocalDate to);
 
     ExpenseResponseDto addExpenseToBudget(UUID projectId, ExpenseCreateDto expenseDto, UUID currentUserId);
+    ExpenseImportResultDto importExpenses(UUID projectId, List<ExpenseCreateDto> expenses, UUID currentUserId);
+    ExpenseImportResultDto importExpensesCsv(UUID projectId, InputStream csv, UUID currentUserId) throws IOException;
     ExpenseResponseDto getExpenseById(UUID projectId, UUID expenseId, UUID currentUserId);
     Page<ExpenseResponseDto> getExpensesForProjectBudget(UUID projectId, UUID currentUserId, Pageable pageable);
+
+    CursorPage<ExpenseResponseDto> scrollExpensesForProjectBudget(UUID projectId, UUID currentUserId, String cursor, int size);
     ExpenseResponseDto updateExpense(UUID projectId, UUID expenseId, ExpenseUpdateDto expenseDto, UUID currentUserId);
     void removeExpense(UUID projectId, UUID expenseId, UUID currentUserId);
 }
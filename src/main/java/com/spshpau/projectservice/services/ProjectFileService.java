@@ -1,26 +1,43 @@
 package com.spshpau.projectservice.services;
 
+import com.spshpau.projectservice.dto.CursorPage;
 import com.spshpau.projectservice.dto.FileDownloadDto;
+import com.spshpau.projectservice.dto.PresignedUploadRequestDto;
+import com.spshpau.projectservice.dto.PresignedUploadResponseDto;
 import com.spshpau.projectservice.dto.ProjectFileResponseDto;
+import com.spshpau.projectservice.dto.UploadCompletionDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 public interface ProjectFileService {
-    ProjectFileResponseDto uploadProjectFile(UUID projectId, UUID uploaderUserId, String uploaderUsername,
-                                             MultipartFile file, String description) throws IOException;
+    CompletableFuture<ProjectFileResponseDto> uploadProjectFile(UUID projectId, UUID uploaderUserId, String uploaderUsername,
+                                                                MultipartFile file, String description) throws IOException;
 
-    List<ProjectFileResponseDto> getProjectFiles(UUID projectId, UUID currentUserId);
+    ProjectFileResponseDto uploadProjectFileStream(UUID projectId, UUID uploaderUserId, String originalFilename,
+                                                   String contentType, long contentLength, InputStream content,
+                                                   String description) throws IOException;
+
+    PresignedUploadResponseDto createPresignedUpload(UUID projectId, UUID uploaderUserId, PresignedUploadRequestDto uploadRequest);
+
+    ProjectFileResponseDto completePresignedUpload(UUID projectId, UUID uploaderUserId, UploadCompletionDto completion);
+
+    List<ProjectFileResponseDto> getProjectFiles(UUID projectId, UUID currentUserId, boolean includeDownloadUrls);
 
     ProjectFileResponseDto getProjectFileMetadata(UUID projectId, UUID fileId, UUID currentUserId);
 
     FileDownloadDto generateDownloadUrl(UUID projectId, UUID fileId, UUID currentUserId);
 
-    void deleteProjectFile(UUID projectId, UUID fileId, UUID currentUserId);
+    CompletableFuture<Void> deleteProjectFile(UUID projectId, UUID fileId, UUID currentUserId);
 
     List<ProjectFileResponseDto> getAllVersionsOfFile(UUID projectId, String originalFilename, UUID currentUserId);
+
+    CursorPage<ProjectFileResponseDto> scrollVersionsOfFile(UUID projectId, String originalFilename, UUID currentUserId,
+                                                            String cursor, int size);
 }
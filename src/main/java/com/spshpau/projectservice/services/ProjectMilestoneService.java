@@ -1,5 +1,6 @@
 package com.spshpau.projectservice.services;
 
+import com.spshpau.projectservice.dto.CursorPage;
 import com.spshpau.projectservice.dto.MilestoneCreateDto;
 import com.spshpau.projectservice.dto.MilestoneResponseDto;
 import com.spshpau.projectservice.dto.MilestoneUpdateDto;
@@ -12,6 +13,8 @@ public interface ProjectMilestoneService {
     MilestoneResponseDto createMilestone(UUID projectId, MilestoneCreateDto milestoneDto, UUID currentUserId);
     MilestoneResponseDto getMilestoneById(UUID projectId, UUID milestoneId, UUID currentUserId);
     Page<MilestoneResponseDto> getMilestonesForProject(UUID projectId, UUID currentUserId, Pageable pageable);
+
+    CursorPage<MilestoneResponseDto> scrollMilestonesForProject(UUID projectId, UUID currentUserId, String cursor, int size);
     MilestoneResponseDto updateMilestone(UUID projectId, UUID milestoneId, MilestoneUpdateDto milestoneDto, UUID currentUserId);
     void deleteMilestone(UUID projectId, UUID milestoneId, UUID currentUserId);
 }
@@ -0,0 +1,9 @@
+package com.spshpau.projectservice.services;
+
+import com.spshpau.projectservice.dto.ProjectOverviewDto;
+
+import java.util.UUID;
+
+public interface ProjectOverviewService {
+    ProjectOverviewDto getProjectOverview(UUID projectId, UUID currentUserId, int milestoneLimit, int fileLimit);
+}
@@ -1,5 +1,7 @@
 package com.spshpau.projectservice.services;
 
+import com.spshpau.projectservice.dto.CursorPage;
+import com.spshpau.projectservice.dto.DeadlineItemDto;
 import com.spshpau.projectservice.dto.ProjectCreateDto;
 import com.spshpau.projectservice.dto.ProjectResponseDto;
 import com.spshpau.projectservice.dto.ProjectUpdateDto;
@@ -7,6 +9,7 @@ import com.spshpau.projectservice.dto.UserSummaryDto;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.Instant;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
@@ -16,6 +19,7 @@ public interface ProjectService {
     ProjectResponseDto getProjectById(UUID projectId, UUID currentUserId);
     Page<ProjectResponseDto> getOwnedProjects(UUID ownerId, Pageable pageable);
     Page<ProjectResponseDto> getCollaboratingProjects(UUID collaboratorId, Pageable pageable);
+    CursorPage<DeadlineItemDto> scrollUpcomingDeadlines(UUID currentUserId, Instant from, Instant to, String cursor, int size);
     UserSummaryDto getProjectOwner(UUID projectId);
     Page<UserSummaryDto> getProjectCollaborators(UUID projectId, Pageable pageable);
     ProjectResponseDto updateProject(UUID projectId, ProjectUpdateDto projectDto, UUID ownerId);
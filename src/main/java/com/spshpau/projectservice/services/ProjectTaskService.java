@@ -1,17 +1,32 @@
 package com.spshpau.projectservice.services;
 
+import com.spshpau.projectservice.dto.CursorPage;
 import com.spshpau.projectservice.dto.TaskCreateDto;
 import com.spshpau.projectservice.dto.TaskResponseDto;
+import com.spshpau.projectservice.dto.TaskStatusCountsDto;
 import com.spshpau.projectservice.dto.TaskUpdateDto;
+import com.spshpau.projectservice.model.enums.TaskStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 public interface ProjectTaskService {
     TaskResponseDto createTask(UUID projectId, TaskCreateDto taskDto, UUID currentUserId);
+    List<TaskResponseDto> createTasks(UUID projectId, List<TaskCreateDto> taskDtos, UUID currentUserId);
+    List<TaskResponseDto> updateTaskStatuses(UUID projectId, List<UUID> taskIds, TaskStatus status, UUID currentUserId);
+    List<TaskResponseDto> assignTasks(UUID projectId, List<UUID> taskIds, UUID assigneeUserId, UUID currentUserId);
     TaskResponseDto getTaskById(UUID projectId, UUID taskId, UUID currentUserId);
     Page<TaskResponseDto> getTasksForProject(UUID projectId, UUID currentUserId, Pageable pageable);
+
+    CursorPage<TaskResponseDto> scrollTasksForProject(UUID projectId, UUID currentUserId, String cursor, int size);
+    TaskStatusCountsDto getTaskStatusCounts(UUID projectId, UUID currentUserId);
+    TaskStatusCountsDto getAssignedTaskStatusCounts(UUID currentUserId);
+    CursorPage<TaskResponseDto> scrollAssignedTasks(UUID currentUserId, Set<TaskStatus> statuses, Instant dueFrom, Instant dueTo,
+                                                    String cursor, int size);
     TaskResponseDto updateTask(UUID projectId, UUID taskId, TaskUpdateDto taskDto, UUID currentUserId);
     void deleteTask(UUID projectId, UUID taskId, UUID currentUserId);
     TaskResponseDto assignUserToTask(UUID projectId, UUID taskId, UUID assigneeUserId, UUID currentUserId);
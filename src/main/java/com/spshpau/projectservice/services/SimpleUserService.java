@@ -3,10 +3,13 @@ package com.spshpau.projectservice.services;
 import com.spshpau.projectservice.dto.UserSummaryDto;
 import com.spshpau.projectservice.model.SimpleUser;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 public interface SimpleUserService {
     SimpleUser findUserById(UUID userId);
+    List<SimpleUser> findProjectMembers(UUID projectId, Collection<UUID> userIds);
     SimpleUser getOrCreateSimpleUser(UserSummaryDto userSummaryDto);
     SimpleUser getOrCreateSimpleUser(UUID userId, String username, String firstName, String lastName, String location);
 }
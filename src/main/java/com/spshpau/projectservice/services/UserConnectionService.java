@@ -0,0 +1,10 @@
+package com.spshpau.projectservice.services;
+
+import com.spshpau.projectservice.dto.UserSummaryDto;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public interface UserConnectionService {
+    Optional<UserSummaryDto> findConnection(UUID ownerId, UUID userId, String bearerToken);
+}
@@ -0,0 +1,11 @@
+package com.spshpau.projectservice.services.exceptions;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConcurrentBudgetModificationException extends RuntimeException {
+    public ConcurrentBudgetModificationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,86 @@
+package com.spshpau.projectservice.services.filestorage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.core.metrics.CoreMetric;
+import software.amazon.awssdk.metrics.MetricCollection;
+import software.amazon.awssdk.metrics.MetricPublisher;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Records S3 call latency, retries and transferred bytes in Micrometer, tagged by S3 operation.
+ * The synchronous client publishes to it as an SDK {@link MetricPublisher}. The CRT client does not
+ * support metric publishers, so its transfers are recorded by {@link S3FileStorageService} directly.
+ */
+@Component
+public class S3ClientMetrics implements MetricPublisher {
+
+    public static final String UPLOAD = "upload";
+    public static final String DOWNLOAD = "download";
+
+    private final MeterRegistry meterRegistry;
+
+    public S3ClientMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void publish(MetricCollection metricCollection) {
+        String operation = first(metricCollection.metricValues(CoreMetric.OPERATION_NAME), "unknown");
+        Duration duration = first(metricCollection.metricValues(CoreMetric.API_CALL_DURATION), null);
+        boolean successful = first(metricCollection.metricValues(CoreMetric.API_CALL_SUCCESSFUL), false);
+        int retries = first(metricCollection.metricValues(CoreMetric.RETRY_COUNT), 0);
+
+        if (duration != null) {
+            recordCall(operation, duration, successful);
+        }
+        if (retries > 0) {
+            Counter.builder("s3.client.retries")
+                    .description("Retried attempts of S3 calls")
+                    .tag("operation", operation)
+                    .register(meterRegistry)
+                    .increment(retries);
+        }
+    }
+
+    /**
+     * Records the duration of one S3 call, including its retries.
+     */
+    public void recordCall(String operation, Duration duration, boolean successful) {
+        Timer.builder("s3.client.calls")
+                .description("Duration of S3 calls, including retries")
+                .tag("operation", operation)
+                .tag("outcome", successful ? "success" : "failure")
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(duration);
+    }
+
+    /**
+     * Records the payload bytes of a successful S3 call.
+     * @param direction {@link #UPLOAD} or {@link #DOWNLOAD}.
+     */
+    public void recordBytes(String operation, String direction, long bytes) {
+        DistributionSummary.builder("s3.client.transferred")
+                .description("Payload bytes sent to or received from S3")
+                .baseUnit("bytes")
+                .tag("operation", operation)
+                .tag("direction", direction)
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    @Override
+    public void close() {
+        // Meters belong to the registry
+    }
+
+    private static <T> T first(List<T> values, T defaultValue) {
+        return values.isEmpty() || values.get(0) == null ? defaultValue : values.get(0);
+    }
+}
@@ -1,24 +1,43 @@
 package com.spshpau.projectservice.services.filestorage;
 
+import com.spshpau.projectservice.config.CacheConfig;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.*;
 import software.amazon.awssdk.services.s3.presigner.S3Presigner;
 import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
 import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PutObjectPresignRequest;
+import software.amazon.awssdk.transfer.s3.S3TransferManager;
+import software.amazon.awssdk.transfer.s3.model.CompletedUpload;
+import software.amazon.awssdk.transfer.s3.model.UploadRequest;
 
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
 import java.net.URL;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
 
 @Service
 @RequiredArgsConstructor
@@ -26,7 +45,17 @@ import java.util.Map;
 public class S3FileStorageService {
 
     private final S3Client s3Client;
+    private final S3AsyncClient s3AsyncClient;
+    private final S3TransferManager s3TransferManager;
     private final S3Presigner s3Presigner;
+    private final ExecutorService s3UploadExecutor;
+    private final ExecutorService s3TransferExecutor;
+    private final CacheManager cacheManager;
+    private final S3ClientMetrics s3ClientMetrics;
+
+    // S3 requires every part except the last one to be at least 5 MB
+    private static final int MIN_PART_SIZE_BYTES = 5 * 1024 * 1024;
+    private static final long PART_RETRY_BACKOFF_MILLIS = 200;
 
     @Value("${aws.s3.bucket-name}")
     private String bucketName;
@@ -34,14 +63,27 @@ public class S3FileStorageService {
     @Value("${aws.s3.presigned-url-duration-minutes}")
     private long presignedUrlDurationMinutes;
 
+    @Value("${aws.s3.multipart.threshold-bytes:8388608}")
+    private long multipartThresholdBytes;
+
+    @Value("${aws.s3.multipart.part-size-bytes:8388608}")
+    private int partSizeBytes;
+
+    @Value("${aws.s3.multipart.max-concurrency:4}")
+    private int maxConcurrentParts;
+
+    @Value("${aws.s3.multipart.max-attempts:3}")
+    private int maxPartAttempts;
+
     /**
-     * Uploads a file to S3.
+     * Uploads a file to S3 through the transfer manager without holding the calling thread.
+     * The CRT client splits files above its threshold into parts and uploads them in parallel.
      * @param key The key under which to store the new object.
      * @param file The file to upload.
-     * @return The version ID of the uploaded object.
-     * @throws IOException If an I/O error occurs.
+     * @return A future completed with the version ID of the uploaded object, on a CRT or transfer executor thread.
+     * @throws IOException If the file content cannot be opened.
      */
-    public String uploadFile(String key, MultipartFile file) throws IOException {
+    public CompletableFuture<String> uploadFileAsync(String key, MultipartFile file) throws IOException {
         PutObjectRequest putObjectRequest = PutObjectRequest.builder()
                 .bucket(bucketName)
                 .key(key)
@@ -50,19 +92,218 @@ public class S3FileStorageService {
                 .metadata(Map.of("originalFilename", file.getOriginalFilename()))
                 .build();
 
-        PutObjectResponse response = s3Client.putObject(putObjectRequest,
-                RequestBody.fromInputStream(file.getInputStream(), file.getSize()));
-        log.info("File {} uploaded to S3 with key {}. VersionId: {}", file.getOriginalFilename(), key, response.versionId());
-        return response.versionId();
+        InputStream inputStream = file.getInputStream();
+        long startNanos = System.nanoTime();
+        CompletableFuture<CompletedUpload> upload;
+        try {
+            upload = s3TransferManager.upload(UploadRequest.builder()
+                    .putObjectRequest(putObjectRequest)
+                    .requestBody(AsyncRequestBody.fromInputStream(inputStream, file.getSize(), s3TransferExecutor))
+                    .build()).completionFuture();
+        } catch (RuntimeException e) {
+            closeQuietly(inputStream);
+            throw e;
+        }
+        return upload
+                .whenComplete((completedUpload, e) -> {
+                    closeQuietly(inputStream);
+                    recordAsyncCall("PutObject", startNanos, e == null);
+                })
+                .thenApply(completedUpload -> {
+                    s3ClientMetrics.recordBytes("PutObject", S3ClientMetrics.UPLOAD, file.getSize());
+                    String versionId = completedUpload.response().versionId();
+                    log.info("File {} uploaded to S3 with key {}. VersionId: {}", file.getOriginalFilename(), key, versionId);
+                    return versionId;
+                });
+    }
+
+    private void recordAsyncCall(String operation, long startNanos, boolean successful) {
+        s3ClientMetrics.recordCall(operation, Duration.ofNanos(System.nanoTime() - startNanos), successful);
+    }
+
+    private static void closeQuietly(InputStream inputStream) {
+        try {
+            inputStream.close();
+        } catch (IOException e) {
+            log.debug("Failed to close upload stream: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Uploads the content of a stream to S3 without knowing its length up front.
+     * Up to the multipart threshold is buffered first; content that fits is stored with a plain put.
+     * Anything larger goes through a multipart upload whose parts are uploaded in parallel,
+     * with at most {@code max-concurrency} parts held in memory at a time.
+     * @param key The key under which to store the new object.
+     * @param contentType The content type of the object.
+     * @param originalFilename The original filename, stored as object metadata.
+     * @param inputStream The content to upload. It is read until exhausted but not closed.
+     * @return The version ID of the uploaded object.
+     * @throws IOException If reading from the stream fails.
+     */
+    public String uploadFileStream(String key, String contentType, String originalFilename, InputStream inputStream) throws IOException {
+        // Buffers grow with the bytes read, so small files do not allocate the whole threshold up front
+        byte[] head = inputStream.readNBytes((int) Math.min(multipartThresholdBytes + 1, Integer.MAX_VALUE - 8));
+        int read = head.length;
+
+        if (read <= multipartThresholdBytes) {
+            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .contentType(contentType)
+                    .contentLength((long) read)
+                    .metadata(Map.of("originalFilename", originalFilename))
+                    .build();
+            PutObjectResponse response = s3Client.putObject(putObjectRequest,
+                    RequestBody.fromInputStream(new ByteArrayInputStream(head, 0, read), read));
+            s3ClientMetrics.recordBytes("PutObject", S3ClientMetrics.UPLOAD, read);
+            log.info("File {} streamed to S3 with key {} in a single request. VersionId: {}", originalFilename, key, response.versionId());
+            return response.versionId();
+        }
+
+        return uploadMultipart(key, contentType, originalFilename,
+                new SequenceInputStream(new ByteArrayInputStream(head, 0, read), inputStream));
+    }
+
+    private String uploadMultipart(String key, String contentType, String originalFilename, InputStream inputStream) throws IOException {
+        int partSize = Math.max(MIN_PART_SIZE_BYTES, partSizeBytes);
+        CreateMultipartUploadResponse multipartUpload = s3Client.createMultipartUpload(CreateMultipartUploadRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .metadata(Map.of("originalFilename", originalFilename))
+                .build());
+        String uploadId = multipartUpload.uploadId();
+
+        // Each permit stands for one part buffer, which bounds both memory and in-flight requests
+        Semaphore partPermits = new Semaphore(Math.max(1, maxConcurrentParts));
+        List<CompletableFuture<CompletedPart>> partUploads = new ArrayList<>();
+        try {
+            int partNumber = 1;
+            while (true) {
+                partPermits.acquire();
+                byte[] buffer = new byte[partSize];
+                int read = readFully(inputStream, buffer);
+                if (read == 0 || partUploads.stream().anyMatch(CompletableFuture::isCompletedExceptionally)) {
+                    partPermits.release();
+                    break;
+                }
+                int currentPartNumber = partNumber++;
+                partUploads.add(CompletableFuture
+                        .supplyAsync(() -> uploadPartWithRetry(key, uploadId, currentPartNumber, buffer, read), s3UploadExecutor)
+                        .whenComplete((part, e) -> partPermits.release()));
+                if (read < partSize) {
+                    break;
+                }
+            }
+
+            List<CompletedPart> completedParts = new ArrayList<>(partUploads.size());
+            for (CompletableFuture<CompletedPart> partUpload : partUploads) {
+                completedParts.add(partUpload.join());
+            }
+
+            CompleteMultipartUploadResponse response = s3Client.completeMultipartUpload(CompleteMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .multipartUpload(CompletedMultipartUpload.builder().parts(completedParts).build())
+                    .build());
+            log.info("File {} uploaded to S3 with key {} in {} parts. VersionId: {}", originalFilename, key, completedParts.size(), response.versionId());
+            return response.versionId();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abortMultipartUpload(key, uploadId, partUploads);
+            throw new IOException("Interrupted while uploading " + key + " to S3.", e);
+        } catch (CompletionException e) {
+            abortMultipartUpload(key, uploadId, partUploads);
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        } catch (IOException | RuntimeException e) {
+            abortMultipartUpload(key, uploadId, partUploads);
+            throw e;
+        }
+    }
+
+    private CompletedPart uploadPartWithRetry(String key, String uploadId, int partNumber, byte[] buffer, int length) {
+        int attempts = Math.max(1, maxPartAttempts);
+        for (int attempt = 1; ; attempt++) {
+            try {
+                UploadPartResponse partResponse = s3Client.uploadPart(UploadPartRequest.builder()
+                                .bucket(bucketName)
+                                .key(key)
+                                .uploadId(uploadId)
+                                .partNumber(partNumber)
+                                .contentLength((long) length)
+                                .build(),
+                        RequestBody.fromInputStream(new ByteArrayInputStream(buffer, 0, length), length));
+                s3ClientMetrics.recordBytes("UploadPart", S3ClientMetrics.UPLOAD, length);
+                log.debug("Uploaded part {} ({} bytes) of key {}", partNumber, length, key);
+                return CompletedPart.builder().partNumber(partNumber).eTag(partResponse.eTag()).build();
+            } catch (SdkException e) {
+                if (attempt >= attempts || !isRetryable(e)) {
+                    throw e;
+                }
+                log.warn("Upload of part {} of key {} failed (attempt {}/{}): {}", partNumber, key, attempt, attempts, e.getMessage());
+                try {
+                    Thread.sleep(PART_RETRY_BACKOFF_MILLIS * attempt);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private static boolean isRetryable(SdkException e) {
+        // Client errors such as a missing upload or bad credentials will not succeed on a second attempt
+        return !(e instanceof S3Exception s3Exception)
+                || s3Exception.statusCode() >= 500
+                || s3Exception.statusCode() == 429;
+    }
+
+    private void abortMultipartUpload(String key, String uploadId, List<CompletableFuture<CompletedPart>> partUploads) {
+        // Parts still in flight would otherwise be stored after the abort
+        CompletableFuture.allOf(partUploads.toArray(CompletableFuture[]::new))
+                .handle((ignored, e) -> null)
+                .join();
+        try {
+            s3Client.abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                    .bucket(bucketName)
+                    .key(key)
+                    .uploadId(uploadId)
+                    .build());
+            log.warn("Aborted multipart upload {} for key {}", uploadId, key);
+        } catch (SdkException e) {
+            log.error("Failed to abort multipart upload {} for key {}: {}", uploadId, key, e.getMessage(), e);
+        }
+    }
+
+    private static int readFully(InputStream inputStream, byte[] buffer) throws IOException {
+        int total = 0;
+        while (total < buffer.length) {
+            int n = inputStream.read(buffer, total, buffer.length - total);
+            if (n == -1) {
+                break;
+            }
+            total += n;
+        }
+        return total;
     }
 
     /**
      * Generates a pre-signed URL for downloading an object version.
+     * Object versions never change, so URLs are cached per key and version for half their lifetime.
      * @param key The S3 object key.
      * @param versionId The specific version ID of the object.
      * @return The pre-signed URL.
      */
     public URL generatePresignedDownloadUrl(String key, String versionId) {
+        return presignedDownloadUrlCache().get(new SimpleKey(key, versionId), () -> presignDownloadUrl(key, versionId));
+    }
+
+    private URL presignDownloadUrl(String key, String versionId) {
         GetObjectRequest getObjectRequest = GetObjectRequest.builder()
                 .bucket(bucketName)
                 .key(key)
@@ -75,10 +316,76 @@ public class S3FileStorageService {
                 .build();
 
         PresignedGetObjectRequest presignedRequest = s3Presigner.presignGetObject(getObjectPresignRequest);
-        log.info("Generated presigned URL for key {}, versionId {}", key, versionId);
+        log.debug("Generated presigned URL for key {}, versionId {}", key, versionId);
         return presignedRequest.url();
     }
 
+    private Cache presignedDownloadUrlCache() {
+        return cacheManager.getCache(CacheConfig.PRESIGNED_DOWNLOAD_URL_CACHE);
+    }
+
+    /**
+     * Generates a pre-signed URL for uploading an object directly to S3 with a single PUT.
+     * Content type, content length and the original filename metadata are part of the signature,
+     * so the client has to send exactly the headers returned in {@link PresignedPutObjectRequest#signedHeaders()}.
+     * @param key The key under which the object will be stored.
+     * @param contentType The content type the client will upload.
+     * @param contentLength The exact size in bytes the client will upload.
+     * @param originalFilename The original filename, stored as object metadata.
+     * @return The pre-signed request.
+     */
+    public PresignedPutObjectRequest generatePresignedUploadUrl(String key, String contentType, long contentLength, String originalFilename) {
+        PutObjectRequest putObjectRequest = PutObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .contentType(contentType)
+                .contentLength(contentLength)
+                .metadata(Map.of("originalFilename", originalFilename))
+                .build();
+
+        PutObjectPresignRequest putObjectPresignRequest = PutObjectPresignRequest.builder()
+                .signatureDuration(Duration.ofMinutes(presignedUrlDurationMinutes))
+                .putObjectRequest(putObjectRequest)
+                .build();
+
+        PresignedPutObjectRequest presignedRequest = s3Presigner.presignPutObject(putObjectPresignRequest);
+        log.info("Generated presigned upload URL for key {}", key);
+        return presignedRequest;
+    }
+
+    /**
+     * Fetches the metadata of an object version without downloading it.
+     * @param key The S3 object key.
+     * @param versionId The version ID, or null for the latest version.
+     * @return The HEAD response.
+     * @throws S3Exception With status 404 if the object (version) does not exist.
+     */
+    public HeadObjectResponse headObject(String key, String versionId) {
+        return s3Client.headObject(HeadObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .versionId(versionId)
+                .build());
+    }
+
+    /**
+     * Reads the first bytes of an object version with a ranged GET.
+     * @param key The S3 object key.
+     * @param versionId The version ID of the object.
+     * @param length The number of bytes to read.
+     * @return Up to {@code length} bytes from the start of the object.
+     */
+    public byte[] readObjectPrefix(String key, String versionId, int length) {
+        byte[] prefix = s3Client.getObjectAsBytes(GetObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .versionId(versionId)
+                .range("bytes=0-" + (length - 1))
+                .build()).asByteArray();
+        s3ClientMetrics.recordBytes("GetObject", S3ClientMetrics.DOWNLOAD, prefix.length);
+        return prefix;
+    }
+
     /**
      * Deletes a specific version of an object from S3.
      * @param key The S3 object key.
@@ -102,9 +409,31 @@ public class S3FileStorageService {
                 .versionId(versionId)
                 .build();
         s3Client.deleteObject(deleteObjectRequest);
+        presignedDownloadUrlCache().evict(new SimpleKey(key, versionId));
         log.info("Deleted version {} of file {} from S3.", versionId, key);
     }
 
+    /**
+     * Deletes a specific version of an object from S3 with the async client.
+     * @param key The S3 object key.
+     * @param versionId The specific version ID to delete.
+     * @return A future completed once S3 has acknowledged the deletion.
+     */
+    public CompletableFuture<Void> deleteFileVersionAsync(String key, String versionId) {
+        DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
+                .bucket(bucketName)
+                .key(key)
+                .versionId(versionId)
+                .build();
+        long startNanos = System.nanoTime();
+        return s3AsyncClient.deleteObject(deleteObjectRequest)
+                .whenComplete((response, e) -> recordAsyncCall("DeleteObject", startNanos, e == null))
+                .thenAccept(response -> {
+                    presignedDownloadUrlCache().evict(new SimpleKey(key, versionId));
+                    log.info("Deleted version {} of file {} from S3.", versionId, key);
+                });
+    }
+
     /**
      * Lists all versions of a specific object in S3.
      * @param objectKey The key of the object.
@@ -1,6 +1,7 @@
 package com.spshpau.projectservice.services.impl;
 
 import com.spshpau.projectservice.dto.*;
+import com.spshpau.projectservice.dto.enums.AnalyticsGranularity;
 import com.spshpau.projectservice.services.exceptions.*;
 import com.spshpau.projectservice.model.BudgetExpense;
 import com.spshpau.projectservice.model.Project;
@@ -10,29 +11,81 @@ import com.spshpau.projectservice.repositories.ProjectBudgetrepository;
 import com.spshpau.projectservice.repositories.ProjectRepository;
 import com.spshpau.projectservice.services.BudgetService;
 import com.spshpau.projectservice.services.ProjectService;
+import com.spshpau.projectservice.services.money.MoneyAmounts;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TimeZone;
 import java.util.UUID;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class BudgetServiceImpl implements BudgetService {
+    private static final int MAX_ANALYTICS_PERIODS = 1000;
+
     private final ProjectBudgetrepository projectBudgetRepository;
     private final BudgetExpenseRepository budgetExpenseRepository;
     private final ProjectRepository projectRepository;
     private final ProjectService projectService;
+    private final Validator validator;
+
+    @Value("${budget.import.max-rows:5000}")
+    private int maxImportRows;
 
 
-    private float calculateSpentAmount(UUID budgetId) {
-        log.debug("Calculating spent amount for budget ID: {}", budgetId);
-        return budgetExpenseRepository.sumExpensesByBudgetId(budgetId).orElse(0f);
+    /**
+     * Applies an expense change to the budget's running total and flushes it with the expense write,
+     * so a concurrent write to the same budget is rejected instead of overwriting the total.
+     */
+    private void applySpentAmountChange(ProjectBudget budget, BigDecimal delta) {
+        budget.setSpentAmount(budget.getSpentAmount().add(delta));
+        saveAndFlushBudget(budget);
+    }
+
+    private ProjectBudget saveAndFlushBudget(ProjectBudget budget) {
+        try {
+            return projectBudgetRepository.saveAndFlush(budget);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.warn("Concurrent modification of budget {} detected", budget.getId());
+            throw new ConcurrentBudgetModificationException("Budget for project ID " + budget.getId() + " was modified concurrently. Please retry.", e);
+        }
+    }
+
+    /**
+     * Rounds the total and every expense to the scale of the budget's new currency and recalculates
+     * the spent amount from the rounded expenses, so the total still matches their sum.
+     */
+    private void rescaleToCurrency(ProjectBudget budget) {
+        String currency = budget.getCurrency();
+        budget.setTotalAmount(MoneyAmounts.rescale(budget.getTotalAmount(), currency));
+        // One statement for all expenses; they are never loaded into the persistence context
+        int expenses = budgetExpenseRepository.roundAmountsByBudgetId(budget.getId(), MoneyAmounts.scaleOf(currency));
+        BigDecimal spentAmount = budgetExpenseRepository.sumExpensesByBudgetId(budget.getId()).orElse(BigDecimal.ZERO);
+        budget.setSpentAmount(MoneyAmounts.rescale(spentAmount, currency));
+        log.debug("Rounded {} expenses of budget {} to the scale of {}", expenses, budget.getId(), currency);
     }
 
     @Override
@@ -54,7 +107,7 @@ public class BudgetServiceImpl implements BudgetService {
         ProjectBudget budget = new ProjectBudget();
         budget.setProject(project);
         budget.setCurrency(budgetDto.getCurrency());
-        budget.setTotalAmount(budgetDto.getTotalAmount());
+        budget.setTotalAmount(MoneyAmounts.normalize(budgetDto.getTotalAmount(), budgetDto.getCurrency()));
 
         project.setBudget(budget);
 
@@ -66,7 +119,7 @@ public class BudgetServiceImpl implements BudgetService {
             throw new IllegalStateException("Budget was not persisted correctly or its ID was not set. Project ID: " + projectId);
         }
 
-        return BudgetResponseDto.fromEntity(persistedBudget, 0f);
+        return BudgetResponseDto.fromEntity(persistedBudget, BigDecimal.ZERO);
     }
 
     @Override
@@ -79,7 +132,7 @@ public class BudgetServiceImpl implements BudgetService {
                     log.warn("Budget not found for project ID: {} by user {}", projectId, currentUserId);
                     return new BudgetNotFoundException("Budget not found for project ID: " + projectId);
                 });
-        float spentAmount = calculateSpentAmount(budget.getId());
+        BigDecimal spentAmount = budget.getSpentAmount();
         log.info("Budget retrieved for project {} by user {}. Spent amount: {}", projectId, currentUserId, spentAmount);
         return BudgetResponseDto.fromEntity(budget, spentAmount);
     }
@@ -102,23 +155,24 @@ public class BudgetServiceImpl implements BudgetService {
         if (budgetDto.getCurrency() != null && !budgetDto.getCurrency().equals(budget.getCurrency())) {
             log.debug("Updating currency for budget {} from {} to {}", projectId, budget.getCurrency(), budgetDto.getCurrency());
             budget.setCurrency(budgetDto.getCurrency());
+            rescaleToCurrency(budget);
             updated = true;
         }
-        if (budgetDto.getTotalAmount() != null && !budgetDto.getTotalAmount().equals(budget.getTotalAmount())) {
+        if (budgetDto.getTotalAmount() != null && budgetDto.getTotalAmount().compareTo(budget.getTotalAmount()) != 0) {
             log.debug("Updating total amount for budget {} from {} to {}", projectId, budget.getTotalAmount(), budgetDto.getTotalAmount());
-            budget.setTotalAmount(budgetDto.getTotalAmount());
+            budget.setTotalAmount(MoneyAmounts.normalize(budgetDto.getTotalAmount(), budget.getCurrency()));
             updated = true;
         }
 
         ProjectBudget updatedBudget = budget;
         if (updated) {
-            updatedBudget = projectBudgetRepository.save(budget);
+            updatedBudget = saveAndFlushBudget(budget);
             log.info("Budget updated for project {} by user {}", projectId, currentUserId);
         } else {
             log.info("No changes detected for budget {} during update attempt by user {}", projectId, currentUserId);
         }
 
-        float spentAmount = calculateSpentAmount(updatedBudget.getId());
+        BigDecimal spentAmount = updatedBudget.getSpentAmount();
         return BudgetResponseDto.fromEntity(updatedBudget, spentAmount);
     }
 
@@ -157,13 +211,68 @@ public class BudgetServiceImpl implements BudgetService {
                     log.warn("Budget not found for project ID: {} by user {} when getting remaining budget.", projectId, currentUserId);
                     return new BudgetNotFoundException("Budget not found for project ID: " + projectId);
                 });
-        float spentAmount = calculateSpentAmount(budget.getId());
-        RemainingBudgetDto remaining = new RemainingBudgetDto(budget.getTotalAmount(), spentAmount, budget.getTotalAmount() - spentAmount, budget.getCurrency());
+        BigDecimal spentAmount = budget.getSpentAmount();
+        RemainingBudgetDto remaining = new RemainingBudgetDto(budget.getTotalAmount(), spentAmount, budget.getTotalAmount().subtract(spentAmount), budget.getCurrency());
         log.info("Remaining budget for project {} retrieved by user {}: Total={}, Spent={}, Remaining={}, Currency={}",
                 projectId, currentUserId, remaining.getTotalAmount(), remaining.getSpentAmount(), remaining.getRemainingAmount(), remaining.getCurrency());
         return remaining;
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public BudgetAnalyticsDto getBudgetAnalytics(UUID projectId, UUID currentUserId, AnalyticsGranularity granularity,
+                                                 LocalDate from, LocalDate to) {
+        log.info("User {} requesting {} budget analytics for project {} from {} to {}", currentUserId, granularity, projectId, from, to);
+        projectService.verifyUserIsProjectMember(projectId, currentUserId);
+        ProjectBudget budget = projectBudgetRepository.findById(projectId)
+                .orElseThrow(() -> {
+                    log.warn("Budget not found for project ID: {} by user {} when getting analytics.", projectId, currentUserId);
+                    return new BudgetNotFoundException("Budget not found for project ID: " + projectId);
+                });
+        LocalDate end = to != null ? to : LocalDate.now(ZoneOffset.UTC);
+        LocalDate start = from != null ? from : end.minusYears(1).plusDays(1);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("Start date " + start + " is after end date " + end + ".");
+        }
+        if (granularity.periodsBetween(start, end) > MAX_ANALYTICS_PERIODS) {
+            throw new IllegalArgumentException("Range from " + start + " to " + end + " has more than " + MAX_ANALYTICS_PERIODS
+                    + " periods at " + granularity + " granularity. Use a shorter range or a coarser granularity.");
+        }
+
+        // Aggregation runs in the database; only one row per period with expenses comes back.
+        // Days are UTC days, matching the UTC start of day that imported expense dates are stored at
+        Date rangeStart = Timestamp.from(start.atStartOfDay(ZoneOffset.UTC).toInstant());
+        Date rangeEnd = Timestamp.from(end.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        BigDecimal spentBefore = budgetExpenseRepository.sumExpensesByBudgetIdBefore(projectId, rangeStart).orElse(BigDecimal.ZERO);
+        Map<LocalDate, BudgetExpenseRepository.SpendBucket> bucketsByPeriod = new HashMap<>();
+        for (BudgetExpenseRepository.SpendBucket bucket : budgetExpenseRepository.sumExpensesByPeriod(
+                projectId, granularity.getDateTruncUnit(), TimeZone.getDefault().getID(), rangeStart, rangeEnd)) {
+            bucketsByPeriod.put(bucket.getPeriodStart().toLocalDateTime().toLocalDate(), bucket);
+        }
+
+        List<SpendBucketDto> buckets = new ArrayList<>();
+        BigDecimal cumulative = spentBefore;
+        for (LocalDate period = granularity.periodStart(start); !period.isAfter(end); period = granularity.nextPeriodStart(period)) {
+            BudgetExpenseRepository.SpendBucket bucket = bucketsByPeriod.get(period);
+            BigDecimal spent = bucket != null ? bucket.getSpentAmount() : BigDecimal.ZERO;
+            cumulative = cumulative.add(spent);
+            buckets.add(new SpendBucketDto(period, spent, bucket != null ? bucket.getExpenseCount() : 0L,
+                    cumulative, budget.getTotalAmount().subtract(cumulative)));
+        }
+
+        return BudgetAnalyticsDto.builder()
+                .projectId(projectId)
+                .currency(budget.getCurrency())
+                .totalAmount(budget.getTotalAmount())
+                .granularity(granularity)
+                .from(start)
+                .to(end)
+                .spentBeforeRange(spentBefore)
+                .spentInRange(cumulative.subtract(spentBefore))
+                .buckets(buckets)
+                .build();
+    }
+
     @Override
     @Transactional
     public ExpenseResponseDto addExpenseToBudget(UUID projectId, ExpenseCreateDto expenseDto, UUID currentUserId) {
@@ -177,15 +286,101 @@ public class BudgetServiceImpl implements BudgetService {
 
         BudgetExpense expense = new BudgetExpense();
         expense.setBudget(budget);
-        expense.setAmount(expenseDto.getAmount());
+        expense.setAmount(MoneyAmounts.normalize(expenseDto.getAmount(), budget.getCurrency()));
         expense.setDate(expenseDto.getDate() != null ? expenseDto.getDate() : new Date());
         expense.setComment(expenseDto.getComment());
 
         BudgetExpense savedExpense = budgetExpenseRepository.save(expense);
+        applySpentAmountChange(budget, savedExpense.getAmount());
         log.info("Expense {} added to budget for project {} by user {}", savedExpense.getId(), projectId, currentUserId);
         return ExpenseResponseDto.fromEntity(savedExpense);
     }
 
+    @Override
+    @Transactional
+    public ExpenseImportResultDto importExpenses(UUID projectId, List<ExpenseCreateDto> expenses, UUID currentUserId) {
+        log.info("User {} attempting to import {} expenses to budget for project {}", currentUserId, expenses.size(), projectId);
+        if (expenses.size() > maxImportRows) {
+            throw new IllegalArgumentException("At most " + maxImportRows + " expenses can be imported at once.");
+        }
+        ProjectBudget budget = findBudgetForImport(projectId, currentUserId);
+        return importRows(budget, expenses, new ArrayList<>(), currentUserId);
+    }
+
+    @Override
+    @Transactional
+    public ExpenseImportResultDto importExpensesCsv(UUID projectId, InputStream csv, UUID currentUserId) throws IOException {
+        log.info("User {} attempting to import expenses from CSV to budget for project {}", currentUserId, projectId);
+        // Authorize before reading the body, so a rejected request does not parse thousands of rows
+        ProjectBudget budget = findBudgetForImport(projectId, currentUserId);
+        List<ExpenseImportErrorDto> errors = new ArrayList<>();
+        List<ExpenseCreateDto> expenses = ExpenseCsvParser.parse(csv, maxImportRows, errors);
+        return importRows(budget, expenses, errors, currentUserId);
+    }
+
+    private ProjectBudget findBudgetForImport(UUID projectId, UUID currentUserId) {
+        projectService.verifyUserIsProjectMember(projectId, currentUserId);
+        return projectBudgetRepository.findById(projectId)
+                .orElseThrow(() -> {
+                    log.warn("Budget not found for project ID: {} by user {} when importing expenses.", projectId, currentUserId);
+                    return new BudgetNotFoundException("Budget not found for project ID: " + projectId + ". Cannot import expenses.");
+                });
+    }
+
+    /**
+     * Validates every row and inserts all of them, or none if any row is invalid, so a corrected file can simply be resubmitted.
+     * The inserts are sent in JDBC batches and the budget's spent amount is updated once for the whole import.
+     */
+    private ExpenseImportResultDto importRows(ProjectBudget budget, List<ExpenseCreateDto> rows,
+                                              List<ExpenseImportErrorDto> errors, UUID currentUserId) {
+        List<BudgetExpense> expenses = new ArrayList<>(rows.size());
+        BigDecimal total = BigDecimal.ZERO;
+        for (int i = 0; i < rows.size(); i++) {
+            ExpenseCreateDto row = rows.get(i);
+            int rowNumber = i + 1;
+            if (row == null) {
+                // CSV rows that could not be read are already reported by the parser
+                if (errors.stream().noneMatch(error -> error.getRow() == rowNumber)) {
+                    errors.add(new ExpenseImportErrorDto(rowNumber, "Row is empty."));
+                }
+                continue;
+            }
+            String violations = validator.validate(row).stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+            if (!violations.isEmpty()) {
+                errors.add(new ExpenseImportErrorDto(rowNumber, violations));
+                continue;
+            }
+            BigDecimal amount;
+            try {
+                amount = MoneyAmounts.normalize(row.getAmount(), budget.getCurrency());
+            } catch (IllegalArgumentException e) {
+                errors.add(new ExpenseImportErrorDto(rowNumber, e.getMessage()));
+                continue;
+            }
+            BudgetExpense expense = new BudgetExpense();
+            expense.setBudget(budget);
+            expense.setAmount(amount);
+            expense.setDate(row.getDate());
+            expense.setComment(row.getComment());
+            expenses.add(expense);
+            total = total.add(amount);
+        }
+
+        if (!errors.isEmpty()) {
+            errors.sort(Comparator.comparingInt(ExpenseImportErrorDto::getRow));
+            log.warn("Expense import for budget {} by user {} rejected: {} of {} rows invalid", budget.getId(), currentUserId, errors.size(), rows.size());
+            return ExpenseImportResultDto.builder().importedCount(0).importedAmount(BigDecimal.ZERO).errors(errors).build();
+        }
+
+        budgetExpenseRepository.saveAll(expenses);
+        applySpentAmountChange(budget, total);
+        log.info("Imported {} expenses totalling {} to budget {} by user {}", expenses.size(), total, budget.getId(), currentUserId);
+        return ExpenseImportResultDto.builder().importedCount(expenses.size()).importedAmount(total).errors(List.of()).build();
+    }
+
     @Override
     @Transactional(readOnly = true)
     public ExpenseResponseDto getExpenseById(UUID projectId, UUID expenseId, UUID currentUserId) {
@@ -220,14 +415,35 @@ public class BudgetServiceImpl implements BudgetService {
 
 
     @Override
-    @Transactional
-    public ExpenseResponseDto updateExpense(UUID projectId, UUID expenseId, ExpenseUpdateDto expenseDto, UUID currentUserId) {
-        log.info("User {} attempting to update expense {} for budget of project {}", currentUserId, expenseId, projectId);
+    @Transactional(readOnly = true)
+    public CursorPage<ExpenseResponseDto> scrollExpensesForProjectBudget(UUID projectId, UUID currentUserId, String cursor, int size) {
+        log.info("User {} scrolling expenses for budget of project {} with size {}", currentUserId, projectId, size);
         projectService.verifyUserIsProjectMember(projectId, currentUserId);
         if (!projectBudgetRepository.existsById(projectId)) {
-            log.warn("Budget not found for project ID: {} by user {} when updating expense {}", projectId, currentUserId, expenseId);
+            log.warn("Budget not found for project ID: {} by user {} when listing expenses", projectId, currentUserId);
             throw new BudgetNotFoundException("Budget not found for project ID: " + projectId);
         }
+        int limit = CursorPage.clampSize(size);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Pageable rowLimit = PageRequest.of(0, limit + 1);
+        List<BudgetExpense> rows = after == null
+                ? budgetExpenseRepository.findByBudgetIdOrderByDateAscIdAsc(projectId, rowLimit)
+                : budgetExpenseRepository.findExpensesAfter(projectId, Date.from(after.requireSortKey()), after.getId(), rowLimit);
+        return CursorPage.fromRows(rows, limit,
+                expense -> new KeysetCursor(expense.getDate().toInstant(), expense.getId()),
+                ExpenseResponseDto::fromEntity);
+    }
+
+    @Override
+    @Transactional
+    public ExpenseResponseDto updateExpense(UUID projectId, UUID expenseId, ExpenseUpdateDto expenseDto, UUID currentUserId) {
+        log.info("User {} attempting to update expense {} for budget of project {}", currentUserId, expenseId, projectId);
+        projectService.verifyUserIsProjectMember(projectId, currentUserId);
+        ProjectBudget budget = projectBudgetRepository.findById(projectId)
+                .orElseThrow(() -> {
+                    log.warn("Budget not found for project ID: {} by user {} when updating expense {}", projectId, currentUserId, expenseId);
+                    return new BudgetNotFoundException("Budget not found for project ID: " + projectId);
+                });
         BudgetExpense expense = budgetExpenseRepository.findByIdAndBudgetId(expenseId, projectId)
                 .orElseThrow(() -> {
                     log.warn("Expense with ID {} not found for budget {} (project) by user {} during update", expenseId, projectId, currentUserId);
@@ -235,8 +451,11 @@ public class BudgetServiceImpl implements BudgetService {
                 });
 
         boolean updated = false;
-        if (expenseDto.getAmount() != null && !expenseDto.getAmount().equals(expense.getAmount())) {
-            expense.setAmount(expenseDto.getAmount());
+        BigDecimal amountDelta = BigDecimal.ZERO;
+        if (expenseDto.getAmount() != null && expenseDto.getAmount().compareTo(expense.getAmount()) != 0) {
+            BigDecimal newAmount = MoneyAmounts.normalize(expenseDto.getAmount(), budget.getCurrency());
+            amountDelta = newAmount.subtract(expense.getAmount());
+            expense.setAmount(newAmount);
             updated = true;
         }
         if (expenseDto.getDate() != null && !expenseDto.getDate().equals(expense.getDate())) {
@@ -251,6 +470,9 @@ public class BudgetServiceImpl implements BudgetService {
         BudgetExpense updatedExpense = expense;
         if(updated){
             updatedExpense = budgetExpenseRepository.save(expense);
+            if (amountDelta.signum() != 0) {
+                applySpentAmountChange(budget, amountDelta);
+            }
             log.info("Expense {} updated for budget of project {} by user {}", expenseId, projectId, currentUserId);
         } else {
             log.info("No changes detected for expense {} during update attempt by user {}", expenseId, currentUserId);
@@ -263,16 +485,18 @@ public class BudgetServiceImpl implements BudgetService {
     public void removeExpense(UUID projectId, UUID expenseId, UUID currentUserId) {
         log.info("User {} attempting to remove expense {} from budget of project {}", currentUserId, expenseId, projectId);
         projectService.verifyUserIsProjectMember(projectId, currentUserId);
-        if (!projectBudgetRepository.existsById(projectId)) {
-            log.warn("Budget not found for project ID: {} by user {} when removing expense {}", projectId, currentUserId, expenseId);
-            throw new BudgetNotFoundException("Budget not found for project ID: " + projectId);
-        }
+        ProjectBudget budget = projectBudgetRepository.findById(projectId)
+                .orElseThrow(() -> {
+                    log.warn("Budget not found for project ID: {} by user {} when removing expense {}", projectId, currentUserId, expenseId);
+                    return new BudgetNotFoundException("Budget not found for project ID: " + projectId);
+                });
         BudgetExpense expense = budgetExpenseRepository.findByIdAndBudgetId(expenseId, projectId)
                 .orElseThrow(() -> {
                     log.warn("Expense with ID {} not found for budget {} (project) by user {} during removal", expenseId, projectId, currentUserId);
                     return new ExpenseNotFoundException("Expense with ID " + expenseId + " not found for budget " + projectId);
                 });
         budgetExpenseRepository.delete(expense);
+        applySpentAmountChange(budget, expense.getAmount().negate());
         log.info("Expense {} removed from budget of project {} by user {}", expenseId, projectId, currentUserId);
     }
 }
\ No newline at end of file
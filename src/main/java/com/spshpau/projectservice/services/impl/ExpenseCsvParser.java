@@ -0,0 +1,132 @@
+package com.spshpau.projectservice.services.impl;
+
+import com.spshpau.projectservice.dto.ExpenseCreateDto;
+import com.spshpau.projectservice.dto.ExpenseImportErrorDto;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Reads expenses from CSV with a header row naming the {@code amount}, {@code date} and {@code comment} columns.
+ * Dates are ISO dates (2024-05-10) or instants (2024-05-10T12:00:00Z). Fields may be quoted, with "" for a quote.
+ * Rows that cannot be read are reported in {@code errors} and kept as {@code null}, so row numbers stay aligned.
+ */
+final class ExpenseCsvParser {
+
+    private ExpenseCsvParser() {
+    }
+
+    static List<ExpenseCreateDto> parse(InputStream csv, int maxRows, List<ExpenseImportErrorDto> errors) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(csv, StandardCharsets.UTF_8));
+        String headerLine = reader.readLine();
+        if (headerLine == null) {
+            throw new IllegalArgumentException("CSV is empty; expected a header row with amount, date and comment.");
+        }
+        List<String> header = splitLine(stripBom(headerLine)).stream()
+                .map(name -> name.trim().toLowerCase(Locale.ROOT))
+                .toList();
+        int amountIndex = header.indexOf("amount");
+        int dateIndex = header.indexOf("date");
+        int commentIndex = header.indexOf("comment");
+        if (amountIndex < 0 || dateIndex < 0 || commentIndex < 0) {
+            throw new IllegalArgumentException("CSV header must contain amount, date and comment columns. Found: " + headerLine);
+        }
+
+        List<ExpenseCreateDto> rows = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            if (rows.size() == maxRows) {
+                throw new IllegalArgumentException("At most " + maxRows + " expenses can be imported at once.");
+            }
+            int rowNumber = rows.size() + 1;
+            try {
+                List<String> fields = splitLine(line);
+                ExpenseCreateDto dto = new ExpenseCreateDto();
+                dto.setAmount(new BigDecimal(field(fields, amountIndex).trim()));
+                dto.setDate(parseDate(field(fields, dateIndex).trim()));
+                dto.setComment(field(fields, commentIndex));
+                rows.add(dto);
+            } catch (NumberFormatException e) {
+                errors.add(new ExpenseImportErrorDto(rowNumber, "Amount is not a number."));
+                rows.add(null);
+            } catch (IllegalArgumentException e) {
+                errors.add(new ExpenseImportErrorDto(rowNumber, e.getMessage()));
+                rows.add(null);
+            }
+        }
+        return rows;
+    }
+
+    private static String field(List<String> fields, int index) {
+        if (index >= fields.size()) {
+            throw new IllegalArgumentException("Row has " + fields.size() + " columns, expected at least " + (index + 1) + ".");
+        }
+        return fields.get(index);
+    }
+
+    private static Date parseDate(String value) {
+        if (value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Date.from(LocalDate.parse(value).atStartOfDay(ZoneOffset.UTC).toInstant());
+        } catch (DateTimeParseException e) {
+            try {
+                return Date.from(Instant.parse(value));
+            } catch (DateTimeParseException e2) {
+                throw new IllegalArgumentException("Date '" + value + "' is not an ISO date such as 2024-05-10.");
+            }
+        }
+    }
+
+    private static String stripBom(String line) {
+        return line.startsWith("\uFEFF") ? line.substring(1) : line;
+    }
+
+    // Quoted fields spanning several lines are not supported; spreadsheet exports of expenses do not need them
+    private static List<String> splitLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Row has an unterminated quoted field.");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
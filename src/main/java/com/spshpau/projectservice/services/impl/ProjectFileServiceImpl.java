@@ -1,8 +1,14 @@
 package com.spshpau.projectservice.services.impl;
 
+import com.spshpau.projectservice.dto.CursorPage;
 import com.spshpau.projectservice.dto.FileDownloadDto;
+import com.spshpau.projectservice.dto.KeysetCursor;
+import com.spshpau.projectservice.dto.PresignedUploadRequestDto;
+import com.spshpau.projectservice.dto.PresignedUploadResponseDto;
 import com.spshpau.projectservice.dto.ProjectFileResponseDto;
+import com.spshpau.projectservice.dto.UploadCompletionDto;
 import com.spshpau.projectservice.services.filestorage.S3FileStorageService;
+import com.spshpau.projectservice.services.filestorage.SizeLimitedInputStream;
 import com.spshpau.projectservice.model.Project;
 import com.spshpau.projectservice.model.ProjectFile;
 import com.spshpau.projectservice.model.SimpleUser;
@@ -17,16 +23,31 @@ import com.spshpau.projectservice.services.exceptions.UnauthorizedOperationExcep
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
 import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
+import java.sql.Timestamp;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.stream.Collectors;
 
 @Service
@@ -39,6 +60,8 @@ public class ProjectFileServiceImpl implements ProjectFileService {
     private final SimpleUserService simpleUserService;
     private final ProjectService projectService;
     private final S3FileStorageService s3FileStorageService;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor s3TransferExecutor;
 
     @Value("${aws.s3.bucket-name}")
     private String bucketName;
@@ -49,11 +72,12 @@ public class ProjectFileServiceImpl implements ProjectFileService {
             "application/pdf" // pdf
     );
     private static final long MAX_FILE_SIZE_BYTES = 50 * 1024 * 1024;
+    private static final int FILE_SIGNATURE_LENGTH = 12;
 
+    // Not transactional: no database connection or thread is held while the file is sent to S3
     @Override
-    @Transactional
-    public ProjectFileResponseDto uploadProjectFile(UUID projectId, UUID uploaderUserId, String uploaderUsername,
-                                                    MultipartFile file, String description) throws IOException {
+    public CompletableFuture<ProjectFileResponseDto> uploadProjectFile(UUID projectId, UUID uploaderUserId, String uploaderUsername,
+                                                                       MultipartFile file, String description) throws IOException {
         projectService.verifyUserIsProjectMember(projectId, uploaderUserId);
 
         // Validate file
@@ -67,44 +91,268 @@ public class ProjectFileServiceImpl implements ProjectFileService {
             throw new IllegalArgumentException("File size exceeds the limit of " + (MAX_FILE_SIZE_BYTES / (1024 * 1024)) + "MB.");
         }
 
-        Project project = projectRepository.findById(projectId)
-                .orElseThrow(() -> new ProjectNotFoundException("Project not found: " + projectId));
+        if (!projectRepository.existsById(projectId)) {
+            throw new ProjectNotFoundException("Project not found: " + projectId);
+        }
         SimpleUser uploader = simpleUserService.findUserById(uploaderUserId);
 
         String originalFilename = StringUtils.cleanPath(file.getOriginalFilename());
         String s3Key = "projects/" + projectId + "/files/" + originalFilename;
 
-        String s3VersionId = s3FileStorageService.uploadFile(s3Key, file);
+        // The metadata is saved off the CRT event loop, which must not block on the database
+        return s3FileStorageService.uploadFileAsync(s3Key, file)
+                .thenApplyAsync(s3VersionId -> {
+                    if (s3VersionId == null) {
+                        log.warn("S3 Version ID was null for file {} in bucket {}. Check bucket versioning.", s3Key, bucketName);
+                        throw new IllegalStateException("Failed to get S3 version ID for uploaded file.");
+                    }
+                    return saveProjectFileMetadata(projectId, uploader, originalFilename, s3Key, s3VersionId,
+                            file.getContentType(), file.getSize(), description);
+                }, s3TransferExecutor);
+    }
+
+    @Override
+    public ProjectFileResponseDto uploadProjectFileStream(UUID projectId, UUID uploaderUserId, String originalFilename,
+                                                          String contentType, long contentLength, InputStream content,
+                                                          String description) throws IOException {
+        projectService.verifyUserIsProjectMember(projectId, uploaderUserId);
+
+        // Validate what is known before the first byte is read
+        if (!StringUtils.hasText(originalFilename)) {
+            throw new IllegalArgumentException("A filename is required.");
+        }
+        String mediaType = toAllowedMediaType(contentType);
+        if (contentLength > MAX_FILE_SIZE_BYTES) {
+            throw new IllegalArgumentException("File size exceeds the limit of " + (MAX_FILE_SIZE_BYTES / (1024 * 1024)) + "MB.");
+        }
+
+        if (!projectRepository.existsById(projectId)) {
+            throw new ProjectNotFoundException("Project not found: " + projectId);
+        }
+        SimpleUser uploader = simpleUserService.findUserById(uploaderUserId);
+
+        // Size and signature are checked while the body flows into S3
+        SizeLimitedInputStream limitedContent = new SizeLimitedInputStream(content, MAX_FILE_SIZE_BYTES);
+        BufferedInputStream bufferedContent = new BufferedInputStream(limitedContent);
+        verifyFileSignature(bufferedContent, mediaType);
+
+        String cleanFilename = StringUtils.cleanPath(originalFilename);
+        String s3Key = "projects/" + projectId + "/files/" + cleanFilename;
+
+        String s3VersionId = s3FileStorageService.uploadFileStream(s3Key, mediaType, cleanFilename, bufferedContent);
         if (s3VersionId == null) {
             log.warn("S3 Version ID was null for file {} in bucket {}. Check bucket versioning.", s3Key, bucketName);
             throw new IOException("Failed to get S3 version ID for uploaded file.");
         }
 
+        return saveProjectFileMetadata(projectId, uploader, cleanFilename, s3Key, s3VersionId,
+                mediaType, limitedContent.getBytesRead(), description);
+    }
+
+    @Override
+    public PresignedUploadResponseDto createPresignedUpload(UUID projectId, UUID uploaderUserId, PresignedUploadRequestDto uploadRequest) {
+        projectService.verifyUserIsProjectMember(projectId, uploaderUserId);
+
+        String mediaType = toAllowedMediaType(uploadRequest.getContentType());
+        if (uploadRequest.getFileSize() > MAX_FILE_SIZE_BYTES) {
+            throw new IllegalArgumentException("File size exceeds the limit of " + (MAX_FILE_SIZE_BYTES / (1024 * 1024)) + "MB.");
+        }
+
+        String cleanFilename = StringUtils.cleanPath(uploadRequest.getOriginalFilename());
+        String s3Key = "projects/" + projectId + "/files/" + cleanFilename;
 
-        ProjectFile projectFile = new ProjectFile();
-        projectFile.setProject(project);
-        projectFile.setUploadedBy(uploader);
-        projectFile.setOriginalFilename(originalFilename);
-        projectFile.setS3ObjectKey(s3Key);
-        projectFile.setS3VersionId(s3VersionId);
-        projectFile.setContentType(file.getContentType());
-        projectFile.setFileSize(file.getSize());
-        projectFile.setDescription(description);
+        PresignedPutObjectRequest presignedRequest = s3FileStorageService.generatePresignedUploadUrl(
+                s3Key, mediaType, uploadRequest.getFileSize(), cleanFilename);
 
-        ProjectFile savedFile = projectFileRepository.save(projectFile);
-        log.info("Saved ProjectFile metadata for {} (ID: {}), S3 Key: {}, S3 Version: {}",
-                originalFilename, savedFile.getId(), s3Key, s3VersionId);
+        Map<String, String> requiredHeaders = new LinkedHashMap<>();
+        presignedRequest.signedHeaders().forEach((name, values) -> {
+            // The host header is set by the HTTP client from the URL
+            if (!"host".equalsIgnoreCase(name)) {
+                requiredHeaders.put(name, String.join(",", values));
+            }
+        });
 
-        return ProjectFileResponseDto.fromEntity(savedFile);
+        return PresignedUploadResponseDto.builder()
+                .uploadUrl(presignedRequest.url().toString())
+                .httpMethod(presignedRequest.httpRequest().method().name())
+                .requiredHeaders(requiredHeaders)
+                .originalFilename(cleanFilename)
+                .s3ObjectKey(s3Key)
+                .expiresAt(presignedRequest.expiration())
+                .build();
+    }
+
+    @Override
+    public ProjectFileResponseDto completePresignedUpload(UUID projectId, UUID uploaderUserId, UploadCompletionDto completion) {
+        projectService.verifyUserIsProjectMember(projectId, uploaderUserId);
+
+        // The key is rebuilt from the path, so a client can only complete uploads into its own project
+        String cleanFilename = StringUtils.cleanPath(completion.getOriginalFilename());
+        String s3Key = "projects/" + projectId + "/files/" + cleanFilename;
+
+        HeadObjectResponse head;
+        try {
+            head = s3FileStorageService.headObject(s3Key, completion.getS3VersionId());
+        } catch (S3Exception e) {
+            if (e.statusCode() == 404) {
+                throw new FileNotFoundException("No uploaded object found for file " + cleanFilename + " in project " + projectId);
+            }
+            throw e;
+        }
+        String s3VersionId = head.versionId();
+        if (s3VersionId == null) {
+            log.warn("S3 Version ID was null for file {} in bucket {}. Check bucket versioning.", s3Key, bucketName);
+            throw new IllegalStateException("Failed to get S3 version ID for uploaded file.");
+        }
+
+        // Completing the same upload twice returns the metadata recorded the first time
+        Optional<ProjectFile> existingFile = projectFileRepository.findByS3ObjectKeyAndS3VersionId(s3Key, s3VersionId);
+        if (existingFile.isPresent()) {
+            log.info("Upload of {} (S3 version {}) was already completed as ProjectFile {}", s3Key, s3VersionId, existingFile.get().getId());
+            return ProjectFileResponseDto.fromEntity(existingFile.get());
+        }
+
+        String mediaType;
+        try {
+            mediaType = toAllowedMediaType(head.contentType());
+            if (head.contentLength() == null || head.contentLength() <= 0 || head.contentLength() > MAX_FILE_SIZE_BYTES) {
+                throw new IllegalArgumentException("File size must be between 1 byte and " + (MAX_FILE_SIZE_BYTES / (1024 * 1024)) + "MB.");
+            }
+            byte[] header = s3FileStorageService.readObjectPrefix(s3Key, s3VersionId, FILE_SIGNATURE_LENGTH);
+            verifyFileSignature(new BufferedInputStream(new ByteArrayInputStream(header)), mediaType);
+        } catch (IllegalArgumentException | IOException e) {
+            log.warn("Uploaded object {} (S3 version {}) failed validation and will be deleted: {}", s3Key, s3VersionId, e.getMessage());
+            s3FileStorageService.deleteFileVersion(s3Key, s3VersionId);
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+
+        if (!projectRepository.existsById(projectId)) {
+            throw new ProjectNotFoundException("Project not found: " + projectId);
+        }
+        SimpleUser uploader = simpleUserService.findUserById(uploaderUserId);
+
+        // No compensation here: the client may retry the completion, so the object is kept
+        return persistProjectFile(projectId, uploader, cleanFilename, s3Key, s3VersionId,
+                mediaType, head.contentLength(), completion.getDescription());
+    }
+
+    private static boolean hasS3Location(ProjectFile projectFile) {
+        if (projectFile.getS3ObjectKey() == null || projectFile.getS3VersionId() == null) {
+            log.error("File metadata for ID {} is missing S3 key or version ID.", projectFile.getId());
+            return false;
+        }
+        return true;
+    }
+
+    private static String toAllowedMediaType(String contentType) {
+        String mediaType = contentType != null ? contentType.split(";")[0].trim().toLowerCase() : null;
+        if (!ALLOWED_CONTENT_TYPES.contains(mediaType)) {
+            throw new IllegalArgumentException("Invalid file type. Allowed types are MP3, WAV, PDF. Received: " + contentType);
+        }
+        return mediaType;
+    }
+
+    /**
+     * Persists the metadata of an object that is already stored in S3, in a transaction of its own.
+     * If the transaction fails, the S3 version is deleted again so it does not linger without a row.
+     */
+    private ProjectFileResponseDto saveProjectFileMetadata(UUID projectId, SimpleUser uploader, String originalFilename,
+                                                           String s3Key, String s3VersionId, String contentType,
+                                                           long fileSize, String description) {
+        try {
+            return persistProjectFile(projectId, uploader, originalFilename, s3Key, s3VersionId,
+                    contentType, fileSize, description);
+        } catch (RuntimeException e) {
+            log.error("Saving metadata for S3 key {}, version {} failed. Deleting the uploaded version.", s3Key, s3VersionId, e);
+            try {
+                s3FileStorageService.deleteFileVersion(s3Key, s3VersionId);
+            } catch (Exception deleteException) {
+                log.error("Failed to delete orphaned S3 version {} of key {}: {}", s3VersionId, s3Key, deleteException.getMessage(), deleteException);
+                e.addSuppressed(deleteException);
+            }
+            throw e;
+        }
+    }
+
+    private ProjectFileResponseDto persistProjectFile(UUID projectId, SimpleUser uploader, String originalFilename,
+                                                      String s3Key, String s3VersionId, String contentType,
+                                                      long fileSize, String description) {
+        return transactionTemplate.execute(status -> {
+            // Writes to a project's files are serialized, so exactly one version of each file stays flagged as latest
+            Project project = projectRepository.findByIdForUpdate(projectId)
+                    .orElseThrow(() -> new ProjectNotFoundException("Project not found: " + projectId));
+            projectFileRepository.clearLatestVersion(projectId, originalFilename);
+
+            ProjectFile projectFile = new ProjectFile();
+            projectFile.setProject(project);
+            projectFile.setUploadedBy(uploader);
+            projectFile.setOriginalFilename(originalFilename);
+            projectFile.setS3ObjectKey(s3Key);
+            projectFile.setS3VersionId(s3VersionId);
+            projectFile.setContentType(contentType);
+            projectFile.setFileSize(fileSize);
+            projectFile.setDescription(description);
+            projectFile.setLatestVersion(true);
+
+            ProjectFile savedFile = projectFileRepository.save(projectFile);
+            log.info("Saved ProjectFile metadata for {} (ID: {}), S3 Key: {}, S3 Version: {}",
+                    originalFilename, savedFile.getId(), s3Key, s3VersionId);
+
+            return ProjectFileResponseDto.fromEntity(savedFile);
+        });
+    }
+
+    /**
+     * Peeks at the first bytes of the content and checks that they match the declared content type.
+     * The stream is reset afterwards, so nothing is consumed.
+     */
+    private static void verifyFileSignature(BufferedInputStream content, String mediaType) throws IOException {
+        byte[] header = new byte[FILE_SIGNATURE_LENGTH];
+        content.mark(FILE_SIGNATURE_LENGTH);
+        int read = content.readNBytes(header, 0, FILE_SIGNATURE_LENGTH);
+        content.reset();
+
+        if (read == 0) {
+            throw new IllegalArgumentException("Cannot upload an empty file.");
+        }
+        boolean valid = switch (mediaType) {
+            case "application/pdf" -> startsWith(header, read, 0, "%PDF-");
+            case "audio/wav", "audio/x-wav" -> startsWith(header, read, 0, "RIFF") && startsWith(header, read, 8, "WAVE");
+            case "audio/mpeg" -> startsWith(header, read, 0, "ID3")
+                    || (read >= 2 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xE0) == 0xE0);
+            default -> false;
+        };
+        if (!valid) {
+            throw new IllegalArgumentException("File content does not match the declared type " + mediaType + ".");
+        }
+    }
+
+    private static boolean startsWith(byte[] header, int length, int offset, String signature) {
+        if (length < offset + signature.length()) {
+            return false;
+        }
+        for (int i = 0; i < signature.length(); i++) {
+            if (header[offset + i] != (byte) signature.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ProjectFileResponseDto> getProjectFiles(UUID projectId, UUID currentUserId) {
+    public List<ProjectFileResponseDto> getProjectFiles(UUID projectId, UUID currentUserId, boolean includeDownloadUrls) {
         projectService.verifyUserIsProjectMember(projectId, currentUserId);
         List<ProjectFile> latestFiles = projectFileRepository.findLatestVersionOfEachFileByProjectId(projectId);
         return latestFiles.stream()
-                .map(ProjectFileResponseDto::fromEntity)
+                .map(projectFile -> {
+                    ProjectFileResponseDto dto = ProjectFileResponseDto.fromEntity(projectFile);
+                    if (includeDownloadUrls && hasS3Location(projectFile)) {
+                        dto.setDownloadUrl(s3FileStorageService.generatePresignedDownloadUrl(
+                                projectFile.getS3ObjectKey(), projectFile.getS3VersionId()).toString());
+                    }
+                    return dto;
+                })
                 .collect(Collectors.toList());
     }
 
@@ -138,23 +386,45 @@ public class ProjectFileServiceImpl implements ProjectFileService {
         return new FileDownloadDto(presignedUrl.toString(), projectFile.getOriginalFilename());
     }
 
+    // The S3 version is deleted first, so a failed deletion leaves the metadata untouched
     @Override
-    @Transactional
-    public void deleteProjectFile(UUID projectId, UUID fileId, UUID currentUserId) {
+    public CompletableFuture<Void> deleteProjectFile(UUID projectId, UUID fileId, UUID currentUserId) {
         projectService.verifyUserIsProjectMember(projectId, currentUserId);
         ProjectFile projectFile = projectFileRepository.findByIdAndProjectId(fileId, projectId)
                 .orElseThrow(() -> new FileNotFoundException("File metadata not found with ID: " + fileId + " for project " + projectId));
 
-        try {
-            s3FileStorageService.deleteFileVersion(projectFile.getS3ObjectKey(), projectFile.getS3VersionId());
-        } catch (Exception e) {
-            log.error("Failed to delete file version from S3: Key {}, VersionId {}. Error: {}",
-                    projectFile.getS3ObjectKey(), projectFile.getS3VersionId(), e.getMessage(), e);
-            throw new IllegalStateException("Deletion failed!");
-        }
+        return s3FileStorageService.deleteFileVersionAsync(projectFile.getS3ObjectKey(), projectFile.getS3VersionId())
+                .exceptionally(e -> {
+                    log.error("Failed to delete file version from S3: Key {}, VersionId {}. Error: {}",
+                            projectFile.getS3ObjectKey(), projectFile.getS3VersionId(), e.getMessage(), e);
+                    throw new IllegalStateException("Deletion failed!");
+                })
+                .thenRunAsync(() -> deleteProjectFileMetadata(projectId, fileId), s3TransferExecutor);
+    }
 
-        projectFileRepository.delete(projectFile);
-        log.info("Deleted ProjectFile metadata for ID: {}, Original Filename: {}", fileId, projectFile.getOriginalFilename());
+    private void deleteProjectFileMetadata(UUID projectId, UUID fileId) {
+        transactionTemplate.execute(status -> {
+            // Serialized with uploads, so promoting the previous version cannot race with a new latest version
+            projectRepository.findByIdForUpdate(projectId)
+                    .orElseThrow(() -> new ProjectNotFoundException("Project not found: " + projectId));
+            Optional<ProjectFile> deletedFile = projectFileRepository.findByIdAndProjectId(fileId, projectId);
+            if (deletedFile.isEmpty()) {
+                log.info("ProjectFile {} was already deleted by a concurrent request", fileId);
+                return null;
+            }
+            ProjectFile projectFile = deletedFile.get();
+            projectFileRepository.delete(projectFile);
+            log.info("Deleted ProjectFile metadata for ID: {}, Original Filename: {}", fileId, projectFile.getOriginalFilename());
+
+            if (projectFile.isLatestVersion()) {
+                projectFileRepository.findFirstByProjectIdAndOriginalFilenameOrderByUploadTimestampDescIdDesc(projectId, projectFile.getOriginalFilename())
+                        .ifPresent(previousVersion -> {
+                            previousVersion.setLatestVersion(true);
+                            log.info("Version {} of {} is now the latest", previousVersion.getId(), previousVersion.getOriginalFilename());
+                        });
+            }
+            return null;
+        });
     }
 
     @Override
@@ -166,4 +436,20 @@ public class ProjectFileServiceImpl implements ProjectFileService {
                 .map(ProjectFileResponseDto::fromEntity)
                 .collect(Collectors.toList());
     }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<ProjectFileResponseDto> scrollVersionsOfFile(UUID projectId, String originalFilename, UUID currentUserId,
+                                                                   String cursor, int size) {
+        projectService.verifyUserIsProjectMember(projectId, currentUserId);
+        int limit = CursorPage.clampSize(size);
+        KeysetCursor before = KeysetCursor.decode(cursor);
+        Pageable rowLimit = PageRequest.of(0, limit + 1);
+        List<ProjectFile> rows = before == null
+                ? projectFileRepository.findByProjectIdAndOriginalFilenameOrderByUploadTimestampDescIdDesc(projectId, originalFilename, rowLimit)
+                : projectFileRepository.findVersionsBefore(projectId, originalFilename, Timestamp.from(before.requireSortKey()), before.getId(), rowLimit);
+        return CursorPage.fromRows(rows, limit,
+                projectFile -> new KeysetCursor(projectFile.getUploadTimestamp().toInstant(), projectFile.getId()),
+                ProjectFileResponseDto::fromEntity);
+    }
 }
@@ -1,5 +1,7 @@
 package com.spshpau.projectservice.services.impl;
 
+import com.spshpau.projectservice.dto.CursorPage;
+import com.spshpau.projectservice.dto.KeysetCursor;
 import com.spshpau.projectservice.dto.MilestoneCreateDto;
 import com.spshpau.projectservice.dto.MilestoneResponseDto;
 import com.spshpau.projectservice.dto.MilestoneUpdateDto;
@@ -15,10 +17,14 @@ import com.spshpau.projectservice.services.ProjectService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -80,6 +86,34 @@ public class ProjectMilestoneServiceImpl implements ProjectMilestoneService {
         return milestonePage.map(MilestoneResponseDto::fromEntity);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<MilestoneResponseDto> scrollMilestonesForProject(UUID projectId, UUID currentUserId, String cursor, int size) {
+        log.info("User {} scrolling milestones for project {} with size {}", currentUserId, projectId, size);
+        projectService.verifyUserIsProjectMember(projectId, currentUserId);
+        int limit = CursorPage.clampSize(size);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+
+        // Milestones with a due date come first; a cursor without a sort key is already past them
+        List<ProjectMilestone> rows = new ArrayList<>();
+        if (after == null) {
+            rows.addAll(projectMilestoneRepository.findByProjectIdAndDueDateIsNotNullOrderByDueDateAscIdAsc(
+                    projectId, PageRequest.of(0, limit + 1)));
+        } else if (after.getSortKey() != null) {
+            rows.addAll(projectMilestoneRepository.findMilestonesWithDueDateAfter(
+                    projectId, Timestamp.from(after.getSortKey()), after.getId(), PageRequest.of(0, limit + 1)));
+        }
+        if (rows.size() <= limit) {
+            UUID afterId = after != null && after.getSortKey() == null ? after.getId() : KeysetCursor.MIN_ID;
+            rows.addAll(projectMilestoneRepository.findMilestonesWithoutDueDateAfter(
+                    projectId, afterId, PageRequest.of(0, limit + 1 - rows.size())));
+        }
+
+        return CursorPage.fromRows(rows, limit,
+                milestone -> new KeysetCursor(milestone.getDueDate() != null ? milestone.getDueDate().toInstant() : null, milestone.getId()),
+                MilestoneResponseDto::fromEntity);
+    }
+
     @Override
     @Transactional
     public MilestoneResponseDto updateMilestone(UUID projectId, UUID milestoneId, MilestoneUpdateDto milestoneDto, UUID currentUserId) {
@@ -0,0 +1,131 @@
+package com.spshpau.projectservice.services.impl;
+
+import com.spshpau.projectservice.dto.MilestoneResponseDto;
+import com.spshpau.projectservice.dto.ProjectFileResponseDto;
+import com.spshpau.projectservice.dto.ProjectOverviewDto;
+import com.spshpau.projectservice.dto.ProjectResponseDto;
+import com.spshpau.projectservice.dto.RemainingBudgetDto;
+import com.spshpau.projectservice.model.enums.TaskStatus;
+import com.spshpau.projectservice.repositories.ProjectBudgetrepository;
+import com.spshpau.projectservice.repositories.ProjectFileRepository;
+import com.spshpau.projectservice.repositories.ProjectMilestoneRepository;
+import com.spshpau.projectservice.repositories.ProjectRepository;
+import com.spshpau.projectservice.repositories.ProjectTaskRepository;
+import com.spshpau.projectservice.services.ProjectOverviewService;
+import com.spshpau.projectservice.services.ProjectService;
+import com.spshpau.projectservice.services.exceptions.ProjectNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+@Service
+@Slf4j
+public class ProjectOverviewServiceImpl implements ProjectOverviewService {
+
+    private static final int MAX_LIMIT = 50;
+
+    private final ProjectRepository projectRepository;
+    private final ProjectTaskRepository projectTaskRepository;
+    private final ProjectMilestoneRepository projectMilestoneRepository;
+    private final ProjectBudgetrepository projectBudgetRepository;
+    private final ProjectFileRepository projectFileRepository;
+    private final ProjectService projectService;
+    private final ExecutorService projectOverviewExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ProjectOverviewServiceImpl(ProjectRepository projectRepository,
+                                      ProjectTaskRepository projectTaskRepository,
+                                      ProjectMilestoneRepository projectMilestoneRepository,
+                                      ProjectBudgetrepository projectBudgetRepository,
+                                      ProjectFileRepository projectFileRepository,
+                                      ProjectService projectService,
+                                      ExecutorService projectOverviewExecutor,
+                                      PlatformTransactionManager transactionManager) {
+        this.projectRepository = projectRepository;
+        this.projectTaskRepository = projectTaskRepository;
+        this.projectMilestoneRepository = projectMilestoneRepository;
+        this.projectBudgetRepository = projectBudgetRepository;
+        this.projectFileRepository = projectFileRepository;
+        this.projectService = projectService;
+        this.projectOverviewExecutor = projectOverviewExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public ProjectOverviewDto getProjectOverview(UUID projectId, UUID currentUserId, int milestoneLimit, int fileLimit) {
+        log.info("User {} requesting overview of project {}", currentUserId, projectId);
+        if (milestoneLimit < 0 || milestoneLimit > MAX_LIMIT || fileLimit < 0 || fileLimit > MAX_LIMIT) {
+            throw new IllegalArgumentException("Milestone and file limits must be between 0 and " + MAX_LIMIT + ".");
+        }
+        projectService.verifyUserIsProjectMember(projectId, currentUserId);
+
+        // The sections are independent, so each runs in its own read-only transaction on a separate connection
+        CompletableFuture<Optional<ProjectResponseDto>> project = readAsync(() ->
+                projectRepository.findWithMembersById(projectId).map(ProjectResponseDto::fromEntity));
+        CompletableFuture<Map<TaskStatus, Long>> taskCounts = readAsync(() -> countTasksByStatus(projectId));
+        CompletableFuture<List<MilestoneResponseDto>> milestones = readAsync(() -> milestoneLimit == 0 ? List.of() :
+                projectMilestoneRepository.findByProjectIdAndDueDateGreaterThanEqualOrderByDueDateAscIdAsc(
+                                projectId, Timestamp.from(Instant.now()), PageRequest.of(0, milestoneLimit))
+                        .stream().map(MilestoneResponseDto::fromEntity).toList());
+        CompletableFuture<Optional<RemainingBudgetDto>> budget = readAsync(() ->
+                projectBudgetRepository.findById(projectId).map(b -> new RemainingBudgetDto(
+                        b.getTotalAmount(), b.getSpentAmount(), b.getTotalAmount().subtract(b.getSpentAmount()), b.getCurrency())));
+        CompletableFuture<List<ProjectFileResponseDto>> files = readAsync(() -> fileLimit == 0 ? List.of() :
+                projectFileRepository.findByProjectIdAndLatestVersionTrueOrderByUploadTimestampDescIdDesc(
+                                projectId, PageRequest.of(0, fileLimit))
+                        .stream().map(ProjectFileResponseDto::fromEntity).toList());
+
+        try {
+            CompletableFuture.allOf(project, taskCounts, milestones, budget, files).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+
+        Map<TaskStatus, Long> counts = taskCounts.join();
+        ProjectOverviewDto overview = ProjectOverviewDto.builder()
+                .project(project.join().orElseThrow(() -> {
+                    log.warn("Project not found with ID: {} while building overview for user {}", projectId, currentUserId);
+                    return new ProjectNotFoundException("Project not found with ID: " + projectId);
+                }))
+                .taskCountsByStatus(counts)
+                .totalTasks(counts.values().stream().mapToLong(Long::longValue).sum())
+                .upcomingMilestones(milestones.join())
+                .budget(budget.join().orElse(null))
+                .latestFiles(files.join())
+                .build();
+        log.info("Overview of project {} built for user {}", projectId, currentUserId);
+        return overview;
+    }
+
+    private Map<TaskStatus, Long> countTasksByStatus(UUID projectId) {
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            counts.put(status, 0L);
+        }
+        projectTaskRepository.countTasksByStatus(projectId)
+                .forEach(statusCount -> counts.put(statusCount.getStatus(), statusCount.getCount()));
+        return counts;
+    }
+
+    private <T> CompletableFuture<T> readAsync(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(() -> readOnlyTransaction.execute(status -> query.get()), projectOverviewExecutor);
+    }
+}
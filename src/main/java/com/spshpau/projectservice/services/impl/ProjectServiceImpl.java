@@ -1,5 +1,9 @@
 package com.spshpau.projectservice.services.impl;
 
+import com.spshpau.projectservice.config.CacheConfig;
+import com.spshpau.projectservice.dto.CursorPage;
+import com.spshpau.projectservice.dto.DeadlineItemDto;
+import com.spshpau.projectservice.dto.KeysetCursor;
 import com.spshpau.projectservice.dto.ProjectCreateDto;
 import com.spshpau.projectservice.dto.ProjectResponseDto;
 import com.spshpau.projectservice.dto.ProjectUpdateDto;
@@ -8,18 +12,24 @@ import com.spshpau.projectservice.repositories.ProjectTaskRepository;
 import com.spshpau.projectservice.services.exceptions.*;
 import com.spshpau.projectservice.model.Project;
 import com.spshpau.projectservice.model.SimpleUser;
-import com.spshpau.projectservice.otherservices.UserClient;
 import com.spshpau.projectservice.repositories.ProjectRepository;
 import com.spshpau.projectservice.services.ProjectService;
 import com.spshpau.projectservice.services.SimpleUserService;
+import com.spshpau.projectservice.services.UserConnectionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
 import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -27,11 +37,35 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 @Slf4j
 public class ProjectServiceImpl implements ProjectService {
+    private static final Duration DEFAULT_DEADLINE_WINDOW = Duration.ofDays(7);
+
     private final ProjectRepository projectRepository;
     private final ProjectTaskRepository projectTaskRepository;
     private final SimpleUserService simpleUserService;
-    private final UserClient userClient;
+    private final UserConnectionService userConnectionService;
+    private final CacheManager cacheManager;
+
+    private Cache membershipCache() {
+        return cacheManager.getCache(CacheConfig.PROJECT_MEMBERSHIP_CACHE);
+    }
+
+    private void fetchCollaborators(Page<Project> projectPage) {
+        if (projectPage.hasContent()) {
+            List<UUID> projectIds = projectPage.getContent().stream()
+                    .map(Project::getId)
+                    .collect(Collectors.toList());
+            projectRepository.fetchCollaboratorsByProjectIds(projectIds);
+        }
+    }
+
+    private void evictMembership(UUID projectId, UUID userId) {
+        log.debug("Evicting cached membership of user {} in project {}", userId, projectId);
+        membershipCache().evict(new SimpleKey(projectId, userId));
+    }
 
+    private void evictAssignedTaskStatusCounts(UUID userId) {
+        cacheManager.getCache(CacheConfig.ASSIGNED_TASK_STATUS_COUNTS_CACHE).evict(userId);
+    }
 
     @Override
     @Transactional
@@ -74,7 +108,8 @@ public class ProjectServiceImpl implements ProjectService {
     @Transactional(readOnly = true)
     public Page<ProjectResponseDto> getOwnedProjects(UUID ownerId, Pageable pageable) {
         log.info("Retrieving projects owned by user ID: {} with pageable: {}", ownerId, pageable);
-        Page<Project> projectPage = projectRepository.findByOwnerId(ownerId, pageable);
+        Page<Project> projectPage = projectRepository.findWithOwnerByOwnerId(ownerId, pageable);
+        fetchCollaborators(projectPage);
         log.info("Found {} projects owned by user ID: {}", projectPage.getTotalElements(), ownerId);
         return projectPage.map(ProjectResponseDto::fromEntity);
     }
@@ -83,11 +118,33 @@ public class ProjectServiceImpl implements ProjectService {
     @Transactional(readOnly = true)
     public Page<ProjectResponseDto> getCollaboratingProjects(UUID collaboratorId, Pageable pageable) {
         log.info("Retrieving projects where user ID: {} is a collaborator, with pageable: {}", collaboratorId, pageable);
-        Page<Project> projectPage = projectRepository.findByCollaboratorsId(collaboratorId, pageable);
+        Page<Project> projectPage = projectRepository.findWithOwnerByCollaboratorId(collaboratorId, pageable);
+        fetchCollaborators(projectPage);
         log.info("Found {} projects where user ID: {} is a collaborator", projectPage.getTotalElements(), collaboratorId);
         return projectPage.map(ProjectResponseDto::fromEntity);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<DeadlineItemDto> scrollUpcomingDeadlines(UUID currentUserId, Instant from, Instant to, String cursor, int size) {
+        Instant windowStart = from != null ? from : Instant.now();
+        Instant windowEnd = to != null ? to : windowStart.plus(DEFAULT_DEADLINE_WINDOW);
+        log.info("User {} scrolling deadlines due from {} to {} with size {}", currentUserId, windowStart, windowEnd, size);
+        if (!windowStart.isBefore(windowEnd)) {
+            throw new IllegalArgumentException("from must be before to.");
+        }
+        int limit = CursorPage.clampSize(size);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Timestamp afterDueDate = Timestamp.from(after != null ? after.requireSortKey() : windowStart);
+        UUID afterId = after != null ? after.getId() : KeysetCursor.MIN_ID;
+
+        List<ProjectRepository.DeadlineRow> rows = projectRepository.findDeadlinesAfter(currentUserId,
+                Timestamp.from(windowStart), Timestamp.from(windowEnd), afterDueDate, afterId, limit + 1);
+        return CursorPage.fromRows(rows, limit,
+                row -> new KeysetCursor(row.getDueDate().toInstant(), row.getId()),
+                DeadlineItemDto::fromRow);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public UserSummaryDto getProjectOwner(UUID projectId) {
@@ -106,28 +163,16 @@ public class ProjectServiceImpl implements ProjectService {
     @Transactional(readOnly = true)
     public Page<UserSummaryDto> getProjectCollaborators(UUID projectId, Pageable pageable) {
         log.info("Retrieving collaborators for project ID: {} with pageable: {}", projectId, pageable);
-        Project project = projectRepository.findById(projectId)
-                .orElseThrow(() -> {
-                    log.warn("Project not found when trying to get collaborators for project ID: {}", projectId);
-                    return new ProjectNotFoundException("Project not found with ID: " + projectId);
-                });
-
-        List<SimpleUser> collaboratorsList = new ArrayList<>(project.getCollaborators());
-        int pageSize = pageable.getPageSize();
-        int currentPage = pageable.getPageNumber();
-        int startItem = currentPage * pageSize;
-        List<UserSummaryDto> dtoList;
-
-        if (collaboratorsList.isEmpty() || startItem >= collaboratorsList.size()) {
-            dtoList = Collections.emptyList();
-        } else {
-            int toIndex = Math.min(startItem + pageSize, collaboratorsList.size());
-            dtoList = collaboratorsList.subList(startItem, toIndex).stream()
-                    .map(UserSummaryDto::fromEntity)
-                    .collect(Collectors.toList());
+        if (!projectRepository.existsById(projectId)) {
+            log.warn("Project not found when trying to get collaborators for project ID: {}", projectId);
+            throw new ProjectNotFoundException("Project not found with ID: " + projectId);
         }
-        log.info("Found {} collaborators for project ID {}", dtoList.size(), projectId);
-        return new PageImpl<>(dtoList, pageable, collaboratorsList.size());
+
+        // Ordering is fixed by the query (username, id) so pages stay stable between requests
+        Pageable unsorted = PageRequest.of(pageable.getPageNumber(), pageable.getPageSize());
+        Page<UserSummaryDto> collaboratorPage = projectRepository.findCollaboratorSummariesByProjectId(projectId, unsorted);
+        log.info("Found {} collaborators for project ID {}", collaboratorPage.getNumberOfElements(), projectId);
+        return collaboratorPage;
     }
 
     @Override
@@ -170,6 +215,12 @@ public class ProjectServiceImpl implements ProjectService {
             log.error("User {} is not the owner of project {}. Deletion denied.", ownerId, projectId);
             throw new UnauthorizedOperationException("User is not the owner of this project.");
         }
+        evictMembership(projectId, project.getOwner().getId());
+        project.getCollaborators().forEach(collaborator -> evictMembership(projectId, collaborator.getId()));
+        // Tasks are deleted with the project; only members can be assignees, so their counts are the only ones affected
+        cacheManager.getCache(CacheConfig.PROJECT_TASK_STATUS_COUNTS_CACHE).evict(projectId);
+        evictAssignedTaskStatusCounts(project.getOwner().getId());
+        project.getCollaborators().forEach(collaborator -> evictAssignedTaskStatusCounts(collaborator.getId()));
         projectRepository.delete(project);
         log.info("Project {} deleted successfully by owner {}", projectId, ownerId);
     }
@@ -198,22 +249,20 @@ public class ProjectServiceImpl implements ProjectService {
             throw new IllegalArgumentException("Owner cannot be added as a collaborator to their own project.");
         }
 
-        log.debug("Fetching owner's connections using UserClient for project {}, owner {}", projectId, ownerId);
-        List<UserSummaryDto> connections = userClient.findConnectionsByJwt(bearerToken);
-        UserSummaryDto collaboratorSummary = connections.stream()
-                .filter(conn -> conn.getId().equals(collaboratorUserId))
-                .findFirst()
+        log.debug("Checking owner's connections for project {}, owner {}", projectId, ownerId);
+        UserSummaryDto connection = userConnectionService.findConnection(ownerId, collaboratorUserId, bearerToken)
                 .orElseThrow(() -> {
                     log.warn("User {} is not a connection of owner {} for project {}", collaboratorUserId, ownerId, projectId);
                     return new NotConnectedException("Collaborator must be one of the owner's connections.");
                 });
 
-        SimpleUser collaborator = simpleUserService.getOrCreateSimpleUser(collaboratorSummary);
+        SimpleUser collaborator = simpleUserService.getOrCreateSimpleUser(connection);
 
         project.getCollaborators().add(collaborator);
         collaborator.getCollaboratingProjects().add(project);
 
         Project updatedProject = projectRepository.save(project);
+        evictMembership(projectId, collaboratorUserId);
         log.info("Collaborator {} added successfully to project {} by owner {}", collaboratorUserId, projectId, ownerId);
         return ProjectResponseDto.fromEntity(updatedProject);
     }
@@ -243,26 +292,24 @@ public class ProjectServiceImpl implements ProjectService {
 
         log.info("Unassigning user {} from all tasks in project {} as part of collaborator removal", collaboratorUserId, projectId);
         projectTaskRepository.unassignUserFromTasksInProject(projectId, collaboratorUserId);
+        evictAssignedTaskStatusCounts(collaboratorUserId);
 
         projectRepository.save(project);
+        evictMembership(projectId, collaboratorUserId);
         log.info("Collaborator {} removed successfully from project {} by owner {}", collaboratorUserId, projectId, ownerId);
     }
 
     @Override
-    @Transactional(readOnly = true)
     public void verifyUserIsProjectMember(UUID projectId, UUID userId) {
         log.debug("Verifying if user {} is a member of project {}", userId, projectId);
-        Project project = projectRepository.findById(projectId)
-                .orElseThrow(() -> {
-                    log.warn("Project not found: {} during membership verification for user {}", projectId, userId);
-                    return new ProjectNotFoundException("Project not found with ID: " + projectId);
-                });
-
-        boolean isOwner = project.getOwner().getId().equals(userId);
-        boolean isCollaborator = project.getCollaborators().stream()
-                .anyMatch(collaborator -> collaborator.getId().equals(userId));
-
-        if (!isOwner && !isCollaborator) {
+        Boolean isMember = membershipCache().get(new SimpleKey(projectId, userId),
+                () -> projectRepository.isUserProjectMember(projectId, userId));
+
+        if (!Boolean.TRUE.equals(isMember)) {
+            if (!projectRepository.existsById(projectId)) {
+                log.warn("Project not found: {} during membership verification for user {}", projectId, userId);
+                throw new ProjectNotFoundException("Project not found with ID: " + projectId);
+            }
             log.warn("User {} is not authorized for project {} operation.", userId, projectId);
             throw new UnauthorizedOperationException("User is not authorized for this project operation.");
         }
@@ -1,12 +1,17 @@
 package com.spshpau.projectservice.services.impl;
 
+import com.spshpau.projectservice.config.CacheConfig;
+import com.spshpau.projectservice.dto.CursorPage;
+import com.spshpau.projectservice.dto.KeysetCursor;
 import com.spshpau.projectservice.dto.TaskCreateDto;
 import com.spshpau.projectservice.dto.TaskResponseDto;
+import com.spshpau.projectservice.dto.TaskStatusCountsDto;
 import com.spshpau.projectservice.dto.TaskUpdateDto;
 import com.spshpau.projectservice.services.exceptions.*;
 import com.spshpau.projectservice.model.Project;
 import com.spshpau.projectservice.model.ProjectTask;
 import com.spshpau.projectservice.model.SimpleUser;
+import com.spshpau.projectservice.model.enums.TaskStatus;
 import com.spshpau.projectservice.repositories.ProjectRepository;
 import com.spshpau.projectservice.repositories.ProjectTaskRepository;
 import com.spshpau.projectservice.services.ProjectService;
@@ -14,24 +19,78 @@ import com.spshpau.projectservice.services.ProjectTaskService;
 import com.spshpau.projectservice.services.SimpleUserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ProjectTaskServiceImpl implements ProjectTaskService {
 
+    private static final int MAX_BATCH_SIZE = 500;
+    // Bounds used when the "my tasks" listing is not filtered by due date
+    private static final Instant EARLIEST_DUE_DATE = Instant.parse("0001-01-01T00:00:00Z");
+    private static final Instant LATEST_DUE_DATE = Instant.parse("9999-12-31T23:59:59Z");
+
     private final ProjectRepository projectRepository;
     private final ProjectTaskRepository projectTaskRepository;
     private final SimpleUserService simpleUserService;
     private final ProjectService projectService;
+    private final CacheManager cacheManager;
+
+    private Cache projectStatusCountsCache() {
+        return cacheManager.getCache(CacheConfig.PROJECT_TASK_STATUS_COUNTS_CACHE);
+    }
+
+    private Cache assignedStatusCountsCache() {
+        return cacheManager.getCache(CacheConfig.ASSIGNED_TASK_STATUS_COUNTS_CACHE);
+    }
+
+    // Project counts only change with the task set or statuses; assignee counts also change when a task is reassigned
+    private void evictStatusCounts(UUID projectId, boolean projectCountsChanged, Collection<ProjectTask> tasks, UUID... assigneeIds) {
+        if (projectCountsChanged) {
+            log.debug("Evicting cached task status counts of project {}", projectId);
+            projectStatusCountsCache().evict(projectId);
+        }
+        Set<UUID> userIds = new HashSet<>();
+        tasks.stream().map(ProjectTask::getAssignedUser).filter(Objects::nonNull).forEach(user -> userIds.add(user.getId()));
+        for (UUID assigneeId : assigneeIds) {
+            if (assigneeId != null) {
+                userIds.add(assigneeId);
+            }
+        }
+        userIds.forEach(userId -> assignedStatusCountsCache().evict(userId));
+    }
+
+    private static Map<TaskStatus, Long> toStatusCountMap(List<ProjectTaskRepository.StatusCount> rows) {
+        Map<TaskStatus, Long> counts = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            counts.put(status, 0L);
+        }
+        rows.forEach(row -> counts.put(row.getStatus(), row.getCount()));
+        return Collections.unmodifiableMap(counts);
+    }
 
     @Override
     @Transactional
@@ -60,10 +119,112 @@ public class ProjectTaskServiceImpl implements ProjectTaskService {
         }
 
         ProjectTask savedTask = projectTaskRepository.save(task);
+        evictStatusCounts(projectId, true, List.of(savedTask));
         log.info("Task {} created successfully for project {} by user {}", savedTask.getId(), projectId, currentUserId);
         return TaskResponseDto.fromEntity(savedTask);
     }
 
+    @Override
+    @Transactional
+    public List<TaskResponseDto> createTasks(UUID projectId, List<TaskCreateDto> taskDtos, UUID currentUserId) {
+        log.info("User {} creating {} tasks for project {}", currentUserId, taskDtos.size(), projectId);
+        requireBatchSize(taskDtos.size());
+        projectService.verifyUserIsProjectMember(projectId, currentUserId);
+        Project project = projectRepository.findById(projectId)
+                .orElseThrow(() -> {
+                    log.warn("Project not found with ID: {} during bulk task creation by user {}", projectId, currentUserId);
+                    return new ProjectNotFoundException("Project not found with ID: " + projectId);
+                });
+
+        Set<UUID> assigneeIds = taskDtos.stream()
+                .map(TaskCreateDto::getAssignedUserId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<UUID, SimpleUser> assignees = resolveAssignees(projectId, assigneeIds);
+
+        Timestamp createdAt = Timestamp.from(Instant.now());
+        List<ProjectTask> tasks = new ArrayList<>(taskDtos.size());
+        for (TaskCreateDto taskDto : taskDtos) {
+            ProjectTask task = new ProjectTask();
+            task.setProject(project);
+            task.setTitle(taskDto.getTitle());
+            task.setDescription(taskDto.getDescription());
+            task.setCreatedAt(createdAt);
+            task.setDueDate(taskDto.getDueDate());
+            task.setStatus(taskDto.getStatus());
+            if (taskDto.getAssignedUserId() != null) {
+                task.setAssignedUser(assignees.get(taskDto.getAssignedUserId()));
+            }
+            tasks.add(task);
+        }
+
+        List<ProjectTask> savedTasks = projectTaskRepository.saveAll(tasks);
+        evictStatusCounts(projectId, true, savedTasks);
+        log.info("{} tasks created for project {} by user {}", savedTasks.size(), projectId, currentUserId);
+        return savedTasks.stream().map(TaskResponseDto::fromEntity).toList();
+    }
+
+    @Override
+    @Transactional
+    public List<TaskResponseDto> updateTaskStatuses(UUID projectId, List<UUID> taskIds, TaskStatus status, UUID currentUserId) {
+        log.info("User {} setting status {} on {} tasks of project {}", currentUserId, status, taskIds.size(), projectId);
+        requireBatchSize(taskIds.size());
+        projectService.verifyUserIsProjectMember(projectId, currentUserId);
+        List<ProjectTask> tasks = findTasksInProject(projectId, taskIds, currentUserId);
+        tasks.forEach(task -> task.setStatus(status));
+        List<ProjectTask> updatedTasks = projectTaskRepository.saveAll(tasks);
+        evictStatusCounts(projectId, true, updatedTasks);
+        log.info("Status of {} tasks in project {} set to {} by user {}", updatedTasks.size(), projectId, status, currentUserId);
+        return updatedTasks.stream().map(TaskResponseDto::fromEntity).toList();
+    }
+
+    @Override
+    @Transactional
+    public List<TaskResponseDto> assignTasks(UUID projectId, List<UUID> taskIds, UUID assigneeUserId, UUID currentUserId) {
+        log.info("User {} assigning {} tasks of project {} to user {}", currentUserId, taskIds.size(), projectId, assigneeUserId);
+        requireBatchSize(taskIds.size());
+        projectService.verifyUserIsProjectMember(projectId, currentUserId);
+        SimpleUser assignee = assigneeUserId != null
+                ? resolveAssignees(projectId, Set.of(assigneeUserId)).get(assigneeUserId)
+                : null;
+        List<ProjectTask> tasks = findTasksInProject(projectId, taskIds, currentUserId);
+        evictStatusCounts(projectId, false, tasks, assigneeUserId);
+        tasks.forEach(task -> task.setAssignedUser(assignee));
+        List<ProjectTask> updatedTasks = projectTaskRepository.saveAll(tasks);
+        log.info("{} tasks in project {} assigned to user {} by user {}", updatedTasks.size(), projectId, assigneeUserId, currentUserId);
+        return updatedTasks.stream().map(TaskResponseDto::fromEntity).toList();
+    }
+
+    private void requireBatchSize(int size) {
+        if (size > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " tasks can be changed in one request.");
+        }
+    }
+
+    // Checks membership and loads all assignees with one query instead of one membership check and lookup per task
+    private Map<UUID, SimpleUser> resolveAssignees(UUID projectId, Set<UUID> assigneeIds) {
+        Map<UUID, SimpleUser> assignees = simpleUserService.findProjectMembers(projectId, assigneeIds).stream()
+                .collect(Collectors.toMap(SimpleUser::getId, Function.identity()));
+        if (assignees.size() != assigneeIds.size()) {
+            Set<UUID> notMembers = new HashSet<>(assigneeIds);
+            notMembers.removeAll(assignees.keySet());
+            log.warn("Cannot assign tasks of project {} to non-members {}", projectId, notMembers);
+            throw new UnauthorizedOperationException("Users are not members of this project: " + notMembers);
+        }
+        return assignees;
+    }
+
+    private List<ProjectTask> findTasksInProject(UUID projectId, List<UUID> taskIds, UUID currentUserId) {
+        Set<UUID> requestedIds = new HashSet<>(taskIds);
+        List<ProjectTask> tasks = projectTaskRepository.findByProjectIdAndIdIn(projectId, requestedIds);
+        if (tasks.size() != requestedIds.size()) {
+            tasks.forEach(task -> requestedIds.remove(task.getId()));
+            log.warn("Tasks {} not found in project {} for bulk update by user {}", requestedIds, projectId, currentUserId);
+            throw new TaskNotFoundException("Tasks not found in project " + projectId + ": " + requestedIds);
+        }
+        return tasks;
+    }
+
     @Override
     @Transactional(readOnly = true)
     public TaskResponseDto getTaskById(UUID projectId, UUID taskId, UUID currentUserId) {
@@ -92,6 +253,76 @@ public class ProjectTaskServiceImpl implements ProjectTaskService {
         return taskPage.map(TaskResponseDto::fromEntity);
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TaskResponseDto> scrollTasksForProject(UUID projectId, UUID currentUserId, String cursor, int size) {
+        log.info("User {} scrolling tasks for project {} with size {}", currentUserId, projectId, size);
+        projectService.verifyUserIsProjectMember(projectId, currentUserId);
+        int limit = CursorPage.clampSize(size);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Pageable rowLimit = PageRequest.of(0, limit + 1);
+        List<ProjectTask> rows = after == null
+                ? projectTaskRepository.findByProjectIdOrderByCreatedAtAscIdAsc(projectId, rowLimit)
+                : projectTaskRepository.findTasksAfter(projectId, Timestamp.from(after.requireSortKey()), after.getId(), rowLimit);
+        return CursorPage.fromRows(rows, limit,
+                task -> new KeysetCursor(task.getCreatedAt().toInstant(), task.getId()),
+                TaskResponseDto::fromEntity);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskStatusCountsDto getTaskStatusCounts(UUID projectId, UUID currentUserId) {
+        log.info("User {} requesting task status counts for project {}", currentUserId, projectId);
+        projectService.verifyUserIsProjectMember(projectId, currentUserId);
+        Map<TaskStatus, Long> counts = projectStatusCountsCache().get(projectId,
+                () -> toStatusCountMap(projectTaskRepository.countTasksByStatus(projectId)));
+        return TaskStatusCountsDto.fromCounts(counts);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskStatusCountsDto getAssignedTaskStatusCounts(UUID currentUserId) {
+        log.info("User {} requesting status counts of their assigned tasks", currentUserId);
+        Map<TaskStatus, Long> counts = assignedStatusCountsCache().get(currentUserId,
+                () -> toStatusCountMap(projectTaskRepository.countAssignedTasksByStatus(currentUserId)));
+        return TaskStatusCountsDto.fromCounts(counts);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<TaskResponseDto> scrollAssignedTasks(UUID currentUserId, Set<TaskStatus> statuses, Instant dueFrom, Instant dueTo,
+                                                           String cursor, int size) {
+        log.info("User {} scrolling their assigned tasks with statuses {}, due from {} to {} and size {}",
+                currentUserId, statuses, dueFrom, dueTo, size);
+        if (dueFrom != null && dueTo != null && !dueFrom.isBefore(dueTo)) {
+            throw new IllegalArgumentException("dueFrom must be before dueTo.");
+        }
+        int limit = CursorPage.clampSize(size);
+        KeysetCursor after = KeysetCursor.decode(cursor);
+        Set<TaskStatus> statusFilter = statuses == null || statuses.isEmpty() ? EnumSet.allOf(TaskStatus.class) : statuses;
+        Timestamp lowerBound = Timestamp.from(dueFrom != null ? dueFrom : EARLIEST_DUE_DATE);
+        Timestamp upperBound = Timestamp.from(dueTo != null ? dueTo : LATEST_DUE_DATE);
+
+        // Tasks with a due date come first; a cursor without a sort key is already past them
+        List<ProjectTask> rows = new ArrayList<>();
+        if (after == null || after.getSortKey() != null) {
+            Timestamp afterDueDate = after != null ? Timestamp.from(after.getSortKey()) : lowerBound;
+            UUID afterId = after != null ? after.getId() : KeysetCursor.MIN_ID;
+            rows.addAll(projectTaskRepository.findAssignedTasksWithDueDateAfter(currentUserId, statusFilter,
+                    lowerBound, upperBound, afterDueDate, afterId, PageRequest.of(0, limit + 1)));
+        }
+        // A due date filter excludes tasks without one
+        if (rows.size() <= limit && dueFrom == null && dueTo == null) {
+            UUID afterId = after != null && after.getSortKey() == null ? after.getId() : KeysetCursor.MIN_ID;
+            rows.addAll(projectTaskRepository.findAssignedTasksWithoutDueDateAfter(
+                    currentUserId, statusFilter, afterId, PageRequest.of(0, limit + 1 - rows.size())));
+        }
+
+        return CursorPage.fromRows(rows, limit,
+                task -> new KeysetCursor(task.getDueDate() != null ? task.getDueDate().toInstant() : null, task.getId()),
+                TaskResponseDto::fromEntity);
+    }
+
     @Override
     @Transactional
     public TaskResponseDto updateTask(UUID projectId, UUID taskId, TaskUpdateDto taskDto, UUID currentUserId) {
@@ -107,6 +338,7 @@ public class ProjectTaskServiceImpl implements ProjectTaskService {
             log.error("Unauthorized attempt by user {} to update task {} not belonging to project {}", currentUserId, taskId, projectId);
             throw new UnauthorizedOperationException("Task does not belong to the specified project.");
         }
+        evictStatusCounts(projectId, taskDto.getStatus() != null, List.of(task), taskDto.getAssignedUserId());
 
         if (taskDto.getTitle() != null) task.setTitle(taskDto.getTitle());
         if (taskDto.getDescription() != null) task.setDescription(taskDto.getDescription());
@@ -143,6 +375,7 @@ public class ProjectTaskServiceImpl implements ProjectTaskService {
             log.error("Unauthorized attempt by user {} to delete task {} not belonging to project {}", currentUserId, taskId, projectId);
             throw new UnauthorizedOperationException("Task does not belong to the specified project.");
         }
+        evictStatusCounts(projectId, true, List.of(task));
         projectTaskRepository.delete(task);
         log.info("Task {} deleted successfully from project {} by user {}", taskId, projectId, currentUserId);
     }
@@ -165,6 +398,7 @@ public class ProjectTaskServiceImpl implements ProjectTaskService {
         }
 
         SimpleUser userToAssign = simpleUserService.findUserById(assigneeUserId);
+        evictStatusCounts(projectId, false, List.of(task), assigneeUserId);
         task.setAssignedUser(userToAssign);
         ProjectTask updatedTask = projectTaskRepository.save(task);
         log.info("User {} successfully assigned to task {} for project {} by user {}", assigneeUserId, taskId, projectId, currentUserId);
@@ -189,6 +423,7 @@ public class ProjectTaskServiceImpl implements ProjectTaskService {
             log.info("Task {} on project {} had no assigned user to remove for user {}. Returning current state.", taskId, projectId, currentUserId);
         } else {
             log.info("Removing user {} from task {} on project {} by user {}", task.getAssignedUser().getId(), taskId, projectId, currentUserId);
+            evictStatusCounts(projectId, false, List.of(task));
             task.setAssignedUser(null);
         }
         ProjectTask updatedTask = projectTaskRepository.save(task);
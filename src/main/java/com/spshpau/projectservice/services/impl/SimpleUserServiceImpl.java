@@ -10,6 +10,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 @Service
@@ -30,6 +32,15 @@ public class SimpleUserServiceImpl implements SimpleUserService {
         return user;
     }
 
+    @Override
+    public List<SimpleUser> findProjectMembers(UUID projectId, Collection<UUID> userIds) {
+        log.debug("Resolving {} users as members of project {}", userIds.size(), projectId);
+        if (userIds.isEmpty()) {
+            return List.of();
+        }
+        return simpleUserRepository.findProjectMembersByIdIn(projectId, userIds);
+    }
+
     @Override
     @Transactional
     public SimpleUser getOrCreateSimpleUser(UserSummaryDto userSummaryDto) {
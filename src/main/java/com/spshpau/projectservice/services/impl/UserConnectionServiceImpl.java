@@ -0,0 +1,63 @@
+package com.spshpau.projectservice.services.impl;
+
+import com.spshpau.projectservice.config.CacheConfig;
+import com.spshpau.projectservice.dto.UserSummaryDto;
+import com.spshpau.projectservice.otherservices.UserClient;
+import com.spshpau.projectservice.services.UserConnectionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserConnectionServiceImpl implements UserConnectionService {
+    private final UserClient userClient;
+    private final CacheManager cacheManager;
+
+    private Cache connectionsCache() {
+        return cacheManager.getCache(CacheConfig.USER_CONNECTIONS_CACHE);
+    }
+
+    // Keyed by id, with the summary kept so a new collaborator can be stored without another user service call
+    private Map<UUID, UserSummaryDto> loadConnections(UUID ownerId, String bearerToken) {
+        log.debug("Fetching connections of user {} from user service", ownerId);
+        List<UserSummaryDto> connections = userClient.findConnectionsByJwt(bearerToken);
+        Map<UUID, UserSummaryDto> connectionsById = connections == null ? Map.of() : connections.stream()
+                .filter(connection -> connection.getId() != null)
+                .collect(Collectors.toUnmodifiableMap(UserSummaryDto::getId, Function.identity(), (first, second) -> first));
+        log.debug("User {} has {} connections", ownerId, connectionsById.size());
+        return connectionsById;
+    }
+
+    @Override
+    public Optional<UserSummaryDto> findConnection(UUID ownerId, UUID userId, String bearerToken) {
+        AtomicBoolean loaded = new AtomicBoolean(false);
+        Map<UUID, UserSummaryDto> connections = connectionsCache().get(ownerId, () -> {
+            loaded.set(true);
+            return loadConnections(ownerId, bearerToken);
+        });
+        if (connections != null && connections.containsKey(userId)) {
+            return Optional.of(connections.get(userId));
+        }
+        if (loaded.get()) {
+            return Optional.empty();
+        }
+
+        // The cached connections may predate a connection made in the last few minutes
+        log.debug("User {} not found in cached connections of user {}. Refreshing.", userId, ownerId);
+        Map<UUID, UserSummaryDto> refreshedConnections = loadConnections(ownerId, bearerToken);
+        connectionsCache().put(ownerId, refreshedConnections);
+        return Optional.ofNullable(refreshedConnections.get(userId));
+    }
+}
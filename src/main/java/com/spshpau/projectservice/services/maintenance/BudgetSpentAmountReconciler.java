@@ -0,0 +1,57 @@
+package com.spshpau.projectservice.services.maintenance;
+
+import com.spshpau.projectservice.repositories.BudgetExpenseRepository;
+import com.spshpau.projectservice.repositories.ProjectBudgetrepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compares each budget's stored spent amount with the sum of its expenses and corrects any drift.
+ * The first run also fills in the spent amount of budgets created before the column existed.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BudgetSpentAmountReconciler {
+
+    private final ProjectBudgetrepository projectBudgetRepository;
+    private final BudgetExpenseRepository budgetExpenseRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(initialDelayString = "${budget.reconciliation.initial-delay:PT1M}",
+            fixedDelayString = "${budget.reconciliation.interval:PT1H}")
+    public void reconcile() {
+        List<UUID> driftedBudgetIds = projectBudgetRepository.findIdsWithSpentAmountDrift();
+        if (driftedBudgetIds.isEmpty()) {
+            log.debug("All budget spent amounts match their expenses");
+            return;
+        }
+        log.warn("Found {} budgets whose spent amount does not match their expenses", driftedBudgetIds.size());
+        for (UUID budgetId : driftedBudgetIds) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> reconcileBudget(budgetId));
+            } catch (ObjectOptimisticLockingFailureException e) {
+                // An expense write got there first; the next run checks this budget again
+                log.info("Budget {} changed during reconciliation, skipping until the next run", budgetId);
+            }
+        }
+    }
+
+    private void reconcileBudget(UUID budgetId) {
+        // The budget is read before the sum, so an expense committed in between fails the version check
+        projectBudgetRepository.findById(budgetId).ifPresent(budget -> {
+            BigDecimal actual = budgetExpenseRepository.sumExpensesByBudgetId(budgetId).orElse(BigDecimal.ZERO);
+            log.warn("Correcting spent amount of budget {} from {} to {}", budgetId, budget.getSpentAmount(), actual);
+            budget.setSpentAmount(actual);
+            projectBudgetRepository.saveAndFlush(budget);
+        });
+    }
+}
@@ -0,0 +1,30 @@
+package com.spshpau.projectservice.services.maintenance;
+
+import com.spshpau.projectservice.repositories.ProjectFileRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Flags the latest version of files stored before the latest-version flag was introduced.
+ * Files that already have a flagged version are left alone, so running this on every startup is harmless.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LatestFileVersionBackfill implements ApplicationRunner {
+
+    private final ProjectFileRepository projectFileRepository;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        int flagged = projectFileRepository.markMissingLatestVersions();
+        if (flagged > 0) {
+            log.info("Flagged {} project files as latest version", flagged);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.spshpau.projectservice.services.maintenance;
+
+import com.spshpau.projectservice.services.money.MoneyAmounts;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.orm.jpa.EntityManagerFactoryDependsOnPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Converts budget and expense amounts stored as {@code real} by earlier versions to exact decimals.
+ * Schema updates do not change existing column types, so this runs once on startup and does nothing
+ * when the columns are already numeric. The entity manager factory depends on it, so the columns are
+ * converted before Hibernate validates the schema and before the web server accepts requests.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MoneyColumnMigration implements InitializingBean {
+
+    private static final List<String[]> MONEY_COLUMNS = List.of(
+            new String[]{"projectbudgets", "total_amount"},
+            new String[]{"projectbudgets", "spent_amount"},
+            new String[]{"projectbudgetexpanses", "amount"});
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void afterPropertiesSet() {
+        // The JPA transaction manager needs the entity manager factory, which is not created yet
+        TransactionTemplate transactionTemplate = new TransactionTemplate(
+                new DataSourceTransactionManager(jdbcTemplate.getDataSource()));
+        transactionTemplate.executeWithoutResult(status -> migrate());
+    }
+
+    private void migrate() {
+        boolean converted = false;
+        for (String[] column : MONEY_COLUMNS) {
+            converted |= convertIfFloat(column[0], column[1]);
+        }
+        if (!converted) {
+            return;
+        }
+
+        // Float values only approximate what was entered, so round each budget to its currency's scale
+        List<String> currencies = jdbcTemplate.queryForList("SELECT DISTINCT currency FROM projectbudgets", String.class);
+        for (String currency : currencies) {
+            int scale = MoneyAmounts.scaleOf(currency);
+            jdbcTemplate.update("UPDATE projectbudgets SET total_amount = round(total_amount, ?) WHERE currency = ?",
+                    scale, currency);
+            jdbcTemplate.update("UPDATE projectbudgetexpanses e SET amount = round(e.amount, ?) " +
+                    "FROM projectbudgets b WHERE e.budget_id = b.project_id AND b.currency = ?", scale, currency);
+        }
+        int budgets = jdbcTemplate.update("UPDATE projectbudgets b SET spent_amount = " +
+                "COALESCE((SELECT SUM(e.amount) FROM projectbudgetexpanses e WHERE e.budget_id = b.project_id), 0)");
+        log.info("Converted money columns to numeric and recalculated spent amount of {} budgets", budgets);
+    }
+
+    private boolean convertIfFloat(String table, String column) {
+        List<String> types = jdbcTemplate.queryForList(
+                "SELECT data_type FROM information_schema.columns WHERE table_schema = current_schema() " +
+                        "AND table_name = ? AND column_name = ?", String.class, table, column);
+        if (types.isEmpty() || !("real".equals(types.get(0)) || "double precision".equals(types.get(0)))) {
+            return false;
+        }
+        log.info("Converting {}.{} from {} to numeric(19,4)", table, column, types.get(0));
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN " + column +
+                " TYPE numeric(19,4) USING round(" + column + "::numeric, 4)");
+        return true;
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class EntityManagerFactoryDependency {
+
+        @Bean
+        static EntityManagerFactoryDependsOnPostProcessor moneyColumnMigrationDependency() {
+            return new EntityManagerFactoryDependsOnPostProcessor(MoneyColumnMigration.class);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.spshpau.projectservice.services.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Times every method of the service interfaces in {@code com.spshpau.projectservice.services}.
+ * Calls are tagged by service, method and outcome only, never by ids, to keep the number of series bounded.
+ * Runs outside the transaction and cache proxies, so commits and cache hits are part of the measured time.
+ * Methods returning a {@link CompletionStage} are timed until the stage completes.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ServiceMetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    public ServiceMetricsAspect(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * com.spshpau.projectservice.services.*Service.*(..))")
+    public Object timeServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        String service = serviceName(joinPoint.getSignature().getDeclaringType());
+        String method = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+
+        Object result;
+        try {
+            result = joinPoint.proceed();
+        } catch (Throwable e) {
+            stop(sample, service, method, e);
+            throw e;
+        }
+        if (result instanceof CompletionStage<?> stage) {
+            stage.whenComplete((value, e) -> stop(sample, service, method, e));
+        } else {
+            stop(sample, service, method, null);
+        }
+        return result;
+    }
+
+    private void stop(Timer.Sample sample, String service, String method, Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        sample.stop(Timer.builder("service.calls")
+                .description("Duration of service calls")
+                .tag("service", service)
+                .tag("method", method)
+                .tag("outcome", outcome(cause))
+                .tag("exception", cause == null ? "none" : cause.getClass().getSimpleName())
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    // The service exceptions declare the HTTP status they map to, which decides the outcome
+    static String outcome(Throwable error) {
+        if (error == null) {
+            return "success";
+        }
+        if (error instanceof IllegalArgumentException) {
+            return "invalid";
+        }
+        ResponseStatus responseStatus = AnnotatedElementUtils.findMergedAnnotation(error.getClass(), ResponseStatus.class);
+        if (responseStatus == null) {
+            return "error";
+        }
+        HttpStatus status = responseStatus.code();
+        if (status == HttpStatus.NOT_FOUND) {
+            return "not_found";
+        }
+        if (status == HttpStatus.FORBIDDEN || status == HttpStatus.UNAUTHORIZED) {
+            return "unauthorized";
+        }
+        return status.is4xxClientError() ? "client_error" : "error";
+    }
+
+    private static String serviceName(Class<?> declaringType) {
+        // Implementations are reported under their interface name
+        String name = declaringType.getSimpleName();
+        return name.endsWith("Impl") ? name.substring(0, name.length() - "Impl".length()) : name;
+    }
+}
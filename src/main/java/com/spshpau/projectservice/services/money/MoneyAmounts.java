@@ -0,0 +1,52 @@
+package com.spshpau.projectservice.services.money;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Currency;
+
+/**
+ * Scale rules for budget amounts. Amounts are stored as exact decimals with at most
+ * as many fraction digits as their currency uses (2 for EUR, 0 for JPY, 3 for BHD).
+ */
+public final class MoneyAmounts {
+
+    // Used for currency codes that are not ISO 4217, which budgets created earlier may contain
+    public static final int DEFAULT_SCALE = 2;
+
+    private MoneyAmounts() {
+    }
+
+    public static int scaleOf(String currencyCode) {
+        if (currencyCode == null) {
+            return DEFAULT_SCALE;
+        }
+        try {
+            int digits = Currency.getInstance(currencyCode.trim().toUpperCase()).getDefaultFractionDigits();
+            return digits >= 0 ? digits : DEFAULT_SCALE;
+        } catch (IllegalArgumentException e) {
+            return DEFAULT_SCALE;
+        }
+    }
+
+    /**
+     * @return The amount with exactly the currency's scale.
+     * @throws IllegalArgumentException If the amount has more fraction digits than the currency allows.
+     */
+    public static BigDecimal normalize(BigDecimal amount, String currencyCode) {
+        int scale = scaleOf(currencyCode);
+        BigDecimal stripped = amount.stripTrailingZeros();
+        if (stripped.scale() > scale) {
+            throw new IllegalArgumentException("Amount " + amount.toPlainString() + " has more than "
+                    + scale + " decimal places allowed for currency " + currencyCode);
+        }
+        return stripped.setScale(scale);
+    }
+
+    /**
+     * Brings an amount that was valid in another currency to this currency's scale,
+     * rounding half up like the database's {@code round} does.
+     */
+    public static BigDecimal rescale(BigDecimal amount, String currencyCode) {
+        return amount.setScale(scaleOf(currencyCode), RoundingMode.HALF_UP);
+    }
+}
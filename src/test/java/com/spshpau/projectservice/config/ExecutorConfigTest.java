@@ -0,0 +1,82 @@
+package com.spshpau.projectservice.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExecutorConfigTest {
+
+    private final List<ExecutorService> executors = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        executors.forEach(ExecutorService::shutdownNow);
+    }
+
+    private static MockEnvironment environment(boolean virtualThreads) {
+        return new MockEnvironment().withProperty("spring.threads.virtual.enabled", String.valueOf(virtualThreads));
+    }
+
+    private boolean runsOnVirtualThread(ExecutorService executor) throws Exception {
+        executors.add(executor);
+        return executor.submit(() -> Thread.currentThread().isVirtual()).get();
+    }
+
+    @Test
+    void projectOverviewExecutor_virtualThreadsDisabled_usesBoundedPlatformPool() throws Exception {
+        ExecutorService executor = new OverviewConfig().projectOverviewExecutor(3, environment(false));
+
+        ThreadPoolExecutor pool = assertInstanceOf(ThreadPoolExecutor.class, executor);
+        assertEquals(3, pool.getMaximumPoolSize());
+        assertFalse(runsOnVirtualThread(executor));
+    }
+
+    @Test
+    void projectOverviewExecutor_virtualThreadsEnabled_usesVirtualThreads() throws Exception {
+        ExecutorService executor = new OverviewConfig().projectOverviewExecutor(3, environment(true));
+
+        assertFalse(executor instanceof ThreadPoolExecutor);
+        assertTrue(runsOnVirtualThread(executor));
+    }
+
+    @Test
+    void s3UploadExecutor_virtualThreadsDisabled_usesBoundedPlatformPool() throws Exception {
+        ExecutorService executor = new S3Config().s3UploadExecutor(2, environment(false));
+
+        ThreadPoolExecutor pool = assertInstanceOf(ThreadPoolExecutor.class, executor);
+        assertEquals(2, pool.getMaximumPoolSize());
+        assertFalse(runsOnVirtualThread(executor));
+    }
+
+    @Test
+    void s3UploadExecutor_virtualThreadsEnabled_usesVirtualThreads() throws Exception {
+        ExecutorService executor = new S3Config().s3UploadExecutor(2, environment(true));
+
+        assertFalse(executor instanceof ThreadPoolExecutor);
+        assertTrue(runsOnVirtualThread(executor));
+    }
+
+    @Test
+    void s3TransferExecutor_virtualThreadsDisabled_neverRunsTasksOnCaller() throws Exception {
+        ExecutorService executor = new S3Config().s3TransferExecutor(1, environment(false));
+
+        ThreadPoolExecutor pool = assertInstanceOf(ThreadPoolExecutor.class, executor);
+        assertEquals(Integer.MAX_VALUE, pool.getQueue().remainingCapacity());
+        assertFalse(runsOnVirtualThread(executor));
+    }
+
+    @Test
+    void s3TransferExecutor_virtualThreadsEnabled_usesVirtualThreads() throws Exception {
+        ExecutorService executor = new S3Config().s3TransferExecutor(1, environment(true));
+
+        assertFalse(executor instanceof ThreadPoolExecutor);
+        assertTrue(runsOnVirtualThread(executor));
+    }
+}
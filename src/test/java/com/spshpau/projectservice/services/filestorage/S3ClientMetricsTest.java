@@ -0,0 +1,54 @@
+package com.spshpau.projectservice.services.filestorage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.metrics.CoreMetric;
+import software.amazon.awssdk.metrics.MetricCollector;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class S3ClientMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private S3ClientMetrics s3ClientMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        s3ClientMetrics = new S3ClientMetrics(meterRegistry);
+    }
+
+    @Test
+    void publish_successfulCallWithRetries_recordsLatencyAndRetries() {
+        MetricCollector collector = MetricCollector.create("ApiCall");
+        collector.reportMetric(CoreMetric.OPERATION_NAME, "HeadObject");
+        collector.reportMetric(CoreMetric.API_CALL_DURATION, Duration.ofMillis(120));
+        collector.reportMetric(CoreMetric.API_CALL_SUCCESSFUL, true);
+        collector.reportMetric(CoreMetric.RETRY_COUNT, 2);
+
+        s3ClientMetrics.publish(collector.collect());
+
+        assertEquals(120.0, meterRegistry.get("s3.client.calls")
+                .tags("operation", "HeadObject", "outcome", "success").timer().totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(2.0, meterRegistry.get("s3.client.retries").tags("operation", "HeadObject").counter().count());
+    }
+
+    @Test
+    void publish_failedCallWithoutRetries_recordsFailureOnly() {
+        MetricCollector collector = MetricCollector.create("ApiCall");
+        collector.reportMetric(CoreMetric.OPERATION_NAME, "GetObject");
+        collector.reportMetric(CoreMetric.API_CALL_DURATION, Duration.ofMillis(30));
+        collector.reportMetric(CoreMetric.API_CALL_SUCCESSFUL, false);
+        collector.reportMetric(CoreMetric.RETRY_COUNT, 0);
+
+        s3ClientMetrics.publish(collector.collect());
+
+        assertEquals(1, meterRegistry.get("s3.client.calls")
+                .tags("operation", "GetObject", "outcome", "failure").timer().count());
+        assertTrue(meterRegistry.find("s3.client.retries").counters().isEmpty());
+    }
+}
@@ -0,0 +1,271 @@
+package com.spshpau.projectservice.services.filestorage;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.*;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+import software.amazon.awssdk.services.s3.presigner.model.GetObjectPresignRequest;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedGetObjectRequest;
+import software.amazon.awssdk.transfer.s3.S3TransferManager;
+import software.amazon.awssdk.transfer.s3.model.CompletedUpload;
+import software.amazon.awssdk.transfer.s3.model.Upload;
+import software.amazon.awssdk.transfer.s3.model.UploadRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class S3FileStorageServiceTest {
+
+    private static final int PART_SIZE = 5 * 1024 * 1024;
+    private static final int THRESHOLD = 1024 * 1024;
+
+    @Mock
+    private S3Client s3Client;
+    @Mock
+    private S3AsyncClient s3AsyncClient;
+    @Mock
+    private S3TransferManager s3TransferManager;
+    @Mock
+    private S3Presigner s3Presigner;
+    @Mock
+    private MultipartFile multipartFile;
+
+    private ExecutorService executor;
+    private CacheManager cacheManager;
+    private SimpleMeterRegistry meterRegistry;
+    private S3FileStorageService s3FileStorageService;
+
+    private final String bucketName = "test-bucket";
+    private final String key = "projects/p/files/mix.wav";
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+        cacheManager = new ConcurrentMapCacheManager();
+        meterRegistry = new SimpleMeterRegistry();
+        s3FileStorageService = new S3FileStorageService(s3Client, s3AsyncClient, s3TransferManager, s3Presigner,
+                executor, executor, cacheManager, new S3ClientMetrics(meterRegistry));
+        ReflectionTestUtils.setField(s3FileStorageService, "presignedUrlDurationMinutes", 15L);
+        ReflectionTestUtils.setField(s3FileStorageService, "bucketName", bucketName);
+        ReflectionTestUtils.setField(s3FileStorageService, "multipartThresholdBytes", (long) THRESHOLD);
+        ReflectionTestUtils.setField(s3FileStorageService, "partSizeBytes", PART_SIZE);
+        ReflectionTestUtils.setField(s3FileStorageService, "maxConcurrentParts", 2);
+        ReflectionTestUtils.setField(s3FileStorageService, "maxPartAttempts", 3);
+
+        when(s3Client.createMultipartUpload(any(CreateMultipartUploadRequest.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenAnswer(invocation -> UploadPartResponse.builder()
+                        .eTag("etag-" + invocation.getArgument(0, UploadPartRequest.class).partNumber())
+                        .build());
+        when(s3Client.completeMultipartUpload(any(CompleteMultipartUploadRequest.class)))
+                .thenReturn(CompleteMultipartUploadResponse.builder().versionId("v-multipart").build());
+        when(s3Client.putObject(any(PutObjectRequest.class), any(RequestBody.class)))
+                .thenReturn(PutObjectResponse.builder().versionId("v-single").build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void uploadFileStream_smallContent_usesSinglePut() throws IOException {
+        byte[] content = new byte[1024];
+
+        String versionId = s3FileStorageService.uploadFileStream(key, "audio/wav", "mix.wav", new ByteArrayInputStream(content));
+
+        assertEquals("v-single", versionId);
+        ArgumentCaptor<PutObjectRequest> captor = ArgumentCaptor.forClass(PutObjectRequest.class);
+        verify(s3Client).putObject(captor.capture(), any(RequestBody.class));
+        assertEquals(1024L, captor.getValue().contentLength());
+        verify(s3Client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+    }
+
+    @Test
+    void uploadFileStream_contentAtThresholdInSmallReads_usesSinglePut() throws IOException {
+        // Returns at most 100 bytes per read, like a slow network stream
+        InputStream trickle = new FilterInputStream(new ByteArrayInputStream(new byte[THRESHOLD])) {
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                return super.read(b, off, Math.min(len, 100));
+            }
+        };
+
+        String versionId = s3FileStorageService.uploadFileStream(key, "audio/wav", "mix.wav", trickle);
+
+        assertEquals("v-single", versionId);
+        ArgumentCaptor<PutObjectRequest> captor = ArgumentCaptor.forClass(PutObjectRequest.class);
+        verify(s3Client).putObject(captor.capture(), any(RequestBody.class));
+        assertEquals((long) THRESHOLD, captor.getValue().contentLength());
+        verify(s3Client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+    }
+
+    @Test
+    void uploadFileStream_contentJustOverThreshold_uploadsOnePart() throws IOException {
+        String versionId = s3FileStorageService.uploadFileStream(key, "audio/wav", "mix.wav", new ByteArrayInputStream(new byte[THRESHOLD + 1]));
+
+        assertEquals("v-multipart", versionId);
+        ArgumentCaptor<UploadPartRequest> partCaptor = ArgumentCaptor.forClass(UploadPartRequest.class);
+        verify(s3Client).uploadPart(partCaptor.capture(), any(RequestBody.class));
+        assertEquals(THRESHOLD + 1L, partCaptor.getValue().contentLength());
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+    }
+
+    @Test
+    void uploadFileStream_largeContent_uploadsPartsInOrder() throws IOException {
+        byte[] content = new byte[PART_SIZE * 2 + 10];
+
+        String versionId = s3FileStorageService.uploadFileStream(key, "audio/wav", "mix.wav", new ByteArrayInputStream(content));
+
+        assertEquals("v-multipart", versionId);
+        ArgumentCaptor<UploadPartRequest> partCaptor = ArgumentCaptor.forClass(UploadPartRequest.class);
+        verify(s3Client, times(3)).uploadPart(partCaptor.capture(), any(RequestBody.class));
+        List<UploadPartRequest> partRequests = partCaptor.getAllValues().stream()
+                .sorted(Comparator.comparing(UploadPartRequest::partNumber))
+                .toList();
+        assertEquals(List.of(1, 2, 3), partRequests.stream().map(UploadPartRequest::partNumber).toList());
+        assertEquals(10L, partRequests.get(2).contentLength());
+
+        ArgumentCaptor<CompleteMultipartUploadRequest> completeCaptor = ArgumentCaptor.forClass(CompleteMultipartUploadRequest.class);
+        verify(s3Client).completeMultipartUpload(completeCaptor.capture());
+        List<CompletedPart> parts = completeCaptor.getValue().multipartUpload().parts();
+        assertEquals(List.of(1, 2, 3), parts.stream().map(CompletedPart::partNumber).toList());
+        assertEquals("etag-3", parts.get(2).eTag());
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        assertEquals(2L * PART_SIZE + 10, (long) meterRegistry.get("s3.client.transferred")
+                .tags("operation", "UploadPart", "direction", S3ClientMetrics.UPLOAD).summary().totalAmount());
+    }
+
+    @Test
+    void uploadFileStream_partFails_abortsMultipartUpload() {
+        byte[] content = new byte[PART_SIZE + 1];
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenThrow(S3Exception.builder().statusCode(403).message("boom").build());
+
+        assertThrows(S3Exception.class, () ->
+                s3FileStorageService.uploadFileStream(key, "audio/wav", "mix.wav", new ByteArrayInputStream(content)));
+
+        ArgumentCaptor<AbortMultipartUploadRequest> abortCaptor = ArgumentCaptor.forClass(AbortMultipartUploadRequest.class);
+        verify(s3Client).abortMultipartUpload(abortCaptor.capture());
+        assertEquals("upload-1", abortCaptor.getValue().uploadId());
+        verify(s3Client, never()).completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+    }
+
+    @Test
+    void uploadFileStream_transientPartFailure_retriesPart() throws IOException {
+        byte[] content = new byte[PART_SIZE + 1];
+        AtomicInteger calls = new AtomicInteger();
+        when(s3Client.uploadPart(any(UploadPartRequest.class), any(RequestBody.class)))
+                .thenAnswer(invocation -> {
+                    if (calls.getAndIncrement() == 0) {
+                        throw SdkClientException.create("connection reset");
+                    }
+                    return UploadPartResponse.builder()
+                            .eTag("etag-" + invocation.getArgument(0, UploadPartRequest.class).partNumber())
+                            .build();
+                });
+
+        String versionId = s3FileStorageService.uploadFileStream(key, "audio/wav", "mix.wav", new ByteArrayInputStream(content));
+
+        assertEquals("v-multipart", versionId);
+        verify(s3Client, times(3)).uploadPart(any(UploadPartRequest.class), any(RequestBody.class));
+        verify(s3Client, never()).abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+    }
+
+    @Test
+    void uploadFileAsync_usesTransferManager() throws IOException {
+        when(multipartFile.getSize()).thenReturn((long) PART_SIZE + 1);
+        when(multipartFile.getContentType()).thenReturn("audio/wav");
+        when(multipartFile.getOriginalFilename()).thenReturn("mix.wav");
+        when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream(new byte[PART_SIZE + 1]));
+        Upload upload = mock(Upload.class);
+        when(upload.completionFuture()).thenReturn(CompletableFuture.completedFuture(CompletedUpload.builder()
+                .response(PutObjectResponse.builder().versionId("v-async").build())
+                .build()));
+        when(s3TransferManager.upload(any(UploadRequest.class))).thenReturn(upload);
+
+        String versionId = s3FileStorageService.uploadFileAsync(key, multipartFile).join();
+
+        assertEquals("v-async", versionId);
+        ArgumentCaptor<UploadRequest> captor = ArgumentCaptor.forClass(UploadRequest.class);
+        verify(s3TransferManager).upload(captor.capture());
+        assertEquals(key, captor.getValue().putObjectRequest().key());
+        assertEquals((long) PART_SIZE + 1, captor.getValue().putObjectRequest().contentLength());
+        verify(s3Client, never()).putObject(any(PutObjectRequest.class), any(RequestBody.class));
+        verify(s3Client, never()).createMultipartUpload(any(CreateMultipartUploadRequest.class));
+    }
+
+    @Test
+    void generatePresignedDownloadUrl_sameVersion_signsOnce() throws MalformedURLException {
+        PresignedGetObjectRequest presignedRequest = mock(PresignedGetObjectRequest.class);
+        when(presignedRequest.url()).thenReturn(new URL("https://example.com/mix.wav?sig=1"));
+        when(s3Presigner.presignGetObject(any(GetObjectPresignRequest.class))).thenReturn(presignedRequest);
+
+        URL first = s3FileStorageService.generatePresignedDownloadUrl(key, "v1");
+        URL second = s3FileStorageService.generatePresignedDownloadUrl(key, "v1");
+
+        assertEquals(first, second);
+        verify(s3Presigner, times(1)).presignGetObject(any(GetObjectPresignRequest.class));
+    }
+
+    @Test
+    void generatePresignedDownloadUrl_afterVersionDeleted_signsAgain() throws MalformedURLException {
+        PresignedGetObjectRequest presignedRequest = mock(PresignedGetObjectRequest.class);
+        when(presignedRequest.url()).thenReturn(new URL("https://example.com/mix.wav?sig=1"));
+        when(s3Presigner.presignGetObject(any(GetObjectPresignRequest.class))).thenReturn(presignedRequest);
+
+        s3FileStorageService.generatePresignedDownloadUrl(key, "v1");
+        s3FileStorageService.deleteFileVersion(key, "v1");
+        s3FileStorageService.generatePresignedDownloadUrl(key, "v1");
+
+        verify(s3Presigner, times(2)).presignGetObject(any(GetObjectPresignRequest.class));
+    }
+
+    @Test
+    void generatePresignedDownloadUrl_afterVersionDeletedAsync_signsAgain() throws MalformedURLException {
+        PresignedGetObjectRequest presignedRequest = mock(PresignedGetObjectRequest.class);
+        when(presignedRequest.url()).thenReturn(new URL("https://example.com/mix.wav?sig=1"));
+        when(s3Presigner.presignGetObject(any(GetObjectPresignRequest.class))).thenReturn(presignedRequest);
+        when(s3AsyncClient.deleteObject(any(DeleteObjectRequest.class)))
+                .thenReturn(CompletableFuture.completedFuture(DeleteObjectResponse.builder().build()));
+
+        s3FileStorageService.generatePresignedDownloadUrl(key, "v1");
+        s3FileStorageService.deleteFileVersionAsync(key, "v1").join();
+        s3FileStorageService.generatePresignedDownloadUrl(key, "v1");
+
+        verify(s3Presigner, times(2)).presignGetObject(any(GetObjectPresignRequest.class));
+    }
+}
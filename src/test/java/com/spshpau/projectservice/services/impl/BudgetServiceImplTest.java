@@ -1,6 +1,7 @@
 package com.spshpau.projectservice.services.impl;
 
 import com.spshpau.projectservice.dto.*;
+import com.spshpau.projectservice.dto.enums.AnalyticsGranularity;
 import com.spshpau.projectservice.model.BudgetExpense;
 import com.spshpau.projectservice.model.Project;
 import com.spshpau.projectservice.model.ProjectBudget;
@@ -10,12 +11,15 @@ import com.spshpau.projectservice.repositories.ProjectBudgetrepository;
 import com.spshpau.projectservice.repositories.ProjectRepository;
 import com.spshpau.projectservice.services.ProjectService;
 import com.spshpau.projectservice.services.exceptions.*;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
@@ -23,10 +27,23 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
+import java.util.List;
 import java.util.Optional;
+import java.util.TimeZone;
 import java.util.UUID;
 import java.util.HashSet;
 
@@ -46,6 +63,8 @@ class BudgetServiceImplTest {
     private ProjectRepository projectRepository;
     @Mock
     private ProjectService projectService;
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
 
     @InjectMocks
     private BudgetServiceImpl budgetService;
@@ -78,7 +97,9 @@ class BudgetServiceImplTest {
         projectBudget.setId(projectId);
         projectBudget.setProject(project);
         projectBudget.setCurrency("USD");
-        projectBudget.setTotalAmount(1000f);
+        projectBudget.setTotalAmount(new BigDecimal("1000.00"));
+        projectBudget.setSpentAmount(new BigDecimal("100.00"));
+        projectBudget.setVersion(0L);
         projectBudget.setExpenses(new HashSet<>());
 
         project.setBudget(projectBudget);
@@ -86,7 +107,7 @@ class BudgetServiceImplTest {
         budgetExpense = new BudgetExpense();
         budgetExpense.setId(expenseId);
         budgetExpense.setBudget(projectBudget);
-        budgetExpense.setAmount(100f);
+        budgetExpense.setAmount(new BigDecimal("100.00"));
         budgetExpense.setDate(new Date());
         budgetExpense.setComment("Test Expense");
         projectBudget.getExpenses().add(budgetExpense);
@@ -94,19 +115,19 @@ class BudgetServiceImplTest {
 
         budgetCreateDto = new BudgetCreateDto();
         budgetCreateDto.setCurrency("EUR");
-        budgetCreateDto.setTotalAmount(2000f);
+        budgetCreateDto.setTotalAmount(new BigDecimal("2000"));
 
         budgetUpdateDto = new BudgetUpdateDto();
         budgetUpdateDto.setCurrency("GBP");
-        budgetUpdateDto.setTotalAmount(1500f);
+        budgetUpdateDto.setTotalAmount(new BigDecimal("1500.00"));
 
         expenseCreateDto = new ExpenseCreateDto();
-        expenseCreateDto.setAmount(50f);
+        expenseCreateDto.setAmount(new BigDecimal("50"));
         expenseCreateDto.setDate(new Date());
         expenseCreateDto.setComment("New Expense");
 
         expenseUpdateDto = new ExpenseUpdateDto();
-        expenseUpdateDto.setAmount(75f);
+        expenseUpdateDto.setAmount(new BigDecimal("75.00"));
         expenseUpdateDto.setComment("Updated Expense Comment");
 
         pageable = PageRequest.of(0, 10);
@@ -117,8 +138,8 @@ class BudgetServiceImplTest {
         when(projectRepository.findById(projectId)).thenReturn(Optional.of(project));
         when(projectBudgetRepository.findById(projectId)).thenReturn(Optional.of(projectBudget));
         when(projectBudgetRepository.existsById(projectId)).thenReturn(true);
-        when(budgetExpenseRepository.sumExpensesByBudgetId(projectId)).thenReturn(Optional.of(100f));
         when(budgetExpenseRepository.findByIdAndBudgetId(expenseId, projectId)).thenReturn(Optional.of(budgetExpense));
+        ReflectionTestUtils.setField(budgetService, "maxImportRows", 5000);
 
     }
 
@@ -139,7 +160,7 @@ class BudgetServiceImplTest {
 
         budgetCreateDto = new BudgetCreateDto();
         budgetCreateDto.setCurrency("USD");
-        budgetCreateDto.setTotalAmount(10000f);
+        budgetCreateDto.setTotalAmount(new BigDecimal("10000.00"));
 
         // Test
         when(projectService.isUserOwnerOfProject(projectId, currentUserId)).thenReturn(true);
@@ -158,7 +179,7 @@ class BudgetServiceImplTest {
         assertEquals(projectId, result.getProjectId());
         assertEquals(budgetCreateDto.getCurrency(), result.getCurrency());
         assertEquals(budgetCreateDto.getTotalAmount(), result.getTotalAmount());
-        assertEquals(0f, result.getSpentAmount());
+        assertEquals(BigDecimal.ZERO, result.getSpentAmount());
         assertEquals(budgetCreateDto.getTotalAmount(), result.getRemainingAmount());
         assertNotNull(result.getExpenses());
         assertTrue(result.getExpenses().isEmpty());
@@ -212,7 +233,7 @@ class BudgetServiceImplTest {
         BudgetResponseDto response = budgetService.getProjectBudget(projectId, currentUserId);
         assertNotNull(response);
         assertEquals(projectBudget.getCurrency(), response.getCurrency());
-        assertEquals(100f, response.getSpentAmount());
+        assertEquals(new BigDecimal("100.00"), response.getSpentAmount());
         verify(projectService).verifyUserIsProjectMember(projectId, currentUserId);
     }
 
@@ -227,13 +248,52 @@ class BudgetServiceImplTest {
     // --- updateProjectBudget Tests ---
     @Test
     void updateProjectBudget_success() {
-        when(projectBudgetRepository.save(any(ProjectBudget.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(projectBudgetRepository.saveAndFlush(any(ProjectBudget.class))).thenAnswer(invocation -> invocation.getArgument(0));
         BudgetResponseDto response = budgetService.updateProjectBudget(projectId, budgetUpdateDto, currentUserId);
 
         assertNotNull(response);
         assertEquals(budgetUpdateDto.getCurrency(), response.getCurrency());
         assertEquals(budgetUpdateDto.getTotalAmount(), response.getTotalAmount());
-        verify(projectBudgetRepository).save(any(ProjectBudget.class));
+        verify(projectBudgetRepository).saveAndFlush(any(ProjectBudget.class));
+    }
+
+    @Test
+    void updateProjectBudget_currencyWithFewerDecimals_rescalesTotalAndExpenses() {
+        projectBudget.setTotalAmount(new BigDecimal("1000.75"));
+        projectBudget.setSpentAmount(new BigDecimal("100.99"));
+        BudgetUpdateDto currencyOnly = new BudgetUpdateDto();
+        currencyOnly.setCurrency("JPY");
+        // 100.50 and 0.49 after rounding in the database
+        when(budgetExpenseRepository.sumExpensesByBudgetId(projectId)).thenReturn(Optional.of(new BigDecimal("101.0000")));
+        when(projectBudgetRepository.saveAndFlush(any(ProjectBudget.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        BudgetResponseDto response = budgetService.updateProjectBudget(projectId, currencyOnly, currentUserId);
+
+        assertEquals(new BigDecimal("1001"), response.getTotalAmount());
+        // Recalculated from the rounded expenses, not rounded from the old spent amount
+        assertEquals(new BigDecimal("101"), projectBudget.getSpentAmount());
+        verify(budgetExpenseRepository).roundAmountsByBudgetId(projectId, 0);
+        verify(budgetExpenseRepository, never()).save(any(BudgetExpense.class));
+    }
+
+    @Test
+    void updateProjectBudget_sameCurrency_doesNotTouchExpenses() {
+        BudgetUpdateDto totalOnly = new BudgetUpdateDto();
+        totalOnly.setTotalAmount(new BigDecimal("1500.00"));
+        when(projectBudgetRepository.saveAndFlush(any(ProjectBudget.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        budgetService.updateProjectBudget(projectId, totalOnly, currentUserId);
+
+        verify(budgetExpenseRepository, never()).roundAmountsByBudgetId(any(), anyInt());
+    }
+
+    @Test
+    void updateProjectBudget_concurrentBudgetWrite_throwsConcurrentBudgetModificationException() {
+        when(projectBudgetRepository.saveAndFlush(projectBudget))
+                .thenThrow(new ObjectOptimisticLockingFailureException(ProjectBudget.class, projectId));
+
+        assertThrows(ConcurrentBudgetModificationException.class,
+                () -> budgetService.updateProjectBudget(projectId, budgetUpdateDto, currentUserId));
     }
 
     @Test
@@ -247,7 +307,7 @@ class BudgetServiceImplTest {
         assertNotNull(response);
         assertEquals(projectBudget.getCurrency(), response.getCurrency());
         assertEquals(projectBudget.getTotalAmount(), response.getTotalAmount());
-        verify(projectBudgetRepository, never()).save(any(ProjectBudget.class));
+        verify(projectBudgetRepository, never()).saveAndFlush(any(ProjectBudget.class));
     }
 
 
@@ -267,19 +327,100 @@ class BudgetServiceImplTest {
     // --- getRemainingProjectBudget Tests ---
     @Test
     void getRemainingProjectBudget_success() {
-        when(budgetExpenseRepository.sumExpensesByBudgetId(projectId)).thenReturn(Optional.of(100f));
-        projectBudget.setTotalAmount(1000f);
+        projectBudget.setTotalAmount(new BigDecimal("1000.00"));
         when(projectBudgetRepository.findById(projectId)).thenReturn(Optional.of(projectBudget));
 
 
         RemainingBudgetDto response = budgetService.getRemainingProjectBudget(projectId, currentUserId);
         assertNotNull(response);
-        assertEquals(1000f, response.getTotalAmount());
-        assertEquals(100f, response.getSpentAmount());
-        assertEquals(900f, response.getRemainingAmount());
+        assertEquals(new BigDecimal("1000.00"), response.getTotalAmount());
+        assertEquals(new BigDecimal("100.00"), response.getSpentAmount());
+        assertEquals(new BigDecimal("900.00"), response.getRemainingAmount());
         assertEquals(projectBudget.getCurrency(), response.getCurrency());
     }
 
+    // --- getBudgetAnalytics Tests ---
+    @Test
+    void getBudgetAnalytics_monthly_fillsEmptyPeriodsAndAccumulates() {
+        LocalDate from = LocalDate.of(2024, 3, 15);
+        LocalDate to = LocalDate.of(2024, 5, 31);
+        when(budgetExpenseRepository.sumExpensesByBudgetIdBefore(projectId, utcStartOf(from)))
+                .thenReturn(Optional.of(new BigDecimal("100.00")));
+        List<BudgetExpenseRepository.SpendBucket> rows = List.of(
+                spendBucket(LocalDate.of(2024, 3, 1), "40.00", 2), spendBucket(LocalDate.of(2024, 5, 1), "10.50", 1));
+        when(budgetExpenseRepository.sumExpensesByPeriod(projectId, "month", TimeZone.getDefault().getID(),
+                utcStartOf(from), utcStartOf(LocalDate.of(2024, 6, 1))))
+                .thenReturn(rows);
+
+        BudgetAnalyticsDto result = budgetService.getBudgetAnalytics(projectId, currentUserId, AnalyticsGranularity.MONTH, from, to);
+
+        assertEquals(List.of(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 4, 1), LocalDate.of(2024, 5, 1)),
+                result.getBuckets().stream().map(SpendBucketDto::getPeriodStart).toList());
+        assertEquals(BigDecimal.ZERO, result.getBuckets().get(1).getSpentAmount());
+        assertEquals(0L, result.getBuckets().get(1).getExpenseCount());
+        assertEquals(new BigDecimal("140.00"), result.getBuckets().get(1).getCumulativeSpentAmount());
+        assertEquals(new BigDecimal("150.50"), result.getBuckets().get(2).getCumulativeSpentAmount());
+        assertEquals(new BigDecimal("849.50"), result.getBuckets().get(2).getRemainingAmount());
+        assertEquals(new BigDecimal("50.50"), result.getSpentInRange());
+    }
+
+    @Test
+    void getBudgetAnalytics_weekly_startsOnMonday() {
+        LocalDate from = LocalDate.of(2024, 5, 8); // Wednesday
+        LocalDate to = LocalDate.of(2024, 5, 20);
+        when(budgetExpenseRepository.sumExpensesByPeriod(eq(projectId), eq("week"), any(), any(), any())).thenReturn(List.of());
+
+        BudgetAnalyticsDto result = budgetService.getBudgetAnalytics(projectId, currentUserId, AnalyticsGranularity.WEEK, from, to);
+
+        assertEquals(List.of(LocalDate.of(2024, 5, 6), LocalDate.of(2024, 5, 13), LocalDate.of(2024, 5, 20)),
+                result.getBuckets().stream().map(SpendBucketDto::getPeriodStart).toList());
+        assertEquals(new BigDecimal("1000.00"), result.getBuckets().get(2).getRemainingAmount());
+    }
+
+    @Test
+    void getBudgetAnalytics_nonUtcDefaultZone_usesUtcDays() {
+        TimeZone defaultZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("America/Los_Angeles"));
+        try {
+            LocalDate from = LocalDate.of(2024, 5, 1);
+            LocalDate to = LocalDate.of(2024, 5, 2);
+            // Imported expenses are at UTC start of day, stored as the previous evening in Los Angeles wall-clock time
+            List<BudgetExpenseRepository.SpendBucket> rows = List.of(spendBucket(LocalDate.of(2024, 5, 1), "25.00", 1));
+            when(budgetExpenseRepository.sumExpensesByPeriod(projectId, "day", "America/Los_Angeles",
+                    Timestamp.from(Instant.parse("2024-05-01T00:00:00Z")), Timestamp.from(Instant.parse("2024-05-03T00:00:00Z"))))
+                    .thenReturn(rows);
+
+            BudgetAnalyticsDto result = budgetService.getBudgetAnalytics(projectId, currentUserId, AnalyticsGranularity.DAY, from, to);
+
+            verify(budgetExpenseRepository).sumExpensesByBudgetIdBefore(projectId, Timestamp.from(Instant.parse("2024-05-01T00:00:00Z")));
+            assertEquals(LocalDate.of(2024, 5, 1), result.getBuckets().get(0).getPeriodStart());
+            assertEquals(new BigDecimal("25.00"), result.getBuckets().get(0).getSpentAmount());
+            assertEquals(BigDecimal.ZERO, result.getBuckets().get(1).getSpentAmount());
+        } finally {
+            TimeZone.setDefault(defaultZone);
+        }
+    }
+
+    @Test
+    void getBudgetAnalytics_tooManyDailyPeriods_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class, () -> budgetService.getBudgetAnalytics(projectId, currentUserId,
+                AnalyticsGranularity.DAY, LocalDate.of(2020, 1, 1), LocalDate.of(2024, 1, 1)));
+        verify(budgetExpenseRepository, never()).sumExpensesByPeriod(any(), any(), any(), any(), any());
+    }
+
+    private static Timestamp utcStartOf(LocalDate date) {
+        return Timestamp.from(date.atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+
+    private BudgetExpenseRepository.SpendBucket spendBucket(LocalDate periodStart, String spent, long count) {
+        BudgetExpenseRepository.SpendBucket bucket = mock(BudgetExpenseRepository.SpendBucket.class);
+        // The query returns period starts as UTC wall-clock time
+        when(bucket.getPeriodStart()).thenReturn(Timestamp.valueOf(periodStart.atStartOfDay()));
+        when(bucket.getSpentAmount()).thenReturn(new BigDecimal(spent));
+        when(bucket.getExpenseCount()).thenReturn(count);
+        return bucket;
+    }
+
     // --- addExpenseToBudget Tests ---
     @Test
     void addExpenseToBudget_success() {
@@ -292,6 +433,138 @@ class BudgetServiceImplTest {
         assertNotNull(response);
         assertEquals(expenseCreateDto.getComment(), response.getComment());
         verify(budgetExpenseRepository).save(any(BudgetExpense.class));
+        assertEquals(new BigDecimal("150.00"), projectBudget.getSpentAmount());
+        verify(projectBudgetRepository).saveAndFlush(projectBudget);
+    }
+
+    @Test
+    void addExpenseToBudget_manySmallExpenses_spentAmountStaysExact() {
+        when(budgetExpenseRepository.save(any(BudgetExpense.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        projectBudget.setSpentAmount(BigDecimal.ZERO);
+        expenseCreateDto.setAmount(new BigDecimal("0.10"));
+
+        for (int i = 0; i < 10_000; i++) {
+            budgetService.addExpenseToBudget(projectId, expenseCreateDto, currentUserId);
+        }
+
+        assertEquals(new BigDecimal("1000.00"), projectBudget.getSpentAmount());
+    }
+
+    @Test
+    void addExpenseToBudget_moreDecimalsThanCurrencyAllows_throwsIllegalArgumentException() {
+        projectBudget.setCurrency("JPY");
+        expenseCreateDto.setAmount(new BigDecimal("10.50"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> budgetService.addExpenseToBudget(projectId, expenseCreateDto, currentUserId));
+        verify(budgetExpenseRepository, never()).save(any(BudgetExpense.class));
+    }
+
+    @Test
+    void addExpenseToBudget_concurrentBudgetWrite_throwsConcurrentBudgetModificationException() {
+        when(budgetExpenseRepository.save(any(BudgetExpense.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(projectBudgetRepository.saveAndFlush(projectBudget))
+                .thenThrow(new ObjectOptimisticLockingFailureException(ProjectBudget.class, projectId));
+
+        assertThrows(ConcurrentBudgetModificationException.class,
+                () -> budgetService.addExpenseToBudget(projectId, expenseCreateDto, currentUserId));
+    }
+
+    // --- importExpenses Tests ---
+    @Test
+    void importExpenses_validRows_savesAllAndUpdatesSpentAmountOnce() {
+        ExpenseCreateDto second = new ExpenseCreateDto();
+        second.setAmount(new BigDecimal("12.5"));
+        second.setDate(new Date());
+        second.setComment("Studio time");
+
+        ExpenseImportResultDto result = budgetService.importExpenses(projectId, List.of(expenseCreateDto, second), currentUserId);
+
+        assertFalse(result.hasErrors());
+        assertEquals(2, result.getImportedCount());
+        assertEquals(new BigDecimal("62.50"), result.getImportedAmount());
+        ArgumentCaptor<List<BudgetExpense>> captor = ArgumentCaptor.forClass(List.class);
+        verify(budgetExpenseRepository).saveAll(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        assertEquals(new BigDecimal("12.50"), captor.getValue().get(1).getAmount());
+        assertEquals(new BigDecimal("162.50"), projectBudget.getSpentAmount());
+        verify(projectBudgetRepository, times(1)).saveAndFlush(projectBudget);
+        verify(projectService, times(1)).verifyUserIsProjectMember(projectId, currentUserId);
+    }
+
+    @Test
+    void importExpenses_invalidRows_savesNothingAndReportsEachRow() {
+        ExpenseCreateDto negative = new ExpenseCreateDto();
+        negative.setAmount(new BigDecimal("-5"));
+        negative.setDate(new Date());
+        negative.setComment("Refund");
+        ExpenseCreateDto tooPrecise = new ExpenseCreateDto();
+        tooPrecise.setAmount(new BigDecimal("1.005"));
+        tooPrecise.setDate(new Date());
+        tooPrecise.setComment("Rounding");
+
+        ExpenseImportResultDto result = budgetService.importExpenses(
+                projectId, Arrays.asList(expenseCreateDto, negative, null, tooPrecise), currentUserId);
+
+        assertTrue(result.hasErrors());
+        assertEquals(0, result.getImportedCount());
+        assertEquals(List.of(2, 3, 4), result.getErrors().stream().map(ExpenseImportErrorDto::getRow).toList());
+        assertEquals("Amount must be positive", result.getErrors().get(0).getMessage());
+        verify(budgetExpenseRepository, never()).saveAll(any());
+        verify(projectBudgetRepository, never()).saveAndFlush(any(ProjectBudget.class));
+        assertEquals(new BigDecimal("100.00"), projectBudget.getSpentAmount());
+    }
+
+    @Test
+    void importExpenses_tooManyRows_throwsIllegalArgumentException() {
+        ReflectionTestUtils.setField(budgetService, "maxImportRows", 1);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> budgetService.importExpenses(projectId, List.of(expenseCreateDto, expenseCreateDto), currentUserId));
+        verify(budgetExpenseRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void importExpensesCsv_validRows_parsesQuotedFieldsAndDates() throws IOException {
+        String csv = "date,amount,comment\n" +
+                "2024-05-10,250.75,\"Mixing, mastering\"\n" +
+                "\n" +
+                "2024-05-11T09:30:00Z,10,\"The \"\"final\"\" cut\"\n";
+
+        ExpenseImportResultDto result = budgetService.importExpensesCsv(
+                projectId, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), currentUserId);
+
+        assertFalse(result.hasErrors());
+        assertEquals(2, result.getImportedCount());
+        ArgumentCaptor<List<BudgetExpense>> captor = ArgumentCaptor.forClass(List.class);
+        verify(budgetExpenseRepository).saveAll(captor.capture());
+        BudgetExpense first = captor.getValue().get(0);
+        assertEquals("Mixing, mastering", first.getComment());
+        assertEquals(new BigDecimal("250.75"), first.getAmount());
+        assertEquals(Instant.parse("2024-05-10T00:00:00Z"), first.getDate().toInstant());
+        assertEquals("The \"final\" cut", captor.getValue().get(1).getComment());
+    }
+
+    @Test
+    void importExpensesCsv_unreadableRows_reportsDataRowNumbers() throws IOException {
+        String csv = "amount,date,comment\n" +
+                "abc,2024-05-10,Bad amount\n" +
+                "10,2024-05-10,Fine\n" +
+                "10,10/05/2024,Bad date\n";
+
+        ExpenseImportResultDto result = budgetService.importExpensesCsv(
+                projectId, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), currentUserId);
+
+        assertEquals(List.of(1, 3), result.getErrors().stream().map(ExpenseImportErrorDto::getRow).toList());
+        verify(budgetExpenseRepository, never()).saveAll(any());
+    }
+
+    @Test
+    void importExpensesCsv_missingColumn_throwsIllegalArgumentException() {
+        String csv = "amount,comment\n10,No date\n";
+
+        assertThrows(IllegalArgumentException.class, () -> budgetService.importExpensesCsv(
+                projectId, new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), currentUserId));
     }
 
     // --- getExpenseById Tests ---
@@ -330,6 +603,19 @@ class BudgetServiceImplTest {
         assertEquals(expenseUpdateDto.getComment(), response.getComment());
         assertEquals(expenseUpdateDto.getAmount(), response.getAmount());
         verify(budgetExpenseRepository).save(any(BudgetExpense.class));
+        assertEquals(new BigDecimal("75.00"), projectBudget.getSpentAmount());
+        verify(projectBudgetRepository).saveAndFlush(projectBudget);
+    }
+
+    @Test
+    void updateExpense_commentOnly_doesNotTouchSpentAmount() {
+        when(budgetExpenseRepository.save(any(BudgetExpense.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        expenseUpdateDto.setAmount(null);
+
+        budgetService.updateExpense(projectId, expenseId, expenseUpdateDto, currentUserId);
+
+        assertEquals(new BigDecimal("100.00"), projectBudget.getSpentAmount());
+        verify(projectBudgetRepository, never()).saveAndFlush(any(ProjectBudget.class));
     }
 
     @Test
@@ -357,5 +643,35 @@ class BudgetServiceImplTest {
         doNothing().when(budgetExpenseRepository).delete(budgetExpense);
         budgetService.removeExpense(projectId, expenseId, currentUserId);
         verify(budgetExpenseRepository).delete(budgetExpense);
+        assertEquals(new BigDecimal("0.00"), projectBudget.getSpentAmount());
+        verify(projectBudgetRepository).saveAndFlush(projectBudget);
+    }
+
+    @Test
+    void scrollExpensesForProjectBudget_firstPage_returnsNextCursor() {
+        BudgetExpense laterExpense = new BudgetExpense();
+        laterExpense.setId(UUID.randomUUID());
+        laterExpense.setBudget(projectBudget);
+        laterExpense.setAmount(new BigDecimal("20.00"));
+        laterExpense.setDate(new Date(budgetExpense.getDate().getTime() + 1000));
+        when(budgetExpenseRepository.findByBudgetIdOrderByDateAscIdAsc(projectId, PageRequest.of(0, 2)))
+                .thenReturn(List.of(budgetExpense, laterExpense));
+
+        CursorPage<ExpenseResponseDto> result = budgetService.scrollExpensesForProjectBudget(projectId, currentUserId, null, 1);
+
+        assertEquals(1, result.getContent().size());
+        assertTrue(result.isHasNext());
+        KeysetCursor next = KeysetCursor.decode(result.getNextCursor());
+        assertEquals(budgetExpense.getDate().toInstant(), next.getSortKey());
+        assertEquals(expenseId, next.getId());
+    }
+
+    @Test
+    void scrollExpensesForProjectBudget_budgetNotFound_throwsBudgetNotFoundException() {
+        when(projectBudgetRepository.existsById(projectId)).thenReturn(false);
+
+        assertThrows(BudgetNotFoundException.class,
+                () -> budgetService.scrollExpensesForProjectBudget(projectId, currentUserId, null, 10));
+        verify(budgetExpenseRepository, never()).findByBudgetIdOrderByDateAscIdAsc(any(), any());
     }
-}
\ No newline at end of file
+}
@@ -1,7 +1,12 @@
 package com.spshpau.projectservice.services.impl;
 
+import com.spshpau.projectservice.dto.CursorPage;
 import com.spshpau.projectservice.dto.FileDownloadDto;
+import com.spshpau.projectservice.dto.KeysetCursor;
+import com.spshpau.projectservice.dto.PresignedUploadRequestDto;
+import com.spshpau.projectservice.dto.PresignedUploadResponseDto;
 import com.spshpau.projectservice.dto.ProjectFileResponseDto;
+import com.spshpau.projectservice.dto.UploadCompletionDto;
 import com.spshpau.projectservice.model.Project;
 import com.spshpau.projectservice.model.ProjectFile;
 import com.spshpau.projectservice.model.SimpleUser;
@@ -15,27 +20,48 @@ import com.spshpau.projectservice.services.filestorage.S3FileStorageService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.http.SdkHttpFullRequest;
+import software.amazon.awssdk.http.SdkHttpMethod;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.model.PresignedPutObjectRequest;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
 
@@ -55,6 +81,8 @@ class ProjectFileServiceImplTest {
     private S3FileStorageService s3FileStorageService;
     @Mock
     private MultipartFile multipartFile;
+    @Mock
+    private TransactionTemplate transactionTemplate;
 
     @InjectMocks
     private ProjectFileServiceImpl projectFileService;
@@ -95,11 +123,17 @@ class ProjectFileServiceImplTest {
         projectFile.setDescription("A test file");
 
         ReflectionTestUtils.setField(projectFileService, "bucketName", bucketName);
+        ReflectionTestUtils.setField(projectFileService, "s3TransferExecutor", (Executor) Runnable::run);
 
         doNothing().when(projectService).verifyUserIsProjectMember(projectId, uploaderUserId);
         when(projectRepository.findById(projectId)).thenReturn(Optional.of(project));
+        when(projectRepository.existsById(projectId)).thenReturn(true);
+        when(projectRepository.findByIdForUpdate(projectId)).thenReturn(Optional.of(project));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
         when(simpleUserService.findUserById(uploaderUserId)).thenReturn(uploader);
         when(projectFileRepository.findByIdAndProjectId(fileId, projectId)).thenReturn(Optional.of(projectFile));
+        when(s3FileStorageService.deleteFileVersionAsync(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(null));
         when(s3FileStorageService.generatePresignedDownloadUrl(anyString(), anyString())).thenReturn(new URL("http://example.com/download/test.pdf"));
     }
 
@@ -111,17 +145,20 @@ class ProjectFileServiceImplTest {
         when(multipartFile.getSize()).thenReturn(1024L);
         when(multipartFile.getOriginalFilename()).thenReturn("test.pdf");
         when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream("test data".getBytes()));
-        when(s3FileStorageService.uploadFile(anyString(), any(MultipartFile.class))).thenReturn("s3VersionId123");
+        when(s3FileStorageService.uploadFileAsync(anyString(), any(MultipartFile.class))).thenReturn(CompletableFuture.completedFuture("s3VersionId123"));
         when(projectFileRepository.save(any(ProjectFile.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
-        ProjectFileResponseDto response = projectFileService.uploadProjectFile(projectId, uploaderUserId, uploaderUsername, multipartFile, "Test description");
+        ProjectFileResponseDto response = projectFileService.uploadProjectFile(projectId, uploaderUserId, uploaderUsername, multipartFile, "Test description").join();
 
         assertNotNull(response);
         assertEquals("test.pdf", response.getOriginalFilename());
         assertEquals("s3VersionId123", response.getS3VersionId());
         verify(projectService).verifyUserIsProjectMember(projectId, uploaderUserId);
-        verify(s3FileStorageService).uploadFile(eq("projects/" + projectId + "/files/test.pdf"), eq(multipartFile));
-        verify(projectFileRepository).save(any(ProjectFile.class));
+        verify(s3FileStorageService).uploadFileAsync(eq("projects/" + projectId + "/files/test.pdf"), eq(multipartFile));
+        verify(projectRepository).findByIdForUpdate(projectId);
+        InOrder inOrder = inOrder(projectFileRepository);
+        inOrder.verify(projectFileRepository).clearLatestVersion(projectId, "test.pdf");
+        inOrder.verify(projectFileRepository).save(argThat(ProjectFile::isLatestVersion));
     }
 
     @Test
@@ -153,7 +190,7 @@ class ProjectFileServiceImplTest {
 
     @Test
     void uploadProjectFile_fail_projectNotFound() {
-        when(projectRepository.findById(projectId)).thenReturn(Optional.empty());
+        when(projectRepository.existsById(projectId)).thenReturn(false);
         when(multipartFile.isEmpty()).thenReturn(false);
         when(multipartFile.getContentType()).thenReturn("application/pdf");
         when(multipartFile.getSize()).thenReturn(1024L);
@@ -172,22 +209,250 @@ class ProjectFileServiceImplTest {
         when(multipartFile.getSize()).thenReturn(1024L);
         when(multipartFile.getOriginalFilename()).thenReturn("test.pdf");
         when(multipartFile.getInputStream()).thenReturn(new ByteArrayInputStream("test data".getBytes()));
-        when(s3FileStorageService.uploadFile(anyString(), any(MultipartFile.class))).thenReturn(null);
+        when(s3FileStorageService.uploadFileAsync(anyString(), any(MultipartFile.class))).thenReturn(CompletableFuture.completedFuture(null));
 
-        assertThrows(IOException.class, () -> {
-            projectFileService.uploadProjectFile(projectId, uploaderUserId, uploaderUsername, multipartFile, "Test description");
+        CompletableFuture<ProjectFileResponseDto> upload = projectFileService.uploadProjectFile(projectId, uploaderUserId, uploaderUsername, multipartFile, "Test description");
+
+        CompletionException exception = assertThrows(CompletionException.class, upload::join);
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+        verify(transactionTemplate, never()).execute(any());
+    }
+
+    @Test
+    void uploadProjectFile_fail_metadataCommitFails_deletesUploadedVersion() throws IOException {
+        when(multipartFile.isEmpty()).thenReturn(false);
+        when(multipartFile.getContentType()).thenReturn("application/pdf");
+        when(multipartFile.getSize()).thenReturn(1024L);
+        when(multipartFile.getOriginalFilename()).thenReturn("test.pdf");
+        when(s3FileStorageService.uploadFileAsync(anyString(), any(MultipartFile.class))).thenReturn(CompletableFuture.completedFuture("s3VersionId123"));
+        doThrow(new CannotCreateTransactionException("Connection refused")).when(transactionTemplate).execute(any());
+
+        CompletableFuture<ProjectFileResponseDto> upload = projectFileService.uploadProjectFile(projectId, uploaderUserId, uploaderUsername, multipartFile, "Test description");
+
+        CompletionException exception = assertThrows(CompletionException.class, upload::join);
+        assertInstanceOf(CannotCreateTransactionException.class, exception.getCause());
+
+        verify(s3FileStorageService).deleteFileVersion("projects/" + projectId + "/files/test.pdf", "s3VersionId123");
+    }
+
+    @Test
+    void uploadProjectFile_fail_s3UploadFails_doesNotTouchDatabase() throws IOException {
+        when(multipartFile.isEmpty()).thenReturn(false);
+        when(multipartFile.getContentType()).thenReturn("application/pdf");
+        when(multipartFile.getSize()).thenReturn(1024L);
+        when(multipartFile.getOriginalFilename()).thenReturn("test.pdf");
+        when(s3FileStorageService.uploadFileAsync(anyString(), any(MultipartFile.class)))
+                .thenReturn(CompletableFuture.failedFuture(SdkClientException.create("S3 unavailable")));
+
+        CompletableFuture<ProjectFileResponseDto> upload = projectFileService.uploadProjectFile(projectId, uploaderUserId, uploaderUsername, multipartFile, "Test description");
+
+        CompletionException exception = assertThrows(CompletionException.class, upload::join);
+        assertInstanceOf(SdkClientException.class, exception.getCause());
+
+        verify(transactionTemplate, never()).execute(any());
+        verify(s3FileStorageService, never()).deleteFileVersion(anyString(), anyString());
+    }
+
+    // --- uploadProjectFileStream Tests ---
+    @Test
+    void uploadProjectFileStream_success() throws IOException {
+        byte[] content = "%PDF-1.7 test data".getBytes();
+        when(s3FileStorageService.uploadFileStream(anyString(), anyString(), anyString(), any(InputStream.class)))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(3, InputStream.class).readAllBytes();
+                    return "s3VersionId123";
+                });
+        when(projectFileRepository.save(any(ProjectFile.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ProjectFileResponseDto response = projectFileService.uploadProjectFileStream(projectId, uploaderUserId, "test.pdf",
+                "application/pdf; charset=binary", content.length, new ByteArrayInputStream(content), "Test description");
+
+        assertEquals("test.pdf", response.getOriginalFilename());
+        assertEquals("application/pdf", response.getContentType());
+        assertEquals(content.length, response.getFileSize());
+        verify(s3FileStorageService).uploadFileStream(eq("projects/" + projectId + "/files/test.pdf"), eq("application/pdf"), eq("test.pdf"), any(InputStream.class));
+    }
+
+    @Test
+    void uploadProjectFileStream_fail_signatureMismatch() throws IOException {
+        byte[] content = "GIF89a not a pdf".getBytes();
+
+        assertThrows(IllegalArgumentException.class, () -> projectFileService.uploadProjectFileStream(projectId, uploaderUserId,
+                "test.pdf", "application/pdf", content.length, new ByteArrayInputStream(content), null));
+        verify(s3FileStorageService, never()).uploadFileStream(anyString(), anyString(), anyString(), any(InputStream.class));
+    }
+
+    @Test
+    void uploadProjectFileStream_fail_declaredLengthTooLarge() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> projectFileService.uploadProjectFileStream(projectId, uploaderUserId,
+                "test.pdf", "application/pdf", 60 * 1024 * 1024L, new ByteArrayInputStream(new byte[0]), null));
+        verify(s3FileStorageService, never()).uploadFileStream(anyString(), anyString(), anyString(), any(InputStream.class));
+    }
+
+    @Test
+    void uploadProjectFileStream_fail_bodyExceedsLimitWithoutContentLength() throws IOException {
+        byte[] header = "%PDF-".getBytes();
+        InputStream content = new SequenceInputStream(new ByteArrayInputStream(header), new InputStream() {
+            private long remaining = 50 * 1024 * 1024L;
+
+            @Override
+            public int read() {
+                return remaining-- > 0 ? 0 : -1;
+            }
         });
+        when(s3FileStorageService.uploadFileStream(anyString(), anyString(), anyString(), any(InputStream.class)))
+                .thenAnswer(invocation -> {
+                    invocation.getArgument(3, InputStream.class).transferTo(OutputStream.nullOutputStream());
+                    return "s3VersionId123";
+                });
+
+        assertThrows(IllegalArgumentException.class, () -> projectFileService.uploadProjectFileStream(projectId, uploaderUserId,
+                "test.pdf", "application/pdf", -1L, content, null));
+        verify(projectFileRepository, never()).save(any(ProjectFile.class));
+    }
+
+    // --- presigned upload Tests ---
+    @Test
+    void createPresignedUpload_success() {
+        PresignedUploadRequestDto uploadRequest = new PresignedUploadRequestDto();
+        uploadRequest.setOriginalFilename("mix.wav");
+        uploadRequest.setContentType("audio/wav");
+        uploadRequest.setFileSize(4096L);
+        Instant expiration = Instant.now().plusSeconds(900);
+        String s3Key = "projects/" + projectId + "/files/mix.wav";
+        PresignedPutObjectRequest presignedRequest = PresignedPutObjectRequest.builder()
+                .expiration(expiration)
+                .isBrowserExecutable(false)
+                .signedHeaders(Map.of("host", List.of("bucket.s3.amazonaws.com"), "content-type", List.of("audio/wav")))
+                .httpRequest(SdkHttpFullRequest.builder()
+                        .method(SdkHttpMethod.PUT)
+                        .protocol("https")
+                        .host("bucket.s3.amazonaws.com")
+                        .encodedPath("/" + s3Key)
+                        .build())
+                .build();
+        when(s3FileStorageService.generatePresignedUploadUrl(s3Key, "audio/wav", 4096L, "mix.wav")).thenReturn(presignedRequest);
+
+        PresignedUploadResponseDto response = projectFileService.createPresignedUpload(projectId, uploaderUserId, uploadRequest);
+
+        assertEquals("PUT", response.getHttpMethod());
+        assertEquals(s3Key, response.getS3ObjectKey());
+        assertEquals(Map.of("content-type", "audio/wav"), response.getRequiredHeaders());
+        assertEquals(expiration, response.getExpiresAt());
+        verify(projectService).verifyUserIsProjectMember(projectId, uploaderUserId);
+    }
+
+    @Test
+    void createPresignedUpload_fail_fileTooLarge() {
+        PresignedUploadRequestDto uploadRequest = new PresignedUploadRequestDto();
+        uploadRequest.setOriginalFilename("mix.wav");
+        uploadRequest.setContentType("audio/wav");
+        uploadRequest.setFileSize(60 * 1024 * 1024L);
+
+        assertThrows(IllegalArgumentException.class, () ->
+                projectFileService.createPresignedUpload(projectId, uploaderUserId, uploadRequest));
+        verify(s3FileStorageService, never()).generatePresignedUploadUrl(anyString(), anyString(), anyLong(), anyString());
+    }
+
+    @Test
+    void completePresignedUpload_success() {
+        String s3Key = "projects/" + projectId + "/files/test.pdf";
+        when(s3FileStorageService.headObject(s3Key, "v1")).thenReturn(HeadObjectResponse.builder()
+                .versionId("v1").contentType("application/pdf").contentLength(2048L).build());
+        when(s3FileStorageService.readObjectPrefix(eq(s3Key), eq("v1"), anyInt())).thenReturn("%PDF-1.7\n".getBytes());
+        when(projectFileRepository.findByS3ObjectKeyAndS3VersionId(s3Key, "v1")).thenReturn(Optional.empty());
+        when(projectFileRepository.save(any(ProjectFile.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        ProjectFileResponseDto response = projectFileService.completePresignedUpload(projectId, uploaderUserId, completion("test.pdf", "v1"));
+
+        assertEquals("v1", response.getS3VersionId());
+        assertEquals(2048L, response.getFileSize());
+        assertEquals("application/pdf", response.getContentType());
+        verify(projectFileRepository).save(any(ProjectFile.class));
+    }
+
+    @Test
+    void completePresignedUpload_alreadyCompleted_returnsExistingFile() {
+        String s3Key = projectFile.getS3ObjectKey();
+        when(s3FileStorageService.headObject(s3Key, null)).thenReturn(HeadObjectResponse.builder()
+                .versionId("s3VersionId123").contentType("application/pdf").contentLength(1024L).build());
+        when(projectFileRepository.findByS3ObjectKeyAndS3VersionId(s3Key, "s3VersionId123")).thenReturn(Optional.of(projectFile));
+
+        ProjectFileResponseDto response = projectFileService.completePresignedUpload(projectId, uploaderUserId, completion("test.pdf", null));
+
+        assertEquals(fileId, response.getId());
+        verify(projectFileRepository, never()).save(any(ProjectFile.class));
+    }
+
+    @Test
+    void completePresignedUpload_fail_signatureMismatch_deletesVersion() {
+        String s3Key = "projects/" + projectId + "/files/test.pdf";
+        when(s3FileStorageService.headObject(s3Key, "v1")).thenReturn(HeadObjectResponse.builder()
+                .versionId("v1").contentType("application/pdf").contentLength(2048L).build());
+        when(s3FileStorageService.readObjectPrefix(eq(s3Key), eq("v1"), anyInt())).thenReturn("MZ\u0090\u0000".getBytes());
+        when(projectFileRepository.findByS3ObjectKeyAndS3VersionId(s3Key, "v1")).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () ->
+                projectFileService.completePresignedUpload(projectId, uploaderUserId, completion("test.pdf", "v1")));
+
+        verify(s3FileStorageService).deleteFileVersion(s3Key, "v1");
+        verify(projectFileRepository, never()).save(any(ProjectFile.class));
+    }
+
+    @Test
+    void completePresignedUpload_fail_objectMissing() {
+        when(s3FileStorageService.headObject(anyString(), any())).thenThrow(S3Exception.builder().statusCode(404).build());
+
+        assertThrows(FileNotFoundException.class, () ->
+                projectFileService.completePresignedUpload(projectId, uploaderUserId, completion("test.pdf", null)));
+    }
+
+    private UploadCompletionDto completion(String originalFilename, String s3VersionId) {
+        UploadCompletionDto completion = new UploadCompletionDto();
+        completion.setOriginalFilename(originalFilename);
+        completion.setS3VersionId(s3VersionId);
+        return completion;
     }
 
     // --- getProjectFiles Tests ---
     @Test
     void getProjectFiles_success() {
         when(projectFileRepository.findLatestVersionOfEachFileByProjectId(projectId)).thenReturn(Collections.singletonList(projectFile));
-        List<ProjectFileResponseDto> response = projectFileService.getProjectFiles(projectId, uploaderUserId);
+        List<ProjectFileResponseDto> response = projectFileService.getProjectFiles(projectId, uploaderUserId, false);
         assertNotNull(response);
         assertEquals(1, response.size());
         assertEquals(projectFile.getOriginalFilename(), response.get(0).getOriginalFilename());
+        assertNull(response.get(0).getDownloadUrl());
         verify(projectService).verifyUserIsProjectMember(projectId, uploaderUserId);
+        verify(s3FileStorageService, never()).generatePresignedDownloadUrl(anyString(), anyString());
+    }
+
+    @Test
+    void getProjectFiles_withDownloadUrls_signsEachFileWithoutPerFileLookups() {
+        when(projectFileRepository.findLatestVersionOfEachFileByProjectId(projectId)).thenReturn(Collections.singletonList(projectFile));
+
+        List<ProjectFileResponseDto> response = projectFileService.getProjectFiles(projectId, uploaderUserId, true);
+
+        assertEquals("http://example.com/download/test.pdf", response.get(0).getDownloadUrl());
+        verify(projectService, times(1)).verifyUserIsProjectMember(projectId, uploaderUserId);
+        verify(projectFileRepository, never()).findByIdAndProjectId(any(), any());
+    }
+
+    @Test
+    void getProjectFiles_withDownloadUrls_skipsFilesWithoutS3Version() {
+        ProjectFile incompleteFile = new ProjectFile();
+        incompleteFile.setId(UUID.randomUUID());
+        incompleteFile.setProject(project);
+        incompleteFile.setOriginalFilename("mix.wav");
+        incompleteFile.setS3ObjectKey("projects/" + projectId + "/files/mix.wav");
+        when(projectFileRepository.findLatestVersionOfEachFileByProjectId(projectId)).thenReturn(List.of(projectFile, incompleteFile));
+
+        List<ProjectFileResponseDto> response = projectFileService.getProjectFiles(projectId, uploaderUserId, true);
+
+        assertEquals(2, response.size());
+        assertNotNull(response.get(0).getDownloadUrl());
+        assertNull(response.get(1).getDownloadUrl());
+        verify(s3FileStorageService, times(1)).generatePresignedDownloadUrl(anyString(), anyString());
     }
 
     // --- getProjectFileMetadata Tests ---
@@ -221,6 +486,7 @@ class ProjectFileServiceImplTest {
     void generateDownloadUrl_fail_s3KeyMissing() {
         projectFile.setS3ObjectKey(null);
         when(projectFileRepository.findByIdAndProjectId(fileId, projectId)).thenReturn(Optional.of(projectFile));
+        when(s3FileStorageService.deleteFileVersionAsync(anyString(), anyString())).thenReturn(CompletableFuture.completedFuture(null));
         assertThrows(IllegalStateException.class, () -> {
             projectFileService.generateDownloadUrl(projectId, fileId, uploaderUserId);
         });
@@ -229,21 +495,62 @@ class ProjectFileServiceImplTest {
     // --- deleteProjectFile Tests ---
     @Test
     void deleteProjectFile_success() {
-        doNothing().when(s3FileStorageService).deleteFileVersion(projectFile.getS3ObjectKey(), projectFile.getS3VersionId());
         doNothing().when(projectFileRepository).delete(projectFile);
 
-        projectFileService.deleteProjectFile(projectId, fileId, uploaderUserId);
+        projectFileService.deleteProjectFile(projectId, fileId, uploaderUserId).join();
+
+        InOrder inOrder = inOrder(s3FileStorageService, projectFileRepository);
+        inOrder.verify(s3FileStorageService).deleteFileVersionAsync(projectFile.getS3ObjectKey(), projectFile.getS3VersionId());
+        inOrder.verify(projectFileRepository).delete(projectFile);
+    }
+
+    @Test
+    void deleteProjectFile_alreadyDeletedConcurrently_completesWithoutDeletingAgain() {
+        when(projectFileRepository.findByIdAndProjectId(fileId, projectId))
+                .thenReturn(Optional.of(projectFile))
+                .thenReturn(Optional.empty());
+
+        projectFileService.deleteProjectFile(projectId, fileId, uploaderUserId).join();
+
+        verify(projectFileRepository, never()).delete(any(ProjectFile.class));
+    }
+
+    @Test
+    void deleteProjectFile_latestVersion_promotesPreviousVersion() {
+        projectFile.setLatestVersion(true);
+        ProjectFile previousVersion = new ProjectFile();
+        previousVersion.setId(UUID.randomUUID());
+        previousVersion.setOriginalFilename("test.pdf");
+        when(projectFileRepository.findFirstByProjectIdAndOriginalFilenameOrderByUploadTimestampDescIdDesc(projectId, "test.pdf"))
+                .thenReturn(Optional.of(previousVersion));
+
+        projectFileService.deleteProjectFile(projectId, fileId, uploaderUserId).join();
+
+        verify(projectRepository).findByIdForUpdate(projectId);
+        verify(projectFileRepository).delete(projectFile);
+        assertTrue(previousVersion.isLatestVersion());
+    }
+
+    @Test
+    void deleteProjectFile_olderVersion_keepsLatestVersion() {
+        projectFile.setLatestVersion(false);
+
+        projectFileService.deleteProjectFile(projectId, fileId, uploaderUserId).join();
 
-        verify(s3FileStorageService).deleteFileVersion(projectFile.getS3ObjectKey(), projectFile.getS3VersionId());
         verify(projectFileRepository).delete(projectFile);
+        verify(projectFileRepository, never()).findFirstByProjectIdAndOriginalFilenameOrderByUploadTimestampDescIdDesc(any(), any());
     }
 
     @Test
     void deleteProjectFile_fail_s3DeleteFails() {
-        doThrow(new RuntimeException("S3 Error")).when(s3FileStorageService).deleteFileVersion(anyString(), anyString());
-        assertThrows(IllegalStateException.class, () -> {
-            projectFileService.deleteProjectFile(projectId, fileId, uploaderUserId);
-        });
+        when(s3FileStorageService.deleteFileVersionAsync(anyString(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("S3 Error")));
+
+        CompletableFuture<Void> deletion = projectFileService.deleteProjectFile(projectId, fileId, uploaderUserId);
+
+        CompletionException exception = assertThrows(CompletionException.class, deletion::join);
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+        verify(projectFileRepository, never()).delete(any(ProjectFile.class));
     }
 
     // --- getAllVersionsOfFile Tests ---
@@ -260,4 +567,28 @@ class ProjectFileServiceImplTest {
         assertEquals(originalFilename, response.get(0).getOriginalFilename());
         verify(projectService).verifyUserIsProjectMember(projectId, uploaderUserId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void scrollVersionsOfFile_withCursor_returnsOlderVersions() {
+        KeysetCursor cursor = new KeysetCursor(Instant.now(), UUID.randomUUID());
+        doNothing().when(projectService).verifyUserIsProjectMember(projectId, uploaderUserId);
+        when(projectFileRepository.findVersionsBefore(projectId, "test.pdf", Timestamp.from(cursor.getSortKey()), cursor.getId(), PageRequest.of(0, 11)))
+                .thenReturn(List.of(projectFile));
+
+        CursorPage<ProjectFileResponseDto> result = projectFileService.scrollVersionsOfFile(projectId, "test.pdf", uploaderUserId, cursor.encode(), 10);
+
+        assertEquals(1, result.getContent().size());
+        assertEquals(fileId, result.getContent().get(0).getId());
+        assertFalse(result.isHasNext());
+        verify(projectFileRepository, never()).findByProjectIdAndOriginalFilenameOrderByUploadTimestampDescIdDesc(any(), any(), any());
+    }
+
+    @Test
+    void scrollVersionsOfFile_cursorWithoutSortKey_throwsIllegalArgumentException() {
+        String cursor = new KeysetCursor(null, UUID.randomUUID()).encode();
+        doNothing().when(projectService).verifyUserIsProjectMember(projectId, uploaderUserId);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> projectFileService.scrollVersionsOfFile(projectId, "test.pdf", uploaderUserId, cursor, 10));
+    }
+}
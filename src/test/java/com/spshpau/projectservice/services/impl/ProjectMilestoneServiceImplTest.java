@@ -1,5 +1,7 @@
 package com.spshpau.projectservice.services.impl;
 
+import com.spshpau.projectservice.dto.CursorPage;
+import com.spshpau.projectservice.dto.KeysetCursor;
 import com.spshpau.projectservice.dto.MilestoneCreateDto;
 import com.spshpau.projectservice.dto.MilestoneResponseDto;
 import com.spshpau.projectservice.dto.MilestoneUpdateDto;
@@ -27,6 +29,7 @@ import org.springframework.data.domain.Pageable;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -262,4 +265,46 @@ class ProjectMilestoneServiceImplTest {
         });
         verify(projectService, times(1)).verifyUserIsProjectMember(projectId, currentUserId);
     }
-}
\ No newline at end of file
+
+    @Test
+    void scrollMilestonesForProject_datedRowsExhausted_continuesWithUndatedMilestones() {
+        ProjectMilestone undated = new ProjectMilestone();
+        undated.setId(UUID.randomUUID());
+        undated.setProject(project);
+        undated.setTitle("Someday");
+        when(projectMilestoneRepository.findByProjectIdAndDueDateIsNotNullOrderByDueDateAscIdAsc(projectId, PageRequest.of(0, 3)))
+                .thenReturn(List.of(projectMilestone));
+        when(projectMilestoneRepository.findMilestonesWithoutDueDateAfter(projectId, KeysetCursor.MIN_ID, PageRequest.of(0, 2)))
+                .thenReturn(List.of(undated));
+
+        CursorPage<MilestoneResponseDto> result = projectMilestoneService.scrollMilestonesForProject(projectId, currentUserId, null, 2);
+
+        assertEquals(2, result.getContent().size());
+        assertEquals(milestoneId, result.getContent().get(0).getId());
+        assertEquals(undated.getId(), result.getContent().get(1).getId());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void scrollMilestonesForProject_cursorInUndatedPhase_skipsDatedQuery() {
+        ProjectMilestone undated = new ProjectMilestone();
+        undated.setId(UUID.randomUUID());
+        undated.setProject(project);
+        undated.setTitle("Someday");
+        UUID lastSeenId = UUID.randomUUID();
+        when(projectMilestoneRepository.findMilestonesWithoutDueDateAfter(projectId, lastSeenId, PageRequest.of(0, 2)))
+                .thenReturn(List.of(undated, projectMilestone));
+
+        CursorPage<MilestoneResponseDto> result = projectMilestoneService.scrollMilestonesForProject(
+                projectId, currentUserId, new KeysetCursor(null, lastSeenId).encode(), 1);
+
+        assertEquals(1, result.getContent().size());
+        assertTrue(result.isHasNext());
+        KeysetCursor next = KeysetCursor.decode(result.getNextCursor());
+        assertNull(next.getSortKey());
+        assertEquals(undated.getId(), next.getId());
+        verify(projectMilestoneRepository, never()).findByProjectIdAndDueDateIsNotNullOrderByDueDateAscIdAsc(any(), any());
+        verify(projectMilestoneRepository, never()).findMilestonesWithDueDateAfter(any(), any(), any(), any());
+    }
+}
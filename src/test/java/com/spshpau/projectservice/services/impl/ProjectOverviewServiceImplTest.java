@@ -0,0 +1,191 @@
+package com.spshpau.projectservice.services.impl;
+
+import com.spshpau.projectservice.dto.ProjectOverviewDto;
+import com.spshpau.projectservice.model.Project;
+import com.spshpau.projectservice.model.ProjectBudget;
+import com.spshpau.projectservice.model.ProjectMilestone;
+import com.spshpau.projectservice.model.SimpleUser;
+import com.spshpau.projectservice.model.enums.TaskStatus;
+import com.spshpau.projectservice.repositories.ProjectBudgetrepository;
+import com.spshpau.projectservice.repositories.ProjectFileRepository;
+import com.spshpau.projectservice.repositories.ProjectMilestoneRepository;
+import com.spshpau.projectservice.repositories.ProjectRepository;
+import com.spshpau.projectservice.repositories.ProjectTaskRepository;
+import com.spshpau.projectservice.services.ProjectService;
+import com.spshpau.projectservice.services.exceptions.ProjectNotFoundException;
+import com.spshpau.projectservice.services.exceptions.UnauthorizedOperationException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ProjectOverviewServiceImplTest {
+
+    @Mock
+    private ProjectRepository projectRepository;
+    @Mock
+    private ProjectTaskRepository projectTaskRepository;
+    @Mock
+    private ProjectMilestoneRepository projectMilestoneRepository;
+    @Mock
+    private ProjectBudgetrepository projectBudgetRepository;
+    @Mock
+    private ProjectFileRepository projectFileRepository;
+    @Mock
+    private ProjectService projectService;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ExecutorService executor;
+    private ProjectOverviewServiceImpl projectOverviewService;
+
+    private UUID projectId;
+    private UUID currentUserId;
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(2);
+        projectOverviewService = new ProjectOverviewServiceImpl(projectRepository, projectTaskRepository,
+                projectMilestoneRepository, projectBudgetRepository, projectFileRepository, projectService,
+                executor, transactionManager);
+
+        projectId = UUID.randomUUID();
+        currentUserId = UUID.randomUUID();
+        project = new Project();
+        project.setId(projectId);
+        project.setTitle("Test Project");
+        project.setOwner(new SimpleUser(currentUserId, "owner", "Owner", "User", "Location", null, null, null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private ProjectTaskRepository.StatusCount statusCount(TaskStatus status, long count) {
+        return new ProjectTaskRepository.StatusCount() {
+            @Override
+            public TaskStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+
+    @Test
+    void getProjectOverview_success_combinesAllSections() {
+        ProjectMilestone milestone = new ProjectMilestone();
+        milestone.setId(UUID.randomUUID());
+        milestone.setTitle("Release");
+        milestone.setProject(project);
+        milestone.setDueDate(Timestamp.from(Instant.now().plusSeconds(3600)));
+        ProjectBudget budget = new ProjectBudget();
+        budget.setId(projectId);
+        budget.setCurrency("EUR");
+        budget.setTotalAmount(new BigDecimal("1000.00"));
+        budget.setSpentAmount(new BigDecimal("250.00"));
+        List<ProjectTaskRepository.StatusCount> counts = List.of(statusCount(TaskStatus.TODO, 3), statusCount(TaskStatus.DONE, 2));
+
+        when(projectRepository.findWithMembersById(projectId)).thenReturn(Optional.of(project));
+        when(projectTaskRepository.countTasksByStatus(projectId)).thenReturn(counts);
+        when(projectMilestoneRepository.findByProjectIdAndDueDateGreaterThanEqualOrderByDueDateAscIdAsc(eq(projectId), any(Timestamp.class), any(Pageable.class)))
+                .thenReturn(List.of(milestone));
+        when(projectBudgetRepository.findById(projectId)).thenReturn(Optional.of(budget));
+        when(projectFileRepository.findByProjectIdAndLatestVersionTrueOrderByUploadTimestampDescIdDesc(eq(projectId), any(Pageable.class)))
+                .thenReturn(List.of());
+
+        ProjectOverviewDto overview = projectOverviewService.getProjectOverview(projectId, currentUserId, 5, 3);
+
+        assertEquals(projectId, overview.getProject().getId());
+        assertEquals(3L, overview.getTaskCountsByStatus().get(TaskStatus.TODO));
+        assertEquals(0L, overview.getTaskCountsByStatus().get(TaskStatus.IN_PROGRESS));
+        assertEquals(5L, overview.getTotalTasks());
+        assertEquals(1, overview.getUpcomingMilestones().size());
+        assertEquals(new BigDecimal("750.00"), overview.getBudget().getRemainingAmount());
+        assertTrue(overview.getLatestFiles().isEmpty());
+        verify(projectService, times(1)).verifyUserIsProjectMember(projectId, currentUserId);
+        verify(projectMilestoneRepository).findByProjectIdAndDueDateGreaterThanEqualOrderByDueDateAscIdAsc(
+                eq(projectId), any(Timestamp.class), argThat(pageable -> pageable.getPageSize() == 5));
+        verify(projectFileRepository).findByProjectIdAndLatestVersionTrueOrderByUploadTimestampDescIdDesc(
+                eq(projectId), argThat(pageable -> pageable.getPageSize() == 3));
+        verify(transactionManager, times(5)).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+    @Test
+    void getProjectOverview_noBudget_returnsNullBudget() {
+        when(projectRepository.findWithMembersById(projectId)).thenReturn(Optional.of(project));
+        when(projectTaskRepository.countTasksByStatus(projectId)).thenReturn(List.of());
+
+        ProjectOverviewDto overview = projectOverviewService.getProjectOverview(projectId, currentUserId, 0, 0);
+
+        assertNull(overview.getBudget());
+        assertEquals(0L, overview.getTotalTasks());
+        assertTrue(overview.getUpcomingMilestones().isEmpty());
+        verifyNoInteractions(projectMilestoneRepository, projectFileRepository);
+    }
+
+    @Test
+    void getProjectOverview_projectNotFound_throwsProjectNotFound() {
+        when(projectRepository.findWithMembersById(projectId)).thenReturn(Optional.empty());
+
+        assertThrows(ProjectNotFoundException.class,
+                () -> projectOverviewService.getProjectOverview(projectId, currentUserId, 5, 5));
+    }
+
+    @Test
+    void getProjectOverview_queryFails_rethrowsCause() {
+        when(projectRepository.findWithMembersById(projectId)).thenReturn(Optional.of(project));
+        when(projectBudgetRepository.findById(projectId)).thenThrow(new IllegalStateException("connection lost"));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> projectOverviewService.getProjectOverview(projectId, currentUserId, 5, 5));
+        assertEquals("connection lost", exception.getMessage());
+    }
+
+    @Test
+    void getProjectOverview_notMember_throwsBeforeQuerying() {
+        doThrow(new UnauthorizedOperationException("User is not a member of this project."))
+                .when(projectService).verifyUserIsProjectMember(projectId, currentUserId);
+
+        assertThrows(UnauthorizedOperationException.class,
+                () -> projectOverviewService.getProjectOverview(projectId, currentUserId, 5, 5));
+        verifyNoInteractions(projectRepository, projectTaskRepository, projectMilestoneRepository,
+                projectBudgetRepository, projectFileRepository);
+    }
+
+    @Test
+    void getProjectOverview_limitTooLarge_throwsIllegalArgumentException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> projectOverviewService.getProjectOverview(projectId, currentUserId, 51, 5));
+        verifyNoInteractions(projectService);
+    }
+}
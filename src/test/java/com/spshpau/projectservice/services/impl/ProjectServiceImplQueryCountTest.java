@@ -0,0 +1,119 @@
+package com.spshpau.projectservice.services.impl;
+
+import com.spshpau.projectservice.dto.ProjectResponseDto;
+import com.spshpau.projectservice.model.Project;
+import com.spshpau.projectservice.model.ProjectBudget;
+import com.spshpau.projectservice.model.SimpleUser;
+import com.spshpau.projectservice.otherservices.UserClient;
+import com.spshpau.projectservice.services.SimpleUserService;
+import com.spshpau.projectservice.services.UserConnectionService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Counts the SQL statements of the project listings against an embedded database,
+ * so lazy loads per row show up as they would in production.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "application.cofig.userclienturl=http://localhost", // The Feign client is registered by the application class
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import(ProjectServiceImpl.class)
+class ProjectServiceImplQueryCountTest {
+
+    private static final int PROJECT_COUNT = 20;
+
+    @MockitoBean
+    private SimpleUserService simpleUserService;
+    @MockitoBean
+    private UserClient userClient;
+    @MockitoBean
+    private UserConnectionService userConnectionService;
+    @MockitoBean
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ProjectServiceImpl projectService;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private SimpleUser owner;
+    private SimpleUser collaborator;
+
+    @BeforeEach
+    void setUp() {
+        owner = persistUser("owner");
+        collaborator = persistUser("collaborator");
+        for (int i = 0; i < PROJECT_COUNT; i++) {
+            Project project = new Project();
+            project.setTitle("Project " + i);
+            project.setOwner(owner);
+            project.getCollaborators().add(collaborator);
+            entityManager.persist(project);
+
+            ProjectBudget budget = new ProjectBudget();
+            budget.setProject(project);
+            budget.setCurrency("EUR");
+            budget.setTotalAmount(new BigDecimal("100.00"));
+            budget.setSpentAmount(BigDecimal.ZERO);
+            entityManager.persist(budget);
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private SimpleUser persistUser(String username) {
+        SimpleUser user = new SimpleUser();
+        user.setId(UUID.randomUUID());
+        user.setUsername(username);
+        entityManager.persist(user);
+        return user;
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+
+    @Test
+    void getOwnedProjects_runsSameStatementsRegardlessOfPageSize() {
+        Statistics statistics = statistics();
+
+        Page<ProjectResponseDto> page = projectService.getOwnedProjects(owner.getId(), PageRequest.of(0, 50));
+
+        assertEquals(PROJECT_COUNT, page.getContent().size());
+        assertTrue(page.getContent().stream().allMatch(p -> p.getCollaborators().size() == 1));
+        // The page with owner and budget fetched, then the collaborators of the whole page
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getCollaboratingProjects_runsSameStatementsRegardlessOfPageSize() {
+        Statistics statistics = statistics();
+
+        Page<ProjectResponseDto> page = projectService.getCollaboratingProjects(collaborator.getId(), PageRequest.of(0, 50));
+
+        assertEquals(PROJECT_COUNT, page.getContent().size());
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+}
@@ -1,30 +1,42 @@
 package com.spshpau.projectservice.services.impl;
 
+import com.spshpau.projectservice.dto.CursorPage;
+import com.spshpau.projectservice.dto.DeadlineItemDto;
+import com.spshpau.projectservice.dto.KeysetCursor;
 import com.spshpau.projectservice.dto.ProjectCreateDto;
 import com.spshpau.projectservice.dto.ProjectResponseDto;
 import com.spshpau.projectservice.dto.ProjectUpdateDto;
 import com.spshpau.projectservice.dto.UserSummaryDto;
+import com.spshpau.projectservice.dto.enums.DeadlineItemType;
 import com.spshpau.projectservice.model.Project;
 import com.spshpau.projectservice.model.SimpleUser;
-import com.spshpau.projectservice.otherservices.UserClient;
+import com.spshpau.projectservice.model.enums.TaskStatus;
 import com.spshpau.projectservice.repositories.ProjectRepository;
 import com.spshpau.projectservice.repositories.ProjectTaskRepository;
 import com.spshpau.projectservice.services.SimpleUserService;
+import com.spshpau.projectservice.services.UserConnectionService;
 import com.spshpau.projectservice.services.exceptions.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
 import org.springframework.data.domain.*;
 
+import java.sql.Timestamp;
+import java.time.Instant;
 import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.AdditionalMatchers.not;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -40,7 +52,9 @@ class ProjectServiceImplTest {
     @Mock
     private SimpleUserService simpleUserService;
     @Mock
-    private UserClient userClient;
+    private UserConnectionService userConnectionService;
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager();
 
     @InjectMocks
     private ProjectServiceImpl projectService;
@@ -102,6 +116,10 @@ class ProjectServiceImplTest {
         when(simpleUserService.findUserById(ownerId)).thenReturn(owner);
         when(simpleUserService.findUserById(collaboratorId)).thenReturn(collaborator);
         when(simpleUserService.findUserById(anotherUserId)).thenReturn(anotherUser);
+        when(projectRepository.existsById(projectId)).thenReturn(true);
+        when(projectRepository.isUserProjectMember(projectId, ownerId)).thenReturn(true);
+        when(projectRepository.isUserProjectMember(projectId, collaboratorId)).thenReturn(true);
+        when(projectRepository.isUserProjectMember(projectId, anotherUserId)).thenReturn(false);
     }
 
     // --- createProject ---
@@ -157,24 +175,96 @@ class ProjectServiceImplTest {
     @Test
     void getOwnedProjects_success() {
         Page<Project> projectPage = new PageImpl<>(Collections.singletonList(project), pageable, 1);
-        when(projectRepository.findByOwnerId(ownerId, pageable)).thenReturn(projectPage);
+        when(projectRepository.findWithOwnerByOwnerId(ownerId, pageable)).thenReturn(projectPage);
 
         Page<ProjectResponseDto> response = projectService.getOwnedProjects(ownerId, pageable);
         assertNotNull(response);
         assertEquals(1, response.getTotalElements());
         assertEquals(projectId, response.getContent().get(0).getId());
+        verify(projectRepository).fetchCollaboratorsByProjectIds(List.of(projectId));
+    }
+
+    @Test
+    void getOwnedProjects_emptyPage_skipsCollaboratorQuery() {
+        when(projectRepository.findWithOwnerByOwnerId(ownerId, pageable)).thenReturn(Page.empty(pageable));
+
+        Page<ProjectResponseDto> response = projectService.getOwnedProjects(ownerId, pageable);
+
+        assertTrue(response.isEmpty());
+        verify(projectRepository, never()).fetchCollaboratorsByProjectIds(anyCollection());
     }
 
     // --- getCollaboratingProjects ---
     @Test
     void getCollaboratingProjects_success() {
         Page<Project> projectPage = new PageImpl<>(Collections.singletonList(project), pageable, 1);
-        when(projectRepository.findByCollaboratorsId(collaboratorId, pageable)).thenReturn(projectPage);
+        when(projectRepository.findWithOwnerByCollaboratorId(collaboratorId, pageable)).thenReturn(projectPage);
 
         Page<ProjectResponseDto> response = projectService.getCollaboratingProjects(collaboratorId, pageable);
         assertNotNull(response);
         assertEquals(1, response.getTotalElements());
         assertEquals(projectId, response.getContent().get(0).getId());
+        verify(projectRepository).fetchCollaboratorsByProjectIds(List.of(projectId));
+    }
+
+    // --- scrollUpcomingDeadlines ---
+    private ProjectRepository.DeadlineRow deadlineRow(String type, UUID id, Instant dueDate, String status) {
+        ProjectRepository.DeadlineRow row = mock(ProjectRepository.DeadlineRow.class);
+        when(row.getType()).thenReturn(type);
+        when(row.getId()).thenReturn(id);
+        when(row.getTitle()).thenReturn(type + " title");
+        when(row.getDueDate()).thenReturn(Timestamp.from(dueDate));
+        when(row.getStatus()).thenReturn(status);
+        when(row.getProjectId()).thenReturn(projectId);
+        when(row.getProjectTitle()).thenReturn(project.getTitle());
+        return row;
+    }
+
+    @Test
+    void scrollUpcomingDeadlines_firstPage_startsAtWindowStart() {
+        Instant from = Instant.parse("2024-05-01T00:00:00Z");
+        Instant to = Instant.parse("2024-05-08T00:00:00Z");
+        UUID taskId = UUID.randomUUID();
+        UUID milestoneId = UUID.randomUUID();
+        List<ProjectRepository.DeadlineRow> rows = List.of(
+                deadlineRow("TASK", taskId, from.plusSeconds(60), "TODO"),
+                deadlineRow("MILESTONE", milestoneId, from.plusSeconds(120), null));
+        when(projectRepository.findDeadlinesAfter(collaboratorId, Timestamp.from(from), Timestamp.from(to),
+                Timestamp.from(from), KeysetCursor.MIN_ID, 2)).thenReturn(rows);
+
+        CursorPage<DeadlineItemDto> result = projectService.scrollUpcomingDeadlines(collaboratorId, from, to, null, 1);
+
+        assertEquals(1, result.getContent().size());
+        assertEquals(DeadlineItemType.TASK, result.getContent().get(0).getType());
+        assertEquals(TaskStatus.TODO, result.getContent().get(0).getStatus());
+        assertTrue(result.isHasNext());
+        KeysetCursor next = KeysetCursor.decode(result.getNextCursor());
+        assertEquals(from.plusSeconds(60), next.getSortKey());
+        assertEquals(taskId, next.getId());
+    }
+
+    @Test
+    void scrollUpcomingDeadlines_withCursor_continuesAfterCursor() {
+        Instant from = Instant.parse("2024-05-01T00:00:00Z");
+        Instant to = Instant.parse("2024-05-08T00:00:00Z");
+        KeysetCursor cursor = new KeysetCursor(from.plusSeconds(60), UUID.randomUUID());
+        when(projectRepository.findDeadlinesAfter(collaboratorId, Timestamp.from(from), Timestamp.from(to),
+                Timestamp.from(cursor.getSortKey()), cursor.getId(), 21)).thenReturn(Collections.emptyList());
+
+        CursorPage<DeadlineItemDto> result = projectService.scrollUpcomingDeadlines(collaboratorId, from, to, cursor.encode(), 20);
+
+        assertTrue(result.getContent().isEmpty());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void scrollUpcomingDeadlines_emptyWindow_throwsIllegalArgumentException() {
+        Instant from = Instant.parse("2024-05-01T00:00:00Z");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> projectService.scrollUpcomingDeadlines(collaboratorId, from, from, null, 20));
+        verify(projectRepository, never()).findDeadlinesAfter(any(), any(), any(), any(), any(), anyInt());
     }
 
     // --- getProjectOwner ---
@@ -188,16 +278,20 @@ class ProjectServiceImplTest {
     // --- getProjectCollaborators ---
     @Test
     void getProjectCollaborators_success() {
+        when(projectRepository.findCollaboratorSummariesByProjectId(projectId, pageable))
+                .thenReturn(new PageImpl<>(Collections.singletonList(collaboratorSummaryDto), pageable, 1));
+
         Page<UserSummaryDto> response = projectService.getProjectCollaborators(projectId, pageable);
         assertNotNull(response);
         assertEquals(1, response.getTotalElements());
         assertEquals(collaboratorId, response.getContent().get(0).getId());
+        verify(projectRepository, never()).findById(projectId);
     }
 
     @Test
     void getProjectCollaborators_noCollaborators_success() {
-        project.setCollaborators(new HashSet<>());
-        when(projectRepository.findById(projectId)).thenReturn(Optional.of(project));
+        when(projectRepository.findCollaboratorSummariesByProjectId(projectId, pageable))
+                .thenReturn(Page.empty(pageable));
 
         Page<UserSummaryDto> response = projectService.getProjectCollaborators(projectId, pageable);
         assertNotNull(response);
@@ -205,6 +299,25 @@ class ProjectServiceImplTest {
         assertEquals(0, response.getTotalElements());
     }
 
+    @Test
+    void getProjectCollaborators_sortedPageable_passesUnsortedPageToQuery() {
+        Pageable sortedPageable = PageRequest.of(2, 5, Sort.by("lastName"));
+        when(projectRepository.findCollaboratorSummariesByProjectId(eq(projectId), any(Pageable.class)))
+                .thenReturn(Page.empty(PageRequest.of(2, 5)));
+
+        projectService.getProjectCollaborators(projectId, sortedPageable);
+
+        verify(projectRepository).findCollaboratorSummariesByProjectId(projectId, PageRequest.of(2, 5));
+    }
+
+    @Test
+    void getProjectCollaborators_projectNotFound_throwsProjectNotFound() {
+        UUID nonExistentProjectId = UUID.randomUUID();
+        assertThrows(ProjectNotFoundException.class, () -> {
+            projectService.getProjectCollaborators(nonExistentProjectId, pageable);
+        });
+    }
+
 
     // --- updateProject ---
     @Test
@@ -246,7 +359,7 @@ class ProjectServiceImplTest {
         SimpleUser newCollaborator = new SimpleUser(newCollaboratorId, "newCollab", "New", "Collab", "Loc", new HashSet<>(), new HashSet<>(), new HashSet<>());
         UserSummaryDto newCollaboratorSummary = UserSummaryDto.fromEntity(newCollaborator);
 
-        when(userClient.findConnectionsByJwt(bearerToken)).thenReturn(Collections.singletonList(newCollaboratorSummary));
+        when(userConnectionService.findConnection(ownerId, newCollaboratorId, bearerToken)).thenReturn(Optional.of(newCollaboratorSummary));
         when(simpleUserService.getOrCreateSimpleUser(newCollaboratorSummary)).thenReturn(newCollaborator);
         when(projectRepository.save(any(Project.class))).thenReturn(project);
 
@@ -257,6 +370,8 @@ class ProjectServiceImplTest {
         assertTrue(project.getCollaborators().contains(newCollaborator));
         assertTrue(newCollaborator.getCollaboratingProjects().contains(project));
         verify(projectRepository).save(project);
+        // The summary comes with the cached connections, so no user is fetched from the user service
+        verify(simpleUserService).getOrCreateSimpleUser(newCollaboratorSummary);
     }
 
     @Test
@@ -284,11 +399,12 @@ class ProjectServiceImplTest {
     @Test
     void addCollaborator_notConnected_throwsNotConnected() {
         UUID nonConnectionId = UUID.randomUUID();
-        when(userClient.findConnectionsByJwt(bearerToken)).thenReturn(Collections.emptyList());
+        when(userConnectionService.findConnection(ownerId, nonConnectionId, bearerToken)).thenReturn(Optional.empty());
 
         assertThrows(NotConnectedException.class, () -> {
             projectService.addCollaborator(projectId, nonConnectionId, ownerId, bearerToken);
         });
+        verify(simpleUserService, never()).getOrCreateSimpleUser(any(UserSummaryDto.class));
     }
 
     // --- removeCollaborator ---
@@ -347,6 +463,51 @@ class ProjectServiceImplTest {
         });
     }
 
+    @Test
+    void verifyUserIsProjectMember_projectNotFound_throwsProjectNotFound() {
+        UUID nonExistentProjectId = UUID.randomUUID();
+        assertThrows(ProjectNotFoundException.class, () -> {
+            projectService.verifyUserIsProjectMember(nonExistentProjectId, ownerId);
+        });
+    }
+
+    @Test
+    void verifyUserIsProjectMember_repeatedCalls_queryOnce() {
+        projectService.verifyUserIsProjectMember(projectId, collaboratorId);
+        projectService.verifyUserIsProjectMember(projectId, collaboratorId);
+        projectService.verifyUserIsProjectMember(projectId, collaboratorId);
+
+        verify(projectRepository, times(1)).isUserProjectMember(projectId, collaboratorId);
+        verify(projectRepository, never()).findById(projectId);
+    }
+
+    @Test
+    void verifyUserIsProjectMember_afterRemoveCollaborator_reloadsMembership() {
+        when(projectRepository.save(any(Project.class))).thenReturn(project);
+        projectService.verifyUserIsProjectMember(projectId, collaboratorId);
+
+        projectService.removeCollaborator(projectId, collaboratorId, ownerId);
+        when(projectRepository.isUserProjectMember(projectId, collaboratorId)).thenReturn(false);
+
+        assertThrows(UnauthorizedOperationException.class, () -> {
+            projectService.verifyUserIsProjectMember(projectId, collaboratorId);
+        });
+        verify(projectRepository, times(2)).isUserProjectMember(projectId, collaboratorId);
+    }
+
+    @Test
+    void verifyUserIsProjectMember_afterDeleteProject_evictsAllMembers() {
+        projectService.verifyUserIsProjectMember(projectId, ownerId);
+        projectService.verifyUserIsProjectMember(projectId, collaboratorId);
+
+        projectService.deleteProject(projectId, ownerId);
+
+        projectService.verifyUserIsProjectMember(projectId, ownerId);
+        projectService.verifyUserIsProjectMember(projectId, collaboratorId);
+        verify(projectRepository, times(2)).isUserProjectMember(projectId, ownerId);
+        verify(projectRepository, times(2)).isUserProjectMember(projectId, collaboratorId);
+    }
+
     // --- isUserOwnerOfProject ---
     @Test
     void isUserOwnerOfProject_isOwner_returnsTrue() {
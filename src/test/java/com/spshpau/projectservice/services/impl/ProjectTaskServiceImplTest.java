@@ -1,7 +1,11 @@
 package com.spshpau.projectservice.services.impl;
 
+import com.spshpau.projectservice.config.CacheConfig;
+import com.spshpau.projectservice.dto.CursorPage;
+import com.spshpau.projectservice.dto.KeysetCursor;
 import com.spshpau.projectservice.dto.TaskCreateDto;
 import com.spshpau.projectservice.dto.TaskResponseDto;
+import com.spshpau.projectservice.dto.TaskStatusCountsDto;
 import com.spshpau.projectservice.dto.TaskUpdateDto;
 import com.spshpau.projectservice.model.Project;
 import com.spshpau.projectservice.model.ProjectTask;
@@ -20,9 +24,12 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -31,11 +38,16 @@ import org.springframework.data.domain.Pageable;
 import java.sql.Timestamp;
 import java.time.Instant;
 import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -49,6 +61,8 @@ class ProjectTaskServiceImplTest {
     private SimpleUserService simpleUserService;
     @Mock
     private ProjectService projectService;
+    @Spy
+    private CacheManager cacheManager = new CaffeineCacheManager();
 
     @InjectMocks
     private ProjectTaskServiceImpl projectTaskService;
@@ -367,4 +381,313 @@ class ProjectTaskServiceImplTest {
         verify(projectService, times(1)).verifyUserIsProjectMember(projectId, currentUserId);
         verify(projectTaskRepository, times(1)).save(projectTask);
     }
-}
\ No newline at end of file
+
+    @Test
+    void scrollTasksForProject_firstPageWithMoreRows_returnsNextCursor() {
+        ProjectTask secondTask = new ProjectTask();
+        secondTask.setId(UUID.randomUUID());
+        secondTask.setProject(project);
+        secondTask.setTitle("Second Task");
+        secondTask.setStatus(TaskStatus.TODO);
+        secondTask.setCreatedAt(Timestamp.from(projectTask.getCreatedAt().toInstant().plusSeconds(60)));
+        doNothing().when(projectService).verifyUserIsProjectMember(projectId, currentUserId);
+        when(projectTaskRepository.findByProjectIdOrderByCreatedAtAscIdAsc(projectId, PageRequest.of(0, 2)))
+                .thenReturn(List.of(projectTask, secondTask));
+
+        CursorPage<TaskResponseDto> result = projectTaskService.scrollTasksForProject(projectId, currentUserId, null, 1);
+
+        assertEquals(1, result.getContent().size());
+        assertEquals(taskId, result.getContent().get(0).getId());
+        assertTrue(result.isHasNext());
+        KeysetCursor next = KeysetCursor.decode(result.getNextCursor());
+        assertEquals(projectTask.getCreatedAt().toInstant(), next.getSortKey());
+        assertEquals(taskId, next.getId());
+    }
+
+    @Test
+    void scrollTasksForProject_withCursor_queriesAfterCursor() {
+        KeysetCursor cursor = new KeysetCursor(projectTask.getCreatedAt().toInstant(), taskId);
+        doNothing().when(projectService).verifyUserIsProjectMember(projectId, currentUserId);
+        when(projectTaskRepository.findTasksAfter(projectId, projectTask.getCreatedAt(), taskId, PageRequest.of(0, 21)))
+                .thenReturn(Collections.emptyList());
+
+        CursorPage<TaskResponseDto> result = projectTaskService.scrollTasksForProject(projectId, currentUserId, cursor.encode(), 20);
+
+        assertTrue(result.getContent().isEmpty());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+        verify(projectTaskRepository, never()).findByProjectIdOrderByCreatedAtAscIdAsc(any(), any());
+    }
+
+    @Test
+    void scrollTasksForProject_malformedCursor_throwsIllegalArgumentException() {
+        doNothing().when(projectService).verifyUserIsProjectMember(projectId, currentUserId);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> projectTaskService.scrollTasksForProject(projectId, currentUserId, "not-a-cursor", 20));
+    }
+
+    // --- bulk Tests ---
+    @Test
+    void createTasks_success_checksMembershipAndResolvesAssigneesOnce() {
+        TaskCreateDto assignedDto = new TaskCreateDto();
+        assignedDto.setTitle("Assigned Task");
+        assignedDto.setStatus(TaskStatus.TODO);
+        assignedDto.setAssignedUserId(assigneeUserId);
+        TaskCreateDto secondAssignedDto = new TaskCreateDto();
+        secondAssignedDto.setTitle("Second Assigned Task");
+        secondAssignedDto.setStatus(TaskStatus.IN_PROGRESS);
+        secondAssignedDto.setAssignedUserId(assigneeUserId);
+
+        when(projectRepository.findById(projectId)).thenReturn(Optional.of(project));
+        when(simpleUserService.findProjectMembers(projectId, Set.of(assigneeUserId))).thenReturn(List.of(assigneeUser));
+        when(projectTaskRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<TaskResponseDto> result = projectTaskService.createTasks(projectId, List.of(taskCreateDto, assignedDto, secondAssignedDto), currentUserId);
+
+        assertEquals(3, result.size());
+        assertNull(result.get(0).getAssignedUser());
+        assertEquals(assigneeUserId, result.get(1).getAssignedUser().getId());
+        assertEquals(TaskStatus.IN_PROGRESS, result.get(2).getStatus());
+        verify(projectService, times(1)).verifyUserIsProjectMember(projectId, currentUserId);
+        verify(simpleUserService, times(1)).findProjectMembers(any(), any());
+        verify(simpleUserService, never()).findUserById(any());
+        verify(projectTaskRepository, never()).save(any(ProjectTask.class));
+    }
+
+    @Test
+    void createTasks_assigneeNotMember_throwsUnauthorizedAndSavesNothing() {
+        taskCreateDto.setAssignedUserId(assigneeUserId);
+        when(projectRepository.findById(projectId)).thenReturn(Optional.of(project));
+        when(simpleUserService.findProjectMembers(projectId, Set.of(assigneeUserId))).thenReturn(List.of());
+
+        assertThrows(UnauthorizedOperationException.class,
+                () -> projectTaskService.createTasks(projectId, List.of(taskCreateDto), currentUserId));
+        verify(projectTaskRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void createTasks_tooManyTasks_throwsIllegalArgumentException() {
+        List<TaskCreateDto> taskDtos = Collections.nCopies(501, taskCreateDto);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> projectTaskService.createTasks(projectId, taskDtos, currentUserId));
+        verifyNoInteractions(projectService, projectRepository, projectTaskRepository);
+    }
+
+    @Test
+    void updateTaskStatuses_success() {
+        when(projectTaskRepository.findByProjectIdAndIdIn(projectId, Set.of(taskId))).thenReturn(List.of(projectTask));
+        when(projectTaskRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<TaskResponseDto> result = projectTaskService.updateTaskStatuses(projectId, List.of(taskId), TaskStatus.DONE, currentUserId);
+
+        assertEquals(1, result.size());
+        assertEquals(TaskStatus.DONE, result.get(0).getStatus());
+        verify(projectService).verifyUserIsProjectMember(projectId, currentUserId);
+    }
+
+    @Test
+    void updateTaskStatuses_taskNotInProject_throwsTaskNotFound() {
+        UUID missingTaskId = UUID.randomUUID();
+        when(projectTaskRepository.findByProjectIdAndIdIn(projectId, Set.of(taskId, missingTaskId))).thenReturn(List.of(projectTask));
+
+        TaskNotFoundException exception = assertThrows(TaskNotFoundException.class,
+                () -> projectTaskService.updateTaskStatuses(projectId, List.of(taskId, missingTaskId), TaskStatus.DONE, currentUserId));
+        assertTrue(exception.getMessage().contains(missingTaskId.toString()));
+        assertEquals(TaskStatus.TODO, projectTask.getStatus());
+        verify(projectTaskRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    void assignTasks_success() {
+        when(simpleUserService.findProjectMembers(projectId, Set.of(assigneeUserId))).thenReturn(List.of(assigneeUser));
+        when(projectTaskRepository.findByProjectIdAndIdIn(projectId, Set.of(taskId))).thenReturn(List.of(projectTask));
+        when(projectTaskRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<TaskResponseDto> result = projectTaskService.assignTasks(projectId, List.of(taskId), assigneeUserId, currentUserId);
+
+        assertEquals(assigneeUserId, result.get(0).getAssignedUser().getId());
+        verify(projectService).verifyUserIsProjectMember(projectId, currentUserId);
+    }
+
+    @Test
+    void assignTasks_nullAssignee_unassignsTasks() {
+        projectTask.setAssignedUser(assigneeUser);
+        when(projectTaskRepository.findByProjectIdAndIdIn(projectId, Set.of(taskId))).thenReturn(List.of(projectTask));
+        when(projectTaskRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        List<TaskResponseDto> result = projectTaskService.assignTasks(projectId, List.of(taskId), null, currentUserId);
+
+        assertNull(result.get(0).getAssignedUser());
+        verify(simpleUserService, never()).findProjectMembers(any(), any());
+    }
+
+    private ProjectTaskRepository.StatusCount statusCount(TaskStatus status, long count) {
+        return new ProjectTaskRepository.StatusCount() {
+            @Override
+            public TaskStatus getStatus() {
+                return status;
+            }
+
+            @Override
+            public long getCount() {
+                return count;
+            }
+        };
+    }
+
+    @Test
+    void getTaskStatusCounts_fillsMissingStatusesAndCaches() {
+        when(projectTaskRepository.countTasksByStatus(projectId))
+                .thenReturn(List.of(statusCount(TaskStatus.TODO, 3), statusCount(TaskStatus.DONE, 2)));
+
+        TaskStatusCountsDto result = projectTaskService.getTaskStatusCounts(projectId, currentUserId);
+        projectTaskService.getTaskStatusCounts(projectId, currentUserId);
+
+        assertEquals(3L, result.getCountsByStatus().get(TaskStatus.TODO));
+        assertEquals(0L, result.getCountsByStatus().get(TaskStatus.BLOCKED));
+        assertEquals(TaskStatus.values().length, result.getCountsByStatus().size());
+        assertEquals(5L, result.getTotal());
+        verify(projectService, times(2)).verifyUserIsProjectMember(projectId, currentUserId);
+        verify(projectTaskRepository, times(1)).countTasksByStatus(projectId);
+    }
+
+    @Test
+    void getTaskStatusCounts_notMember_throwsUnauthorized() {
+        doThrow(new UnauthorizedOperationException("User is not a member of this project."))
+                .when(projectService).verifyUserIsProjectMember(projectId, currentUserId);
+
+        assertThrows(UnauthorizedOperationException.class,
+                () -> projectTaskService.getTaskStatusCounts(projectId, currentUserId));
+        verify(projectTaskRepository, never()).countTasksByStatus(any());
+    }
+
+    @Test
+    void getTaskStatusCounts_afterStatusUpdate_reloadsCounts() {
+        projectTask.setAssignedUser(assigneeUser);
+        when(projectTaskRepository.countTasksByStatus(projectId)).thenReturn(List.of(statusCount(TaskStatus.TODO, 1)));
+        when(projectTaskRepository.countAssignedTasksByStatus(assigneeUserId)).thenReturn(List.of(statusCount(TaskStatus.TODO, 1)));
+        when(projectTaskRepository.findByProjectIdAndIdIn(projectId, Set.of(taskId))).thenReturn(List.of(projectTask));
+        when(projectTaskRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        projectTaskService.getTaskStatusCounts(projectId, currentUserId);
+        projectTaskService.getAssignedTaskStatusCounts(assigneeUserId);
+        projectTaskService.updateTaskStatuses(projectId, List.of(taskId), TaskStatus.DONE, currentUserId);
+        projectTaskService.getTaskStatusCounts(projectId, currentUserId);
+        projectTaskService.getAssignedTaskStatusCounts(assigneeUserId);
+
+        verify(projectTaskRepository, times(2)).countTasksByStatus(projectId);
+        verify(projectTaskRepository, times(2)).countAssignedTasksByStatus(assigneeUserId);
+    }
+
+    @Test
+    void getTaskStatusCounts_writeCommittedDuringRead_reloadsOnNextRead() throws Exception {
+        projectTask.setStatus(TaskStatus.TODO);
+        when(projectTaskRepository.findByProjectIdAndIdIn(projectId, Set.of(taskId))).thenReturn(List.of(projectTask));
+        when(projectTaskRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        Thread[] writer = new Thread[1];
+        // The first read counts before the status update commits; the update's eviction then waits for that load
+        when(projectTaskRepository.countTasksByStatus(projectId))
+                .thenAnswer(invocation -> {
+                    writer[0] = new Thread(() ->
+                            projectTaskService.updateTaskStatuses(projectId, List.of(taskId), TaskStatus.DONE, currentUserId));
+                    writer[0].start();
+                    while (writer[0].getState() != Thread.State.BLOCKED && writer[0].isAlive()) {
+                        Thread.onSpinWait();
+                    }
+                    return List.of(statusCount(TaskStatus.TODO, 1));
+                })
+                .thenReturn(List.of(statusCount(TaskStatus.DONE, 1)));
+
+        TaskStatusCountsDto duringWrite = projectTaskService.getTaskStatusCounts(projectId, currentUserId);
+        writer[0].join(5_000);
+        TaskStatusCountsDto afterWrite = projectTaskService.getTaskStatusCounts(projectId, currentUserId);
+
+        assertEquals(1L, duringWrite.getCountsByStatus().get(TaskStatus.TODO));
+        assertEquals(1L, afterWrite.getCountsByStatus().get(TaskStatus.DONE));
+        assertEquals(0L, afterWrite.getCountsByStatus().get(TaskStatus.TODO));
+        verify(projectTaskRepository, times(2)).countTasksByStatus(projectId);
+    }
+
+    @Test
+    void assignUserToTask_evictsAssigneeCountsOnly() {
+        projectTask.setAssignedUser(currentUser);
+        cacheManager.getCache(CacheConfig.PROJECT_TASK_STATUS_COUNTS_CACHE).put(projectId, Collections.emptyMap());
+        cacheManager.getCache(CacheConfig.ASSIGNED_TASK_STATUS_COUNTS_CACHE).put(currentUserId, Collections.emptyMap());
+        cacheManager.getCache(CacheConfig.ASSIGNED_TASK_STATUS_COUNTS_CACHE).put(assigneeUserId, Collections.emptyMap());
+        when(projectTaskRepository.findById(taskId)).thenReturn(Optional.of(projectTask));
+        when(simpleUserService.findUserById(assigneeUserId)).thenReturn(assigneeUser);
+        when(projectTaskRepository.save(any(ProjectTask.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        projectTaskService.assignUserToTask(projectId, taskId, assigneeUserId, currentUserId);
+
+        assertNotNull(cacheManager.getCache(CacheConfig.PROJECT_TASK_STATUS_COUNTS_CACHE).get(projectId));
+        assertNull(cacheManager.getCache(CacheConfig.ASSIGNED_TASK_STATUS_COUNTS_CACHE).get(currentUserId));
+        assertNull(cacheManager.getCache(CacheConfig.ASSIGNED_TASK_STATUS_COUNTS_CACHE).get(assigneeUserId));
+    }
+
+    @Test
+    void scrollAssignedTasks_datedRowsExhausted_continuesWithUndatedTasks() {
+        projectTask.setDueDate(Timestamp.from(Instant.now().plusSeconds(3600)));
+        projectTask.setAssignedUser(currentUser);
+        ProjectTask undated = new ProjectTask();
+        undated.setId(UUID.randomUUID());
+        undated.setProject(project);
+        undated.setTitle("Someday");
+        undated.setStatus(TaskStatus.TODO);
+        undated.setAssignedUser(currentUser);
+        when(projectTaskRepository.findAssignedTasksWithDueDateAfter(eq(currentUserId), eq(EnumSet.allOf(TaskStatus.class)),
+                any(Timestamp.class), any(Timestamp.class), any(Timestamp.class), eq(KeysetCursor.MIN_ID), eq(PageRequest.of(0, 3))))
+                .thenReturn(List.of(projectTask));
+        when(projectTaskRepository.findAssignedTasksWithoutDueDateAfter(currentUserId, EnumSet.allOf(TaskStatus.class),
+                KeysetCursor.MIN_ID, PageRequest.of(0, 2)))
+                .thenReturn(List.of(undated));
+
+        CursorPage<TaskResponseDto> result = projectTaskService.scrollAssignedTasks(currentUserId, null, null, null, null, 2);
+
+        assertEquals(2, result.getContent().size());
+        assertEquals(taskId, result.getContent().get(0).getId());
+        assertEquals(undated.getId(), result.getContent().get(1).getId());
+        assertFalse(result.isHasNext());
+        verifyNoInteractions(projectService);
+    }
+
+    @Test
+    void scrollAssignedTasks_dueDateFilter_skipsUndatedTasks() {
+        Instant dueFrom = Instant.parse("2024-05-01T00:00:00Z");
+        Instant dueTo = Instant.parse("2024-06-01T00:00:00Z");
+        Set<TaskStatus> statuses = EnumSet.of(TaskStatus.TODO, TaskStatus.IN_PROGRESS);
+        when(projectTaskRepository.findAssignedTasksWithDueDateAfter(currentUserId, statuses, Timestamp.from(dueFrom),
+                Timestamp.from(dueTo), Timestamp.from(dueFrom), KeysetCursor.MIN_ID, PageRequest.of(0, 21)))
+                .thenReturn(Collections.emptyList());
+
+        CursorPage<TaskResponseDto> result = projectTaskService.scrollAssignedTasks(currentUserId, statuses, dueFrom, dueTo, null, 20);
+
+        assertTrue(result.getContent().isEmpty());
+        verify(projectTaskRepository, never()).findAssignedTasksWithoutDueDateAfter(any(), any(), any(), any());
+    }
+
+    @Test
+    void scrollAssignedTasks_cursorInUndatedPhase_skipsDatedQuery() {
+        UUID lastSeenId = UUID.randomUUID();
+        when(projectTaskRepository.findAssignedTasksWithoutDueDateAfter(currentUserId, EnumSet.allOf(TaskStatus.class),
+                lastSeenId, PageRequest.of(0, 11)))
+                .thenReturn(List.of(projectTask));
+
+        CursorPage<TaskResponseDto> result = projectTaskService.scrollAssignedTasks(
+                currentUserId, Set.of(), null, null, new KeysetCursor(null, lastSeenId).encode(), 10);
+
+        assertEquals(1, result.getContent().size());
+        verify(projectTaskRepository, never()).findAssignedTasksWithDueDateAfter(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void scrollAssignedTasks_dueFromNotBeforeDueTo_throwsIllegalArgumentException() {
+        Instant due = Instant.parse("2024-05-01T00:00:00Z");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> projectTaskService.scrollAssignedTasks(currentUserId, null, due, due, null, 20));
+        verifyNoInteractions(projectTaskRepository);
+    }
+}
@@ -0,0 +1,99 @@
+package com.spshpau.projectservice.services.impl;
+
+import com.spshpau.projectservice.dto.UserSummaryDto;
+import com.spshpau.projectservice.otherservices.UserClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserConnectionServiceImplTest {
+
+    @Mock
+    private UserClient userClient;
+    @Spy
+    private CacheManager cacheManager = new ConcurrentMapCacheManager();
+
+    @InjectMocks
+    private UserConnectionServiceImpl userConnectionService;
+
+    private UUID ownerId;
+    private String bearerToken = "Bearer test-token";
+    private List<UserSummaryDto> connections;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = UUID.randomUUID();
+        connections = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            connections.add(new UserSummaryDto(UUID.randomUUID(), "user" + i, "First", "Last", "Loc"));
+        }
+    }
+
+    @Test
+    void findConnection_tenLookupsInARow_callsUserServiceOnce() {
+        when(userClient.findConnectionsByJwt(bearerToken)).thenReturn(connections);
+
+        for (UserSummaryDto connection : connections) {
+            assertTrue(userConnectionService.findConnection(ownerId, connection.getId(), bearerToken).isPresent());
+        }
+
+        verify(userClient, times(1)).findConnectionsByJwt(bearerToken);
+    }
+
+    @Test
+    void findConnection_connected_returnsCachedSummary() {
+        when(userClient.findConnectionsByJwt(bearerToken)).thenReturn(connections);
+        UserSummaryDto connection = connections.get(3);
+
+        assertEquals(Optional.of(connection), userConnectionService.findConnection(ownerId, connection.getId(), bearerToken));
+        assertEquals(Optional.of(connection), userConnectionService.findConnection(ownerId, connection.getId(), bearerToken));
+
+        verify(userClient, times(1)).findConnectionsByJwt(bearerToken);
+        verify(userClient, never()).getUserInfoById(anyString(), any());
+    }
+
+    @Test
+    void findConnection_notAConnectionOnFirstLoad_doesNotRefreshAgain() {
+        when(userClient.findConnectionsByJwt(bearerToken)).thenReturn(connections);
+
+        assertFalse(userConnectionService.findConnection(ownerId, UUID.randomUUID(), bearerToken).isPresent());
+
+        verify(userClient, times(1)).findConnectionsByJwt(bearerToken);
+    }
+
+    @Test
+    void findConnection_missOnCachedSet_refreshesOnce() {
+        UUID newConnectionId = UUID.randomUUID();
+        List<UserSummaryDto> refreshedConnections = new ArrayList<>(connections);
+        refreshedConnections.add(new UserSummaryDto(newConnectionId, "newuser", "New", "User", "Loc"));
+        when(userClient.findConnectionsByJwt(bearerToken)).thenReturn(connections, refreshedConnections);
+
+        assertTrue(userConnectionService.findConnection(ownerId, connections.get(0).getId(), bearerToken).isPresent());
+        assertTrue(userConnectionService.findConnection(ownerId, newConnectionId, bearerToken).isPresent());
+        assertTrue(userConnectionService.findConnection(ownerId, newConnectionId, bearerToken).isPresent());
+
+        verify(userClient, times(2)).findConnectionsByJwt(bearerToken);
+    }
+
+    @Test
+    void findConnection_nullResponse_treatedAsNoConnections() {
+        when(userClient.findConnectionsByJwt(bearerToken)).thenReturn(null);
+
+        assertFalse(userConnectionService.findConnection(ownerId, UUID.randomUUID(), bearerToken).isPresent());
+    }
+}
@@ -0,0 +1,96 @@
+package com.spshpau.projectservice.services.maintenance;
+
+import com.spshpau.projectservice.model.ProjectBudget;
+import com.spshpau.projectservice.repositories.BudgetExpenseRepository;
+import com.spshpau.projectservice.repositories.ProjectBudgetrepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class BudgetSpentAmountReconcilerTest {
+
+    @Mock
+    private ProjectBudgetrepository projectBudgetRepository;
+    @Mock
+    private BudgetExpenseRepository budgetExpenseRepository;
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @InjectMocks
+    private BudgetSpentAmountReconciler reconciler;
+
+    private UUID budgetId;
+    private ProjectBudget budget;
+
+    @BeforeEach
+    void setUp() {
+        budgetId = UUID.randomUUID();
+        budget = new ProjectBudget();
+        budget.setId(budgetId);
+        budget.setSpentAmount(new BigDecimal("40.00"));
+
+        doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(projectBudgetRepository.findById(budgetId)).thenReturn(Optional.of(budget));
+        when(budgetExpenseRepository.sumExpensesByBudgetId(budgetId)).thenReturn(Optional.of(new BigDecimal("55.00")));
+    }
+
+    @Test
+    void reconcile_driftedBudget_setsSpentAmountToExpenseSum() {
+        when(projectBudgetRepository.findIdsWithSpentAmountDrift()).thenReturn(List.of(budgetId));
+
+        reconciler.reconcile();
+
+        assertEquals(new BigDecimal("55.00"), budget.getSpentAmount());
+        verify(projectBudgetRepository).saveAndFlush(budget);
+    }
+
+    @Test
+    void reconcile_noDrift_changesNothing() {
+        when(projectBudgetRepository.findIdsWithSpentAmountDrift()).thenReturn(Collections.emptyList());
+
+        reconciler.reconcile();
+
+        verify(transactionTemplate, never()).executeWithoutResult(any());
+        verify(projectBudgetRepository, never()).saveAndFlush(any(ProjectBudget.class));
+    }
+
+    @Test
+    void reconcile_concurrentExpenseWrite_skipsBudgetAndContinues() {
+        UUID otherBudgetId = UUID.randomUUID();
+        ProjectBudget otherBudget = new ProjectBudget();
+        otherBudget.setId(otherBudgetId);
+        when(projectBudgetRepository.findIdsWithSpentAmountDrift()).thenReturn(List.of(budgetId, otherBudgetId));
+        when(projectBudgetRepository.saveAndFlush(budget))
+                .thenThrow(new ObjectOptimisticLockingFailureException(ProjectBudget.class, budgetId));
+        when(projectBudgetRepository.findById(otherBudgetId)).thenReturn(Optional.of(otherBudget));
+        when(budgetExpenseRepository.sumExpensesByBudgetId(otherBudgetId)).thenReturn(Optional.of(new BigDecimal("10.00")));
+
+        reconciler.reconcile();
+
+        assertEquals(new BigDecimal("10.00"), otherBudget.getSpentAmount());
+        verify(projectBudgetRepository).saveAndFlush(otherBudget);
+    }
+}
@@ -0,0 +1,91 @@
+package com.spshpau.projectservice.services.metrics;
+
+import com.spshpau.projectservice.services.ProjectFileService;
+import com.spshpau.projectservice.services.ProjectService;
+import com.spshpau.projectservice.services.exceptions.CollaboratorAlreadyExistsException;
+import com.spshpau.projectservice.services.exceptions.ProjectNotFoundException;
+import com.spshpau.projectservice.services.exceptions.UnauthorizedOperationException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceMetricsAspectTest {
+
+    @Mock
+    private ProjectService projectService;
+    @Mock
+    private ProjectFileService projectFileService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private final UUID projectId = UUID.randomUUID();
+    private final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    private <T> T instrumented(T target) {
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addAspect(new ServiceMetricsAspect(meterRegistry));
+        return proxyFactory.getProxy();
+    }
+
+    @Test
+    void serviceCall_success_recordsSuccessOutcome() {
+        when(projectService.isUserOwnerOfProject(projectId, userId)).thenReturn(true);
+
+        assertTrue(instrumented(projectService).isUserOwnerOfProject(projectId, userId));
+
+        assertEquals(1, meterRegistry.get("service.calls")
+                .tags("service", "ProjectService", "method", "isUserOwnerOfProject", "outcome", "success", "exception", "none")
+                .timer().count());
+    }
+
+    @Test
+    void serviceCall_notFound_recordsNotFoundOutcomeAndRethrows() {
+        doThrow(new ProjectNotFoundException("Project not found")).when(projectService).verifyUserIsProjectMember(any(), any());
+
+        assertThrows(ProjectNotFoundException.class, () -> instrumented(projectService).verifyUserIsProjectMember(projectId, userId));
+
+        assertEquals(1, meterRegistry.get("service.calls")
+                .tags("method", "verifyUserIsProjectMember", "outcome", "not_found", "exception", "ProjectNotFoundException")
+                .timer().count());
+    }
+
+    @Test
+    void serviceCall_asyncResult_recordsOutcomeWhenCompleted() {
+        CompletableFuture<Void> deletion = new CompletableFuture<>();
+        UUID fileId = UUID.randomUUID();
+        when(projectFileService.deleteProjectFile(projectId, fileId, userId)).thenReturn(deletion);
+
+        instrumented(projectFileService).deleteProjectFile(projectId, fileId, userId);
+        assertNull(meterRegistry.find("service.calls").timer());
+
+        deletion.completeExceptionally(new UnauthorizedOperationException("Not a member"));
+
+        assertEquals(1, meterRegistry.get("service.calls")
+                .tags("service", "ProjectFileService", "method", "deleteProjectFile", "outcome", "unauthorized")
+                .timer().count());
+    }
+
+    @Test
+    void outcome_mapsExceptionsByResponseStatus() {
+        assertEquals("invalid", ServiceMetricsAspect.outcome(new IllegalArgumentException("bad")));
+        assertEquals("client_error", ServiceMetricsAspect.outcome(new CollaboratorAlreadyExistsException("exists")));
+        assertEquals("error", ServiceMetricsAspect.outcome(new IllegalStateException("broken")));
+    }
+}